@@ -25,6 +25,7 @@
 package de.gematik.ti20.simsvc.client.config;
 
 import de.gematik.ti20.simsvc.client.model.apdu.ApduScenario;
+import de.gematik.ti20.simsvc.client.model.apdu.ApduScenarioTrie;
 import de.gematik.ti20.simsvc.client.service.ScenarioParser;
 import java.io.File;
 import java.io.FileInputStream;
@@ -95,4 +96,15 @@ public class AppConfig {
 
     return scenarios;
   }
+
+  /**
+   * Compile the loaded APDU scenarios into a prefix trie for matching incoming commands.
+   *
+   * @param apduScenarios Map of scenario names to ApduScenario objects
+   * @return Compiled scenario trie
+   */
+  @Bean
+  public ApduScenarioTrie apduScenarioTrie(Map<String, ApduScenario> apduScenarios) {
+    return ApduScenarioTrie.compile(apduScenarios);
+  }
 }
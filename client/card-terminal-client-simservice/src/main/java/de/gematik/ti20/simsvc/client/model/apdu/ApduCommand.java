@@ -24,6 +24,7 @@
  */
 package de.gematik.ti20.simsvc.client.model.apdu;
 
+import java.util.Arrays;
 import org.apache.commons.codec.DecoderException;
 import org.apache.commons.codec.binary.Hex;
 import org.apache.commons.lang3.StringUtils;
@@ -31,15 +32,29 @@ import org.apache.commons.lang3.StringUtils;
 /**
  * Represents an APDU (Application Protocol Data Unit) command sent to a smart card. An APDU command
  * consists of a header and optional data.
+ *
+ * <p>Both short and extended length fields (ISO/IEC 7816-4) are supported. Extended length is used
+ * when the command data exceeds 255 bytes, when more than 256 response bytes are expected, or when
+ * the command was parsed from an extended length encoding.
  */
 public class ApduCommand {
 
+  /** Maximum length of the command data. */
+  public static final int MAX_DATA_LENGTH = 65535;
+
+  /** Maximum number of expected response bytes with a short Le field. */
+  public static final int MAX_SHORT_LE = 256;
+
+  /** Maximum number of expected response bytes with an extended Le field. */
+  public static final int MAX_EXTENDED_LE = 65536;
+
   private final byte cla; // Class byte
   private final byte ins; // Instruction byte
   private final byte p1; // Parameter 1
   private final byte p2; // Parameter 2
   private final byte[] data; // Command data
   private final Integer le; // Expected length of response
+  private final boolean extendedLength; // Lc and Le are encoded as extended length fields
 
   /**
    * Constructor with individual components.
@@ -52,16 +67,43 @@ public class ApduCommand {
    * @param le Expected length (may be null)
    */
   public ApduCommand(byte cla, byte ins, byte p1, byte p2, byte[] data, Integer le) {
+    this(cla, ins, p1, p2, data, le, false);
+  }
+
+  /**
+   * Constructor with individual components and an explicit length encoding. Extended length is
+   * always used if the data or the expected length do not fit into short length fields.
+   *
+   * @param cla Class byte
+   * @param ins Instruction byte
+   * @param p1 Parameter 1
+   * @param p2 Parameter 2
+   * @param data Command data (may be null)
+   * @param le Expected length (may be null)
+   * @param extendedLength Whether to use extended length fields
+   * @throws IllegalArgumentException If the data or the expected length are too long
+   */
+  public ApduCommand(
+      byte cla, byte ins, byte p1, byte p2, byte[] data, Integer le, boolean extendedLength) {
+    if (data != null && data.length > MAX_DATA_LENGTH) {
+      throw new IllegalArgumentException("APDU command data must not exceed 65535 bytes");
+    }
+    if (le != null && le > MAX_EXTENDED_LE) {
+      throw new IllegalArgumentException("APDU expected length must not exceed 65536 bytes");
+    }
     this.cla = cla;
     this.ins = ins;
     this.p1 = p1;
     this.p2 = p2;
     this.data = data != null ? data.clone() : null;
     this.le = le;
+    this.extendedLength =
+        extendedLength || (data != null && data.length > 255) || (le != null && le > MAX_SHORT_LE);
   }
 
   /**
-   * Parse an APDU command from a hex string. Format: "CLA INS P1 P2 [Lc DATA] [Le]"
+   * Parse an APDU command from a hex string. Format: "CLA INS P1 P2 [Lc DATA] [Le]" with short
+   * length fields, or "CLA INS P1 P2 00 [Lc1 Lc2 DATA] [Le1 Le2]" with extended length fields.
    *
    * @param hexCommand Hex string representation of the command
    * @return Parsed ApduCommand
@@ -87,6 +129,15 @@ public class ApduCommand {
       byte p1 = bytes[2];
       byte p2 = bytes[3];
 
+      // Extended length: a zero byte after the header followed by two length bytes. A short Lc of
+      // zero is not valid, so these encodings were not accepted as short commands anyway.
+      if (bytes.length >= 7 && bytes[4] == 0) {
+        ApduCommand extended = parseExtendedLength(bytes);
+        if (extended != null) {
+          return extended;
+        }
+      }
+
       byte[] data = null;
       Integer le = null;
 
@@ -133,41 +184,132 @@ public class ApduCommand {
     }
   }
 
+  /**
+   * Parse the body of an extended length command (cases 2E, 3E and 4E of ISO/IEC 7816-3).
+   *
+   * @param bytes The complete command, with a zero byte after the header
+   * @return Parsed ApduCommand or null if the lengths do not match an extended length encoding
+   */
+  private static ApduCommand parseExtendedLength(byte[] bytes) {
+    int length = readLength(bytes, 5);
+
+    // Case 2E: CLA INS P1 P2 00 Le1 Le2
+    if (bytes.length == 7) {
+      int le = length == 0 ? MAX_EXTENDED_LE : length; // Le=0000 means 65536 bytes expected
+      return new ApduCommand(bytes[0], bytes[1], bytes[2], bytes[3], null, le, true);
+    }
+
+    // Case 3E: CLA INS P1 P2 00 Lc1 Lc2 DATA, case 4E: CLA INS P1 P2 00 Lc1 Lc2 DATA Le1 Le2
+    if (length > 0 && (bytes.length == 7 + length || bytes.length == 9 + length)) {
+      byte[] data = Arrays.copyOfRange(bytes, 7, 7 + length);
+      Integer le = null;
+      if (bytes.length == 9 + length) {
+        le = readLength(bytes, 7 + length);
+        if (le == 0) {
+          le = MAX_EXTENDED_LE; // Le=0000 means 65536 bytes expected
+        }
+      }
+      return new ApduCommand(bytes[0], bytes[1], bytes[2], bytes[3], data, le, true);
+    }
+
+    return null;
+  }
+
+  private static int readLength(byte[] bytes, int offset) {
+    return ((bytes[offset] & 0xFF) << 8) | (bytes[offset + 1] & 0xFF);
+  }
+
   /**
    * Convert the APDU command to a byte array.
    *
    * @return Byte array representation of the command
    */
   public byte[] toBytes() {
-    int length = 4; // Header is always 4 bytes
+    byte[] bytes = new byte[encodedLength()];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = encodedByte(i);
+    }
+    return bytes;
+  }
 
+  /**
+   * Get the length of the byte encoding returned by {@link #toBytes()}.
+   *
+   * @return Number of encoded bytes
+   */
+  int encodedLength() {
+    int length = 4;
     if (data != null && data.length > 0) {
-      length += 1 + data.length; // Lc + DATA
+      length += lcFieldLength() + data.length;
     }
+    return le != null ? length + leFieldLength() : length;
+  }
 
-    if (le != null) {
-      length += 1; // Le
+  /**
+   * Get a single byte of the encoding returned by {@link #toBytes()} without building the array.
+   *
+   * @param index Byte index, must be less than {@link #encodedLength()}
+   * @return The encoded byte
+   */
+  byte encodedByte(int index) {
+    switch (index) {
+      case 0:
+        return cla;
+      case 1:
+        return ins;
+      case 2:
+        return p1;
+      case 3:
+        return p2;
+      default:
+        break;
     }
-
-    byte[] bytes = new byte[length];
-    bytes[0] = cla;
-    bytes[1] = ins;
-    bytes[2] = p1;
-    bytes[3] = p2;
-
-    int offset = 4;
-
+    int offset = index - 4;
     if (data != null && data.length > 0) {
-      bytes[offset++] = (byte) data.length;
-      System.arraycopy(data, 0, bytes, offset, data.length);
-      offset += data.length;
+      int lcLength = lcFieldLength();
+      if (offset < lcLength) {
+        return lengthFieldByte(data.length, offset, lcLength);
+      }
+      if (offset < lcLength + data.length) {
+        return data[offset - lcLength];
+      }
+      offset -= lcLength + data.length;
     }
+    if (le != null && offset < leFieldLength()) {
+      return lengthFieldByte(le, offset, leFieldLength());
+    }
+    throw new IndexOutOfBoundsException(index);
+  }
 
-    if (le != null) {
-      bytes[offset] = le == 256 ? 0 : le.byteValue();
+  private int lcFieldLength() {
+    return extendedLength ? 3 : 1;
+  }
+
+  private int leFieldLength() {
+    if (!extendedLength) {
+      return 1;
     }
+    // The leading zero byte is only present if there is no Lc field
+    return data != null && data.length > 0 ? 2 : 3;
+  }
 
-    return bytes;
+  /**
+   * Get a byte of a length field. Le=256 (short) and Le=65536 (extended) are encoded as zero.
+   *
+   * @param value The length
+   * @param position Byte position within the field
+   * @param fieldLength Length of the field: 1 (short), 2 (extended Le after Lc) or 3 (extended)
+   * @return The encoded byte
+   */
+  private static byte lengthFieldByte(int value, int position, int fieldLength) {
+    switch (fieldLength - position) {
+      case 1:
+        return (byte) value;
+      case 2:
+        return (byte) (value >> 8);
+      default:
+        return 0;
+    }
   }
 
   /**
@@ -233,6 +375,15 @@ public class ApduCommand {
     return le;
   }
 
+  /**
+   * Check if the command uses extended length fields.
+   *
+   * @return true for extended length, false for short length
+   */
+  public boolean isExtendedLength() {
+    return extendedLength;
+  }
+
   @Override
   public String toString() {
     StringBuilder sb = new StringBuilder();
@@ -240,7 +391,7 @@ public class ApduCommand {
     sb.append(String.format("%02X %02X %02X %02X", cla, ins, p1, p2));
 
     if (data != null && data.length > 0) {
-      sb.append(String.format(" %02X", data.length));
+      sb.append(String.format(extendedLength ? " 00%04X" : " %02X", data.length));
       sb.append(" [");
       for (byte b : data) {
         sb.append(String.format("%02X", b));
@@ -249,7 +400,12 @@ public class ApduCommand {
     }
 
     if (le != null) {
-      sb.append(String.format(" %02X", le == 256 ? 0 : le));
+      if (extendedLength) {
+        String format = data != null && data.length > 0 ? " %04X" : " 00%04X";
+        sb.append(String.format(format, le & 0xFFFF));
+      } else {
+        sb.append(String.format(" %02X", le == 256 ? 0 : le));
+      }
     }
 
     return sb.toString();
@@ -24,6 +24,7 @@
  */
 package de.gematik.ti20.simsvc.client.model.apdu;
 
+import java.nio.ByteBuffer;
 import org.apache.commons.codec.binary.Hex;
 
 /**
@@ -51,6 +52,14 @@ public class ApduResponse {
     this.statusMessage = getStatusMessageForSW(sw1, sw2);
   }
 
+  /** Constructor taking ownership of the data array, which must not be modified afterwards. */
+  private ApduResponse(byte sw1, byte sw2, byte[] data) {
+    this.data = data;
+    this.sw1 = sw1;
+    this.sw2 = sw2;
+    this.statusMessage = getStatusMessageForSW(sw1, sw2);
+  }
+
   /**
    * Constructor with status word only (no data).
    *
@@ -80,6 +89,32 @@ public class ApduResponse {
     return new ApduResponse(data, (byte) 0x90, (byte) 0x00);
   }
 
+  /**
+   * Create a successful response (SW=9000) with the remaining bytes of a buffer. The bytes are
+   * copied once and the position of the buffer is not changed.
+   *
+   * @param data Response data
+   * @return ApduResponse with success status
+   */
+  public static ApduResponse createSuccessResponse(ByteBuffer data) {
+    return createResponse(data, 0x9000);
+  }
+
+  /**
+   * Create a response with the remaining bytes of a buffer and the given status word. The bytes
+   * are copied once and the position of the buffer is not changed. Responses are not limited to
+   * 256 bytes, so data requested with an extended length Le can be returned in one response.
+   *
+   * @param data Response data
+   * @param statusWord Status word as a 16-bit integer
+   * @return ApduResponse with the given status
+   */
+  public static ApduResponse createResponse(ByteBuffer data, int statusWord) {
+    byte[] bytes = new byte[data.remaining()];
+    data.get(data.position(), bytes);
+    return new ApduResponse((byte) ((statusWord >> 8) & 0xFF), (byte) (statusWord & 0xFF), bytes);
+  }
+
   /**
    * Create a successful response (SW=9000) with no data.
    *
@@ -205,6 +240,14 @@ public class ApduResponse {
   private String getStatusMessageForSW(byte sw1, byte sw2) {
     int sw = ((sw1 & 0xFF) << 8) | (sw2 & 0xFF);
 
+    // SW2 carries a length for these status words
+    if (sw1 == (byte) 0x61 && sw2 != 0) {
+      return "More data available: " + (sw2 & 0xFF) + " bytes";
+    }
+    if (sw1 == (byte) 0x6C && sw2 != 0) {
+      return "Error: Wrong Le field; exact length is " + (sw2 & 0xFF) + " bytes";
+    }
+
     switch (sw) {
       case 0x9000:
         return "Success";
@@ -0,0 +1,295 @@
+/*-
+ * #%L
+ * Card Terminal Simulator
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.ti20.simsvc.client.model.apdu;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Byte-level prefix trie over the command APDUs of a set of scenarios. A step matches a command if
+ * its command APDU is a prefix of the encoded command. The trie is compiled once when the scenarios
+ * are loaded, so a lookup walks the command bytes once and allocates nothing.
+ *
+ * <p>If several steps match, the one that was registered first wins, which is the step a scan over
+ * the scenarios in iteration order would have found first.
+ */
+public final class ApduScenarioTrie {
+
+  private static final Logger logger = LoggerFactory.getLogger(ApduScenarioTrie.class);
+
+  private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+  private static final Pattern HEX = Pattern.compile("[0-9A-F]*");
+
+  private final Node root;
+  private final int size;
+
+  private ApduScenarioTrie(Node root, int size) {
+    this.root = root;
+    this.size = size;
+  }
+
+  /**
+   * Compile the steps of the given scenarios into a trie. Steps without a command or with a command
+   * or first status word that is not valid hex are skipped.
+   *
+   * @param scenarios Map of scenario names to scenarios
+   * @return The compiled trie
+   */
+  public static ApduScenarioTrie compile(Map<String, ApduScenario> scenarios) {
+    return compile(scenarios.values());
+  }
+
+  /**
+   * Compile the steps of the given scenarios into a trie, registering them in iteration order.
+   *
+   * @param scenarios Scenarios to compile
+   * @return The compiled trie
+   */
+  public static ApduScenarioTrie compile(Collection<ApduScenario> scenarios) {
+    Builder root = new Builder();
+    int size = 0;
+
+    for (ApduScenario scenario : scenarios) {
+      for (ApduStep step : scenario.getSteps()) {
+        Match match = toMatch(scenario, step);
+        if (match == null) {
+          continue;
+        }
+
+        String hex = WHITESPACE.matcher(step.getCommandApdu()).replaceAll("").toUpperCase();
+        if (!HEX.matcher(hex).matches()) {
+          logger.warn(
+              "Skipping scenario step {} in scenario {}: invalid command APDU {}",
+              step.getName(),
+              scenario.getName(),
+              step.getCommandApdu());
+          continue;
+        }
+
+        root.insert(hex, 0, match, size++);
+      }
+    }
+
+    logger.debug("Compiled {} scenario steps into APDU scenario trie", size);
+    return new ApduScenarioTrie(root.freeze(), size);
+  }
+
+  private static Match toMatch(ApduScenario scenario, ApduStep step) {
+    List<String> statusWords = step.getExpectedStatusWords();
+    if (step.getCommandApdu() == null || statusWords == null || statusWords.isEmpty()) {
+      logger.warn(
+          "Skipping scenario step {} in scenario {}: missing command or status word",
+          step.getName(),
+          scenario.getName());
+      return null;
+    }
+
+    // Use first expected status word
+    String statusWord = statusWords.get(0);
+    try {
+      int sw = Integer.parseInt(statusWord, 16);
+      return new Match(scenario, step, (byte) ((sw >> 8) & 0xFF), (byte) (sw & 0xFF));
+    } catch (NumberFormatException e) {
+      logger.error("Invalid status word format: {}", statusWord);
+      return null;
+    }
+  }
+
+  /**
+   * Find the scenario step matching the given command.
+   *
+   * @param command The APDU command
+   * @return The match, or null if no step matches
+   */
+  public Match find(ApduCommand command) {
+    Node node = root;
+    Match best = node.match;
+    int bestOrder = node.order;
+
+    int length = command.encodedLength();
+    for (int i = 0; i < length; i++) {
+      node = node.child(command.encodedByte(i));
+      if (node == null) {
+        break;
+      }
+      if (node.match != null && (best == null || node.order < bestOrder)) {
+        best = node.match;
+        bestOrder = node.order;
+      }
+    }
+
+    return best;
+  }
+
+  /**
+   * Get the number of compiled scenario steps.
+   *
+   * @return Number of steps
+   */
+  public int size() {
+    return size;
+  }
+
+  /** A matching scenario step together with its pre-parsed status word. */
+  public static final class Match {
+
+    private final ApduScenario scenario;
+    private final ApduStep step;
+    private final byte sw1;
+    private final byte sw2;
+
+    private Match(ApduScenario scenario, ApduStep step, byte sw1, byte sw2) {
+      this.scenario = scenario;
+      this.step = step;
+      this.sw1 = sw1;
+      this.sw2 = sw2;
+    }
+
+    /**
+     * Get the scenario the step belongs to.
+     *
+     * @return The scenario
+     */
+    public ApduScenario getScenario() {
+      return scenario;
+    }
+
+    /**
+     * Get the matching step.
+     *
+     * @return The step
+     */
+    public ApduStep getStep() {
+      return step;
+    }
+
+    /**
+     * Get status byte 1 of the step's first expected status word.
+     *
+     * @return Status byte 1
+     */
+    public byte getSw1() {
+      return sw1;
+    }
+
+    /**
+     * Get status byte 2 of the step's first expected status word.
+     *
+     * @return Status byte 2
+     */
+    public byte getSw2() {
+      return sw2;
+    }
+  }
+
+  /** Immutable trie node with its children sorted by byte value. */
+  private static final class Node {
+
+    private static final byte[] NO_KEYS = new byte[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private final byte[] keys;
+    private final Node[] children;
+    private final Match match;
+    private final int order;
+
+    private Node(byte[] keys, Node[] children, Match match, int order) {
+      this.keys = keys;
+      this.children = children;
+      this.match = match;
+      this.order = order;
+    }
+
+    private Node child(byte key) {
+      int low = 0;
+      int high = keys.length - 1;
+      while (low <= high) {
+        int mid = (low + high) >>> 1;
+        int cmp = Integer.compare(keys[mid] & 0xFF, key & 0xFF);
+        if (cmp < 0) {
+          low = mid + 1;
+        } else if (cmp > 0) {
+          high = mid - 1;
+        } else {
+          return children[mid];
+        }
+      }
+      return null;
+    }
+  }
+
+  /** Mutable node used while compiling. */
+  private static final class Builder {
+
+    private final TreeMap<Integer, Builder> children = new TreeMap<>();
+    private Match match;
+    private int order;
+
+    private void insert(String hex, int pos, Match step, int stepOrder) {
+      int remaining = hex.length() - pos;
+      if (remaining == 0) {
+        if (match == null) {
+          match = step;
+          order = stepOrder;
+        }
+        return;
+      }
+
+      if (remaining == 1) {
+        // A trailing nibble matches all sixteen bytes sharing that high nibble
+        int high = Character.digit(hex.charAt(pos), 16) << 4;
+        for (int low = 0; low < 16; low++) {
+          children
+              .computeIfAbsent(high | low, k -> new Builder())
+              .insert(hex, pos + 1, step, stepOrder);
+        }
+        return;
+      }
+
+      int value = Integer.parseInt(hex, pos, pos + 2, 16);
+      children.computeIfAbsent(value, k -> new Builder()).insert(hex, pos + 2, step, stepOrder);
+    }
+
+    private Node freeze() {
+      if (children.isEmpty()) {
+        return new Node(Node.NO_KEYS, Node.NO_CHILDREN, match, order);
+      }
+      byte[] keys = new byte[children.size()];
+      Node[] nodes = new Node[children.size()];
+      int i = 0;
+      for (Map.Entry<Integer, Builder> entry : children.entrySet()) {
+        keys[i] = entry.getKey().byteValue();
+        nodes[i] = entry.getValue().freeze();
+        i++;
+      }
+      return new Node(keys, nodes, match, order);
+    }
+  }
+}
@@ -30,6 +30,10 @@ import java.util.List;
 
 /**
  * Base class for card images. This class represents a smart card's data as loaded from an XML file.
+ *
+ * <p>Card images are treated as immutable once they are inserted into a slot. The lookup index
+ * works on copies of the files and keys taken by {@link #reindex()}, so later changes to the
+ * nested applications, files or keys are not visible to commands until the card is reindexed.
  */
 @XmlRootElement(name = "cardImage")
 @XmlAccessorType(XmlAccessType.FIELD)
@@ -53,6 +57,8 @@ public class CardImage {
   @XmlElement(name = "label")
   private String label;
 
+  @XmlTransient private volatile CardImageIndex index;
+
   /** Default constructor for JAXB. */
   public CardImage() {}
 
@@ -160,6 +166,7 @@ public class CardImage {
    */
   public void setEgk(EGK egk) {
     this.egk = egk;
+    this.index = null;
   }
 
   /**
@@ -178,6 +185,7 @@ public class CardImage {
    */
   public void setHpc(HPC hpc) {
     this.hpc = hpc;
+    this.index = null;
   }
 
   /**
@@ -196,14 +204,54 @@ public class CardImage {
    */
   public void setHpic(HPIC hpic) {
     this.hpic = hpic;
+    this.index = null;
+  }
+
+  /**
+   * Get the lookup index over the files and keys of this card. The index is built on first use
+   * unless {@link #reindex()} was called before.
+   *
+   * @return The card image index
+   */
+  public CardImageIndex getIndex() {
+    CardImageIndex current = index;
+    if (current == null) {
+      current = reindex();
+    }
+    return current;
   }
 
   /**
-   * Get all keys from the card, regardless of which type it is.
+   * Rebuild the lookup index from copies of the current files and keys. Called when the card is
+   * inserted into a slot.
    *
-   * @return List of all keys
+   * @return The new card image index
+   */
+  public CardImageIndex reindex() {
+    CardImageIndex current = new CardImageIndex(collectFiles(), collectKeys());
+    index = current;
+    return current;
+  }
+
+  /**
+   * Get all keys from the card, regardless of which type it is, as indexed.
+   *
+   * @return Unmodifiable list of all keys
    */
   public List<Key> getAllKeys() {
+    return getIndex().getKeys();
+  }
+
+  /**
+   * Get all files from the card, regardless of which type it is, as indexed.
+   *
+   * @return Unmodifiable list of all files
+   */
+  public List<FileData> getAllFiles() {
+    return getIndex().getFiles();
+  }
+
+  private List<Key> collectKeys() {
     List<Key> allKeys = new ArrayList<>();
 
     // Check EGK keys
@@ -229,15 +277,15 @@ public class CardImage {
       allKeys.addAll(hpic.getAllKeys());
     }
 
-    return allKeys;
+    List<Key> copies = new ArrayList<>(allKeys.size());
+    for (Key key : allKeys) {
+      copies.add(
+          new Key(key.getKeyRef(), key.getName(), key.getKeyIdentifier(), key.getPrivateKey()));
+    }
+    return copies;
   }
 
-  /**
-   * Get all files from the card, regardless of which type it is.
-   *
-   * @return List of all files
-   */
-  public List<FileData> getAllFiles() {
+  private List<FileData> collectFiles() {
     List<FileData> allFiles = new ArrayList<>();
 
     // Check EGK files
@@ -263,6 +311,10 @@ public class CardImage {
       allFiles.addAll(hpic.getAllFiles());
     }
 
-    return allFiles;
+    List<FileData> copies = new ArrayList<>(allFiles.size());
+    for (FileData file : allFiles) {
+      copies.add(new FileData(file.getFileId(), file.getName(), file.getData()));
+    }
+    return copies;
   }
 }
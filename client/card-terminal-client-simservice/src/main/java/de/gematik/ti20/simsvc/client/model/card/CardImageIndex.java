@@ -0,0 +1,272 @@
+/*-
+ * #%L
+ * Card Terminal Simulator
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.ti20.simsvc.client.model.card;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable lookup index over the files and keys of a card image. The index is built once when the
+ * card is inserted, so file reads and signing only need hash lookups instead of collecting and
+ * scanning all applications of the card.
+ *
+ * <p>For lookups by file ID, name, key reference and key identifier the first matching entry in
+ * card order wins. Certificates and private keys are resolved up front for the key types AUT, ENC
+ * and QES; other key types are resolved by scanning the indexed lists.
+ */
+public final class CardImageIndex {
+
+  /** Key types whose certificate and private key are resolved when the index is built. */
+  public static final List<String> KEY_TYPES = List.of("AUT", "ENC", "QES");
+
+  private final List<FileData> files;
+  private final List<Key> keys;
+  private final Map<String, FileData> filesById;
+  private final Map<String, FileData> filesByName;
+  private final Map<String, Key> keysByRef;
+  private final Map<String, Key> keysByIdentifier;
+  private final Map<String, FileData> rsaPreferredCertificates;
+  private final Map<String, FileData> eccPreferredCertificates;
+  private final Map<String, Key> privateKeys;
+
+  /**
+   * Build an index over the given files and keys.
+   *
+   * @param files All files of the card in card order
+   * @param keys All keys of the card in card order
+   */
+  public CardImageIndex(List<FileData> files, List<Key> keys) {
+    this.files = List.copyOf(files);
+    this.keys = List.copyOf(keys);
+
+    Map<String, FileData> byId = new HashMap<>();
+    Map<String, FileData> byName = new HashMap<>();
+    for (FileData file : this.files) {
+      if (file.getFileId() != null) {
+        byId.putIfAbsent(file.getFileId().toUpperCase(Locale.ROOT), file);
+      }
+      if (file.getName() != null) {
+        byName.putIfAbsent(file.getName(), file);
+      }
+    }
+
+    Map<String, Key> byRef = new HashMap<>();
+    Map<String, Key> byIdentifier = new HashMap<>();
+    for (Key key : this.keys) {
+      if (key.getKeyRef() != null) {
+        byRef.putIfAbsent(key.getKeyRef(), key);
+      }
+      if (key.getKeyIdentifier() != null) {
+        byIdentifier.putIfAbsent(key.getKeyIdentifier(), key);
+      }
+    }
+
+    Map<String, FileData> rsaPreferred = new HashMap<>();
+    Map<String, FileData> eccPreferred = new HashMap<>();
+    Map<String, Key> privateKeysByType = new HashMap<>();
+    for (String keyType : KEY_TYPES) {
+      rsaPreferred.put(keyType, selectCertificate(this.files, keyType, false));
+      eccPreferred.put(keyType, selectCertificate(this.files, keyType, true));
+      privateKeysByType.put(keyType, selectPrivateKey(this.keys, keyType));
+    }
+
+    this.filesById = Collections.unmodifiableMap(byId);
+    this.filesByName = Collections.unmodifiableMap(byName);
+    this.keysByRef = Collections.unmodifiableMap(byRef);
+    this.keysByIdentifier = Collections.unmodifiableMap(byIdentifier);
+    this.rsaPreferredCertificates = Collections.unmodifiableMap(rsaPreferred);
+    this.eccPreferredCertificates = Collections.unmodifiableMap(eccPreferred);
+    this.privateKeys = Collections.unmodifiableMap(privateKeysByType);
+  }
+
+  /**
+   * Get all files of the card.
+   *
+   * @return Unmodifiable list of all files
+   */
+  public List<FileData> getFiles() {
+    return files;
+  }
+
+  /**
+   * Get all keys of the card.
+   *
+   * @return Unmodifiable list of all keys
+   */
+  public List<Key> getKeys() {
+    return keys;
+  }
+
+  /**
+   * Find a file by its file ID, ignoring case.
+   *
+   * @param fileId The file ID, e.g. "2F02"
+   * @return The file or null if not found
+   */
+  public FileData findFileById(String fileId) {
+    return fileId != null ? filesById.get(fileId.toUpperCase(Locale.ROOT)) : null;
+  }
+
+  /**
+   * Find a file by its name.
+   *
+   * @param name The file name
+   * @return The file or null if not found
+   */
+  public FileData findFileByName(String name) {
+    return name != null ? filesByName.get(name) : null;
+  }
+
+  /**
+   * Find a key by its key reference.
+   *
+   * @param keyRef The key reference
+   * @return The key or null if not found
+   */
+  public Key findKeyByRef(String keyRef) {
+    return keyRef != null ? keysByRef.get(keyRef) : null;
+  }
+
+  /**
+   * Find a key by its key identifier.
+   *
+   * @param keyIdentifier The key identifier
+   * @return The key or null if not found
+   */
+  public Key findKeyByIdentifier(String keyIdentifier) {
+    return keyIdentifier != null ? keysByIdentifier.get(keyIdentifier) : null;
+  }
+
+  /**
+   * Find the certificate file for a key type. If both are available, an ECC (E256) certificate is
+   * returned when {@code preferEcc} is set and an RSA certificate otherwise.
+   *
+   * @param keyType Type of key (AUT, ENC, QES, etc.)
+   * @param preferEcc Whether an ECC certificate is preferred
+   * @return The certificate file or null if not found
+   */
+  public FileData findCertificate(String keyType, boolean preferEcc) {
+    Map<String, FileData> certificates =
+        preferEcc ? eccPreferredCertificates : rsaPreferredCertificates;
+    if (certificates.containsKey(keyType)) {
+      return certificates.get(keyType);
+    }
+    return selectCertificate(files, keyType, preferEcc);
+  }
+
+  /**
+   * Find the private key belonging to the certificate of a key type.
+   *
+   * @param keyType Type of key (AUT, ENC, QES, etc.)
+   * @return The key or null if not found
+   */
+  public Key findPrivateKey(String keyType) {
+    if (privateKeys.containsKey(keyType)) {
+      return privateKeys.get(keyType);
+    }
+    return selectPrivateKey(keys, keyType);
+  }
+
+  private static FileData selectCertificate(
+      List<FileData> files, String keyType, boolean preferEcc) {
+    FileData rsaCertificate = null;
+    FileData eccCertificate = null;
+
+    for (FileData file : files) {
+      if (!isCertificateFor(file, keyType)) {
+        continue;
+      }
+
+      String fileName = file.getName();
+      boolean isEccCertificate = fileName != null && fileName.contains("E256");
+      if (isEccCertificate) {
+        eccCertificate = file;
+      } else {
+        rsaCertificate = file;
+      }
+
+      // The first certificate of the preferred kind wins
+      if (preferEcc == isEccCertificate) {
+        return file;
+      }
+    }
+
+    // Fall back to a certificate of the other kind
+    return eccCertificate != null ? eccCertificate : rsaCertificate;
+  }
+
+  private static boolean isCertificateFor(FileData file, String keyType) {
+    String fileName = file.getName();
+    String fileId = file.getFileId();
+
+    if (fileName != null
+        && (fileName.contains("HCI_" + keyType)
+            || fileName.contains("HP_" + keyType)
+            || fileName.contains("EGK_" + keyType)
+            || fileName.contains("_" + keyType + "_")
+            || fileName.contains("." + keyType + ".E256")
+            || fileName.contains("." + keyType + ".R2048"))) {
+      return true;
+    }
+
+    if (fileId == null) {
+      return false;
+    }
+    switch (keyType) {
+      case "AUT":
+        return fileId.startsWith("C5");
+      case "ENC":
+        return fileId.startsWith("C2");
+      case "QES":
+        return fileId.startsWith("C0");
+      default:
+        return false;
+    }
+  }
+
+  private static Key selectPrivateKey(List<Key> keys, String keyType) {
+    for (Key key : keys) {
+      if (key.getName() != null && key.getName().contains(keyType)) {
+        return key;
+      }
+    }
+
+    // Alternative search by key reference patterns
+    for (Key key : keys) {
+      String keyRef = key.getKeyRef();
+      if (keyRef != null
+          && ((keyType.equals("AUT") && keyRef.contains("8"))
+              || (keyType.equals("ENC") && keyRef.contains("4"))
+              || (keyType.equals("QES") && keyRef.contains("2")))) {
+        return key;
+      }
+    }
+
+    return null;
+  }
+}
@@ -25,8 +25,21 @@
 package de.gematik.ti20.simsvc.client.model.card;
 
 import jakarta.xml.bind.annotation.*;
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import org.apache.commons.codec.DecoderException;
+import org.apache.commons.codec.binary.Hex;
 
-/** Represents a file on a smart card. Contains the file ID, name, and binary data. */
+/**
+ * Represents a file on a smart card. Contains the file ID, name, and binary data.
+ *
+ * <p>The decoded and parsed contents are materialized lazily on first access and cached until the
+ * data is replaced, so repeated reads of the same file only slice the cached bytes.
+ */
 @XmlRootElement(name = "file")
 @XmlAccessorType(XmlAccessType.FIELD)
 public class FileData {
@@ -40,6 +53,12 @@ public class FileData {
   @XmlElement(name = "data")
   private String data;
 
+  @XmlTransient private volatile DecodedContent hexContent;
+
+  @XmlTransient private volatile DecodedContent base64Content;
+
+  @XmlTransient private volatile ParsedContent parsedContent;
+
   /** Default constructor for JAXB. */
   public FileData() {}
 
@@ -109,4 +128,100 @@ public class FileData {
   public void setData(String data) {
     this.data = data;
   }
+
+  /**
+   * Get the file data decoded from hex.
+   *
+   * @return Read-only view of the decoded data or null if the file has no data
+   * @throws IllegalArgumentException if the data is not valid hex
+   */
+  public ByteBuffer getHexContent() {
+    String source = data;
+    if (source == null) {
+      return null;
+    }
+    DecodedContent content = hexContent;
+    if (content == null || content.source != source) {
+      try {
+        content = new DecodedContent(source, Hex.decodeHex(source));
+      } catch (DecoderException e) {
+        throw new IllegalArgumentException("Invalid hex data: " + e.getMessage(), e);
+      }
+      hexContent = content;
+    }
+    return content.view();
+  }
+
+  /**
+   * Get the file data decoded from Base64.
+   *
+   * @return Read-only view of the decoded data or null if the file has no data
+   * @throws IllegalArgumentException if the data is not valid Base64
+   */
+  public ByteBuffer getBase64Content() {
+    String source = data;
+    if (source == null) {
+      return null;
+    }
+    DecodedContent content = base64Content;
+    if (content == null || content.source != source) {
+      content = new DecodedContent(source, Base64.getDecoder().decode(source));
+      base64Content = content;
+    }
+    return content.view();
+  }
+
+  /**
+   * Get a value parsed from the file data, e.g. the decompressed contents of EF.PD. Each parser
+   * runs at most once per data string, its result is cached until the data is replaced.
+   *
+   * @param parser Parser of the file data, also the cache key, so callers pass a constant
+   * @param <T> Type of the parsed value
+   * @return Parsed value or null if the file has no data or the parser returns null
+   */
+  public <T> T getParsedContent(Function<String, T> parser) {
+    String source = data;
+    if (source == null) {
+      return null;
+    }
+    ParsedContent content = parsedContent;
+    if (content == null || content.source != source) {
+      content = new ParsedContent(source);
+      parsedContent = content;
+    }
+    return content.get(parser);
+  }
+
+  /** Parsed values together with the data string they were parsed from. */
+  private static final class ParsedContent {
+
+    private final String source;
+    private final Map<Function<String, ?>, Optional<?>> values = new ConcurrentHashMap<>();
+
+    private ParsedContent(String source) {
+      this.source = source;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T get(Function<String, T> parser) {
+      return (T)
+          values.computeIfAbsent(parser, p -> Optional.ofNullable(p.apply(source))).orElse(null);
+    }
+  }
+
+  /** Decoded bytes together with the data string they were decoded from. */
+  private static final class DecodedContent {
+
+    private final String source;
+    private final byte[] bytes;
+
+    private DecodedContent(String source, byte[] bytes) {
+      this.source = source;
+      this.bytes = bytes;
+    }
+
+    private ByteBuffer view() {
+      return ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+    }
+  }
 }
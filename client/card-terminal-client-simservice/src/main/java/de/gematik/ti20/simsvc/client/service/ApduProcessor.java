@@ -29,14 +29,13 @@ import de.gematik.ti20.simsvc.client.exception.CardException;
 import de.gematik.ti20.simsvc.client.model.apdu.ApduCommand;
 import de.gematik.ti20.simsvc.client.model.apdu.ApduResponse;
 import de.gematik.ti20.simsvc.client.model.apdu.ApduScenario;
+import de.gematik.ti20.simsvc.client.model.apdu.ApduScenarioTrie;
 import de.gematik.ti20.simsvc.client.model.apdu.ApduStep;
 import de.gematik.ti20.simsvc.client.model.card.CardImage;
 import de.gematik.ti20.simsvc.client.model.card.CardType;
 import de.gematik.ti20.simsvc.client.model.card.FileData;
+import java.nio.ByteBuffer;
 import java.security.SecureRandom;
-import java.util.Base64;
-import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import org.apache.commons.codec.DecoderException;
 import org.apache.commons.codec.binary.Hex;
@@ -54,35 +53,45 @@ public class ApduProcessor {
   // Constants for file selection
   private static final String DF_ESIGN_AID = "A000000167455349474E";
 
-  private boolean paceAuthenticated = false;
-  private boolean trustedChannelEstablished = false;
-  private Map<String, byte[]> securityEnvironment = new HashMap<>();
-  private Map<String, Object> paceContext = new HashMap<>();
+  // Files addressed by short EF identifier (READ BINARY with P1 b8=1)
+  private static final Map<Integer, String> SHORT_FILE_IDENTIFIERS =
+      Map.of(0x01, "2F02", 0x04, "C500", 0x11, "2F11");
 
   // APDU scenarios
-  private final Map<String, ApduScenario> scenarios;
+  private final ApduScenarioTrie scenarios;
   private final EgkInfoService egkInfoService;
 
   /**
-   * Constructor with APDU scenarios and EGK info service.
+   * Constructor with compiled APDU scenarios and EGK info service.
    *
-   * @param scenarios Map of APDU scenarios
+   * @param scenarios APDU scenarios compiled into a prefix trie
    * @param egkInfoService Service for extracting EGK patient data
    */
   @Autowired
-  public ApduProcessor(Map<String, ApduScenario> scenarios, EgkInfoService egkInfoService) {
+  public ApduProcessor(ApduScenarioTrie scenarios, EgkInfoService egkInfoService) {
     this.scenarios = scenarios;
     this.egkInfoService = egkInfoService;
   }
 
+  /**
+   * Constructor with APDU scenarios and EGK info service.
+   *
+   * @param scenarios Map of APDU scenarios
+   * @param egkInfoService Service for extracting EGK patient data
+   */
+  public ApduProcessor(Map<String, ApduScenario> scenarios, EgkInfoService egkInfoService) {
+    this(ApduScenarioTrie.compile(scenarios), egkInfoService);
+  }
+
   /**
    * Process an APDU command for a specific card.
    *
    * @param card The card image to process the command against
+   * @param session The protocol state of the connection the command was sent on
    * @param command The APDU command to process
    * @return The APDU response
    */
-  public ApduResponse processCommand(CardImage card, ApduCommand command) {
+  public ApduResponse processCommand(CardImage card, CardSession session, ApduCommand command) {
     logger.debug("Processing command: {}", command);
 
     try {
@@ -101,15 +110,15 @@ public class ApduProcessor {
       if (cla == 0x00) {
         switch (ins) {
           case (byte) 0xA4: // SELECT
-            return handleSelect(command);
+            return handleSelect(card, session, command);
           case (byte) 0xB0: // READ BINARY
-            return handleReadBinary(card, command);
+            return handleReadBinary(card, session, command);
           case (byte) 0x22: // MANAGE SECURITY ENVIRONMENT
-            return handleManageSecurityEnvironment(command);
+            return handleManageSecurityEnvironment(session, command);
           case (byte) 0x2A: // PERFORM SECURITY OPERATION (PSO)
-            return handlePerformSecurityOperation(command);
+            return handlePerformSecurityOperation(session, command);
           case (byte) 0x86: // GENERAL AUTHENTICATE
-            return handleGeneralAuthenticate(card, command);
+            return handleGeneralAuthenticate(card, session, command);
           default:
             logger.warn(
                 "Unsupported instruction: 0x{}",
@@ -157,44 +166,25 @@ public class ApduProcessor {
    * @return The scenario response or null if no matching scenario found
    */
   private ApduResponse checkScenarioResponse(ApduCommand command) {
-    String commandHex = command.toHexString().replaceAll("\\s+", "").toUpperCase();
-
-    // Search through all scenarios and steps for a matching command
-    for (ApduScenario scenario : scenarios.values()) {
-      for (ApduStep step : scenario.getSteps()) {
-        // Normalize the step command by removing spaces
-        String stepCommand = step.getCommandApdu().replaceAll("\\s+", "").toUpperCase();
-
-        if (commandHex.startsWith(stepCommand)) {
-          logger.debug(
-              "Found matching scenario step: {} in scenario {}",
-              step.getName(),
-              scenario.getName());
-
-          // Create a response based on the status word and predefined response data
-          String statusWord =
-              step.getExpectedStatusWords().get(0); // Use first expected status word
+    ApduScenarioTrie.Match match = scenarios.find(command);
+    if (match == null) {
+      return null; // No matching scenario found
+    }
 
-          try {
-            // Convert status word to integer
-            int sw = Integer.parseInt(statusWord, 16);
+    ApduStep step = match.getStep();
+    logger.debug(
+        "Found matching scenario step: {} in scenario {}",
+        step.getName(),
+        match.getScenario().getName());
 
-            // Generate sample response data based on the command type
-            byte[] responseData = generateResponseDataForCommand(command, step);
+    // Generate sample response data based on the command type
+    byte[] responseData = generateResponseDataForCommand(command, step);
 
-            if (responseData != null && responseData.length > 0) {
-              return new ApduResponse(responseData, (byte) ((sw >> 8) & 0xFF), (byte) (sw & 0xFF));
-            } else {
-              return new ApduResponse(sw);
-            }
-          } catch (NumberFormatException e) {
-            logger.error("Invalid status word format: {}", statusWord);
-          }
-        }
-      }
+    if (responseData != null && responseData.length > 0) {
+      return new ApduResponse(responseData, match.getSw1(), match.getSw2());
+    } else {
+      return new ApduResponse(match.getSw1(), match.getSw2());
     }
-
-    return null; // No matching scenario found
   }
 
   /**
@@ -287,10 +277,12 @@ public class ApduProcessor {
   /**
    * Handle SELECT command.
    *
+   * @param card The card image
+   * @param session The protocol state of the connection
    * @param command The APDU command
    * @return The APDU response
    */
-  private ApduResponse handleSelect(ApduCommand command) {
+  private ApduResponse handleSelect(CardImage card, CardSession session, ApduCommand command) {
     byte p1 = command.getP1();
     byte p2 = command.getP2();
     byte[] data = command.getData();
@@ -302,8 +294,10 @@ public class ApduProcessor {
         String aid = Hex.encodeHexString(data).toUpperCase();
         logger.debug("SELECT by AID: {}", aid);
 
+        // Selecting an application leaves no current EF
+        session.setSelectedFile(null, false);
+
         // Check for DF.ESIGN selection
-        // Selected application and file state
         if (DF_ESIGN_AID.equals(aid)) {
           return ApduResponse.createSuccessResponse();
         }
@@ -331,107 +325,113 @@ public class ApduProcessor {
       }
     }
 
+    // Select EF by file identifier under the current DF (P1=02)
+    if (p1 == 0x02 && data != null && data.length == 2) {
+      String fileId = Hex.encodeHexString(data).toUpperCase();
+      logger.debug("SELECT EF: {}", fileId);
+      if (findFileByIdentifier(card, fileId) == null) {
+        return new ApduResponse(0x6A82); // File not found
+      }
+      // Files addressed by file identifier are stored Base64 encoded
+      session.setSelectedFile(fileId, false);
+      return ApduResponse.createSuccessResponse();
+    }
+
     // Other select options not supported
     return new ApduResponse(0x6A86); // Incorrect parameters P1-P2
   }
 
   /**
-   * Handle READ BINARY command.
+   * Handle READ BINARY command (ISO/IEC 7816-4). With P1 b8=1, P1 b5-b1 hold a short EF identifier
+   * and P2 the offset; the EF becomes the current EF. With P1 b8=0, P1-P2 hold a 15-bit offset into
+   * the current EF. If P1-P2 name a file of the card or there is no current EF, the file with that
+   * identifier is read as before and the current EF is cleared. Card images store the EFs with a
+   * short identifier hex encoded and all other EFs Base64 encoded.
    *
    * @param card The card image
+   * @param session The protocol state of the connection
    * @param command The APDU command
    * @return The APDU response
    */
-  private ApduResponse handleReadBinary(CardImage card, ApduCommand command) {
-    byte p1 = command.getP1();
-    byte p2 = command.getP2();
-
-    // Handle EGK-specific file accesses by file identifiers
-    int fileIdentifier = ((p1 & 0xFF) << 8) | (p2 & 0xFF);
-
-    // EGK Global Data Objects (GDO) file
-    if (fileIdentifier == 0x8100) {
-      // Find real GDO data from card
-      FileData gdoFile = findFileByIdentifier(card, "2F02");
-      if (gdoFile != null && gdoFile.getData() != null) {
-        try {
-          byte[] responseData = Hex.decodeHex(gdoFile.getData());
-          return new ApduResponse(responseData, (byte) 0x90, (byte) 0x00);
-        } catch (DecoderException e) {
-          logger.error("Error decoding real GDO data: {}", e.getMessage());
-        }
+  private ApduResponse handleReadBinary(CardImage card, CardSession session, ApduCommand command) {
+    int p1 = command.getP1() & 0xFF;
+    int p2 = command.getP2() & 0xFF;
+
+    // Short EF identifier, e.g. 0x81 for EF.GDO, 0x91 for EF.Version and 0x84 for EF.C.CH.AUT
+    if ((p1 & 0xE0) == 0x80 && SHORT_FILE_IDENTIFIERS.containsKey(p1 & 0x1F)) {
+      String fileId = SHORT_FILE_IDENTIFIERS.get(p1 & 0x1F);
+      FileData file = findFileByIdentifier(card, fileId);
+      if (file == null || file.getData() == null) {
+        logger.warn("No real data found in card for EF {}, returning file not found", fileId);
+        return new ApduResponse(0x6A82); // File not found
       }
-      logger.warn("No real GDO data found in card, returning file not found");
-      return new ApduResponse(0x6A82); // File not found
+      // The EGK files addressed by short identifier are stored hex encoded
+      session.setSelectedFile(fileId, true);
+      return readBinary(file, true, p2, command);
     }
 
-    // EGK version file
-    if (fileIdentifier == 0x9100) {
-      // Find real version data from card
-      FileData versionFile = findFileByIdentifier(card, "2F11");
-      if (versionFile != null && versionFile.getData() != null) {
-        try {
-          byte[] responseData = Hex.decodeHex(versionFile.getData());
-          return new ApduResponse(responseData, (byte) 0x90, (byte) 0x00);
-        } catch (DecoderException e) {
-          logger.error("Error decoding real version data: {}", e.getMessage());
-        }
-      }
-      logger.warn("No real version data found in card, returning file not found");
-      return new ApduResponse(0x6A82); // File not found
-    }
+    // For other file IDs, look in the card's file system
+    String fileId = String.format("%02X%02X", p1, p2);
+    FileData file = findFileInCard(card, fileId);
 
-    // EGK authentication certificate (contains KVNR and potentially IK)
-    if (fileIdentifier == 0x8400) {
-      // Find real certificate data from card
-      FileData certFile = findFileByIdentifier(card, "C500");
-      if (certFile != null && certFile.getData() != null) {
-        try {
-          byte[] responseData = Hex.decodeHex(certFile.getData());
-          return new ApduResponse(responseData, (byte) 0x90, (byte) 0x00);
-        } catch (DecoderException e) {
-          logger.error("Error decoding real certificate data: {}", e.getMessage());
-        }
+    // Offset into the current EF, unless P1-P2 is a file identifier of a legacy read
+    if ((p1 & 0x80) == 0 && file == null && session.getSelectedFileId() != null) {
+      FileData current = findFileByIdentifier(card, session.getSelectedFileId());
+      if (current == null || current.getData() == null) {
+        return new ApduResponse(0x6986); // Command not allowed (no current EF)
       }
-      logger.warn("No real certificate data found in card, returning file not found");
-      return new ApduResponse(0x6A82); // File not found
+      return readBinary(current, session.isSelectedFileHexEncoded(), (p1 << 8) | p2, command);
     }
 
-    // Special handling for 8400 read (read-ef-c-ch-aut-e256)
-    if (p1 == (byte) 0x84 && p2 == (byte) 0x00) {
-      // Find real certificate data from card
-      FileData certFile = findFileByIdentifier(card, "C500");
-      if (certFile != null && certFile.getData() != null) {
-        try {
-          byte[] responseData = Hex.decodeHex(certFile.getData());
-          return new ApduResponse(responseData, (byte) 0x90, (byte) 0x00);
-        } catch (DecoderException e) {
-          logger.error("Error decoding real certificate data: {}", e.getMessage());
-        }
-      }
-      logger.warn("No real certificate data found for 8400 read, returning file not found");
-      return new ApduResponse(0x6A82); // File not found
+    session.setSelectedFile(null, false);
+    if (file != null && file.getData() != null) {
+      return readBinary(file, false, 0, command);
     }
 
-    // For other file IDs, look in the card's file system
-    String fileId = String.format("%02X%02X", p1, p2);
+    // File not found
+    return new ApduResponse(0x6A82); // File not found
+  }
 
-    // Find the file in the card structure
-    FileData file = findFileInCard(card, fileId);
-    if (file != null && file.getData() != null) {
-      try {
-        byte[] fileData = Base64.getDecoder().decode(file.getData());
+  /**
+   * Read from a file starting at an offset. At most Le bytes are returned; Le=00 (short) and
+   * Le=0000 (extended) request as many bytes as fit into the response. If an explicit Le reaches
+   * past the end of the file, the remaining bytes are returned with SW=6282. Without Le, the rest
+   * of the file is returned.
+   *
+   * @param file The file to read
+   * @param hexEncoded true if the file data is hex encoded, false if Base64 encoded
+   * @param offset Offset of the first byte to read
+   * @param command The READ BINARY command
+   * @return The APDU response
+   */
+  private ApduResponse readBinary(
+      FileData file, boolean hexEncoded, int offset, ApduCommand command) {
+    ByteBuffer content;
+    try {
+      // Decoded once per file, the response is a slice of the cached contents
+      content = hexEncoded ? file.getHexContent() : file.getBase64Content();
+    } catch (IllegalArgumentException e) {
+      logger.error("Error decoding file data of {}: {}", file.getFileId(), e.getMessage());
+      return new ApduResponse(0x6F00); // Technical error
+    }
 
-        // Return the file contents
-        return new ApduResponse(fileData, (byte) 0x90, (byte) 0x00);
-      } catch (IllegalArgumentException e) {
-        logger.error("Error decoding file data: {}", e.getMessage());
-        return new ApduResponse(0x6F00); // Technical error
-      }
+    if (offset > content.remaining()) {
+      return new ApduResponse(0x6B00); // Offset outside the EF
     }
+    int available = content.remaining() - offset;
 
-    // File not found
-    return new ApduResponse(0x6A82); // File not found
+    Integer le = command.getLe();
+    if (le == null) {
+      return ApduResponse.createSuccessResponse(content.slice(offset, available));
+    }
+
+    int maxLe = command.isExtendedLength() ? ApduCommand.MAX_EXTENDED_LE : ApduCommand.MAX_SHORT_LE;
+    int length = Math.min(available, le);
+    ByteBuffer chunk = content.slice(offset, length);
+    if (length < le && le != maxLe) {
+      return ApduResponse.createResponse(chunk, 0x6282); // End of file reached before Le bytes
+    }
+    return ApduResponse.createSuccessResponse(chunk);
   }
 
   /**
@@ -442,22 +442,17 @@ public class ApduProcessor {
    * @return FileData if found, null otherwise
    */
   private FileData findFileByIdentifier(CardImage card, String fileId) {
-    List<FileData> allFiles = card.getAllFiles();
-    for (FileData file : allFiles) {
-      if (fileId.equalsIgnoreCase(file.getFileId())) {
-        return file;
-      }
-    }
-    return null;
+    return card.getIndex().findFileById(fileId);
   }
 
   /**
    * Handle MANAGE SECURITY ENVIRONMENT command.
    *
+   * @param session The protocol state of the connection
    * @param command The APDU command
    * @return The APDU response
    */
-  private ApduResponse handleManageSecurityEnvironment(ApduCommand command) {
+  private ApduResponse handleManageSecurityEnvironment(CardSession session, ApduCommand command) {
     byte p1 = command.getP1();
     byte p2 = command.getP2();
     byte[] data = command.getData();
@@ -487,7 +482,7 @@ public class ApduProcessor {
             i += len;
 
             // Speichere Parameter für spätere Verwendung
-            securityEnvironment.put(String.format("%02X", tag), value);
+            session.getPaceEnvironment().put(String.format("%02X", tag), value);
 
             // Protocoll-ID (83-Tag) für PACE (z.B. 03 für PACE mit ECDH)
             if (tag == (byte) 0x83) {
@@ -498,7 +493,7 @@ public class ApduProcessor {
         }
 
         // Setze PACE-Kontext zurück
-        paceContext.clear();
+        session.getPaceContext().clear();
 
         return ApduResponse.createSuccessResponse();
       } catch (Exception e) {
@@ -510,6 +505,7 @@ public class ApduProcessor {
 
       // Parse und speichere Schlüsselparameter
       try {
+        Map<String, byte[]> securityEnvironment = session.getSignatureEnvironment();
         securityEnvironment.clear();
 
         int i = 0;
@@ -545,10 +541,12 @@ public class ApduProcessor {
    * Handle PERFORM SECURITY OPERATION (PSO) command (INS=2A). Used for digital signature
    * operations.
    *
+   * @param session The protocol state of the connection
    * @param command The APDU command
    * @return The APDU response
    */
-  private ApduResponse handlePerformSecurityOperation(ApduCommand command) {
+  private ApduResponse handlePerformSecurityOperation(CardSession session, ApduCommand command) {
+    Map<String, byte[]> securityEnvironment = session.getSignatureEnvironment();
     byte p1 = command.getP1();
     byte p2 = command.getP2();
     byte[] data = command.getData();
@@ -659,10 +657,13 @@ public class ApduProcessor {
    * Handle GENERAL AUTHENTICATE command.
    *
    * @param card The card image
+   * @param session The protocol state of the connection
    * @param command The APDU command
    * @return The APDU response
    */
-  private ApduResponse handleGeneralAuthenticate(CardImage card, ApduCommand command) {
+  private ApduResponse handleGeneralAuthenticate(
+      CardImage card, CardSession session, ApduCommand command) {
+    Map<String, Object> paceContext = session.getPaceContext();
     byte p1 = command.getP1();
     byte p2 = command.getP2();
     byte[] data = command.getData();
@@ -871,8 +872,8 @@ public class ApduProcessor {
           logger.debug("PACE-Kontext für Mutual Authentication (Schritt 4): {}", paceContext);
           logger.debug(
               "PACE Authentifizierungsstatus: Authentifiziert={}, Trusted Channel={}",
-              paceAuthenticated,
-              trustedChannelEstablished);
+              session.isPaceAuthenticated(),
+              session.isTrustedChannelEstablished());
 
           // Prüfen, ob wir in der richtigen Sequenz sind (Schritt 3 oder 4 sind beide zulässig)
           if (paceContext.containsKey("step")
@@ -903,14 +904,14 @@ public class ApduProcessor {
                   "PACE Schritt 4 (Mutual Authentication) erfolgreich, PACE-Kanal wird etabliert");
 
               // PACE-Kanal ist jetzt etabliert
-              paceAuthenticated = true;
-              trustedChannelEstablished = true;
+              session.setPaceAuthenticated(true);
+              session.setTrustedChannelEstablished(true);
 
               // Detaillierte Protokollierung des erfolgreichen Abschlusses
               logger.debug(
                   "Trusted Channel Status: PACE Authentifiziert={}, Trusted Channel Etabliert={}",
-                  paceAuthenticated,
-                  trustedChannelEstablished);
+                  session.isPaceAuthenticated(),
+                  session.isTrustedChannelEstablished());
 
               // Erweiterte Protokollierung für bessere Diagnose
               String tokenType =
@@ -952,7 +953,7 @@ public class ApduProcessor {
         }
 
         // TRUSTED CHANNEL ETABLIERUNG nach PACE
-        else if (paceAuthenticated) {
+        else if (session.isPaceAuthenticated()) {
           logger.debug("Trusted Channel nach PACE-Authentifizierung");
 
           // Trusted Channel Schritt 1: Terminal Authentication
@@ -988,7 +989,7 @@ public class ApduProcessor {
               logger.debug("Trusted Channel Schritt 2 erfolgreich, generiere Antwort");
 
               // Trusted Channel etabliert
-              trustedChannelEstablished = true;
+              session.setTrustedChannelEstablished(true);
               // Authentication state
               logger.debug(
                   "Trusted Channel erfolgreich etabliert, sichere Kommunikation jetzt verfügbar");
@@ -1008,7 +1009,7 @@ public class ApduProcessor {
         }
 
         // WEITERLEITUNG NACH TRUSTED CHANNEL ETABLIERUNG
-        else if (trustedChannelEstablished) {
+        else if (session.isTrustedChannelEstablished()) {
           logger.debug("Authenticate-Befehl nach Trusted Channel-Etablierung");
 
           // Authentifizierte Befehle weiterleiten
@@ -1198,18 +1199,8 @@ public class ApduProcessor {
       return null;
     }
 
-    // Die getAllFiles-Methode nutzen, um alle Dateien der Karte zu bekommen
-    List<FileData> allFiles = card.getAllFiles();
-    if (allFiles != null) {
-      for (FileData file : allFiles) {
-        // Vergleiche die ID der Datei mit der gesuchten ID
-        if (fileId != null && fileId.equals(file.getFileId())) {
-          return file;
-        }
-      }
-    }
-
-    return null;
+    // Der Index der Karte wird beim Einstecken einmalig aufgebaut
+    return card.getIndex().findFileById(fileId);
   }
 
   /**
@@ -105,9 +105,8 @@ public class CardManager {
     if (!connections.containsKey(cardHandle)) {
       // Find the slot ID for this card
       int slotId = findSlotIdForCard(card);
-      // Create a new connection only if one doesn't exist
-      CardConnection connection = new CardConnection(card, slotId);
-      connections.put(cardHandle, connection);
+      // Create a new connection with its own protocol session only if one doesn't exist
+      connections.putIfAbsent(cardHandle, new CardConnection(card, slotId, new CardSession()));
     }
 
     // Get the ATR (Answer to Reset)
@@ -161,10 +160,14 @@ public class CardManager {
             "Invalid APDU command format: " + parseError.getMessage());
       }
 
-      // Process the command using the ApduProcessor
+      // Process the command using the ApduProcessor; commands on the same connection share the
+      // session state and are therefore processed one after another
       ApduResponse response;
       try {
-        response = apduProcessor.processCommand(connection.getCard(), command);
+        CardSession session = connection.getSession();
+        synchronized (session) {
+          response = apduProcessor.processCommand(connection.getCard(), session, command);
+        }
         logger.debug("APDU response received: SW={}", response.getStatusWordHex());
       } catch (Exception processError) {
         logger.error("Failed to process APDU command: {}", processError.getMessage(), processError);
@@ -289,16 +292,19 @@ public class CardManager {
   private static class CardConnection {
     private final CardImage card;
     private final int slotId;
+    private final CardSession session;
 
     /**
      * Constructor for CardConnection.
      *
      * @param card Card image
      * @param slotId Slot ID
+     * @param session Protocol session of this connection
      */
-    public CardConnection(CardImage card, int slotId) {
+    public CardConnection(CardImage card, int slotId, CardSession session) {
       this.card = card;
       this.slotId = slotId;
+      this.session = session;
     }
 
     /**
@@ -318,5 +324,14 @@ public class CardManager {
     public int getSlotId() {
       return slotId;
     }
+
+    /**
+     * Get the protocol session.
+     *
+     * @return Protocol session
+     */
+    public CardSession getSession() {
+      return session;
+    }
   }
 }
@@ -0,0 +1,173 @@
+/*-
+ * #%L
+ * Card Terminal Simulator
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.ti20.simsvc.client.service;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Protocol state of a single card connection. Holds the PACE and trusted channel status, the
+ * security environments set by MANAGE SECURITY ENVIRONMENT for PACE and for signatures, the step
+ * context of a running GENERAL AUTHENTICATE sequence and the current EF.
+ *
+ * <p>Sessions are not thread-safe. Each connection owns one session and its commands are processed
+ * one after another, so different cards can run protocol exchanges in parallel.
+ */
+public class CardSession {
+
+  private boolean paceAuthenticated = false;
+  private boolean trustedChannelEstablished = false;
+  private boolean signatureReady = false;
+  private final Map<String, byte[]> paceEnvironment = new HashMap<>();
+  private final Map<String, byte[]> signatureEnvironment = new HashMap<>();
+  private final Map<String, Object> paceContext = new HashMap<>();
+  private String selectedFileId;
+  private boolean selectedFileHexEncoded;
+
+  /**
+   * Check if the PACE protocol has been successfully completed.
+   *
+   * @return true if PACE is authenticated, false otherwise
+   */
+  public boolean isPaceAuthenticated() {
+    return paceAuthenticated;
+  }
+
+  /**
+   * Set the PACE authentication status.
+   *
+   * @param paceAuthenticated true if PACE has been completed
+   */
+  public void setPaceAuthenticated(boolean paceAuthenticated) {
+    this.paceAuthenticated = paceAuthenticated;
+  }
+
+  /**
+   * Check if a trusted channel has been established.
+   *
+   * @return true if a trusted channel is established, false otherwise
+   */
+  public boolean isTrustedChannelEstablished() {
+    return trustedChannelEstablished;
+  }
+
+  /**
+   * Set the trusted channel status.
+   *
+   * @param trustedChannelEstablished true if the trusted channel is established
+   */
+  public void setTrustedChannelEstablished(boolean trustedChannelEstablished) {
+    this.trustedChannelEstablished = trustedChannelEstablished;
+  }
+
+  /**
+   * Check if a signature has been prepared with MSE:SET.
+   *
+   * @return true if the next PSO:CDS may be executed
+   */
+  public boolean isSignatureReady() {
+    return signatureReady;
+  }
+
+  /**
+   * Set the signature preparation status.
+   *
+   * @param signatureReady true if a signature has been prepared with MSE:SET
+   */
+  public void setSignatureReady(boolean signatureReady) {
+    this.signatureReady = signatureReady;
+  }
+
+  /**
+   * Get the security environment parameters set by MSE:SET AT for PACE, keyed by their hex encoded
+   * tag.
+   *
+   * @return Mutable map of PACE security environment parameters
+   */
+  public Map<String, byte[]> getPaceEnvironment() {
+    return paceEnvironment;
+  }
+
+  /**
+   * Get the security environment parameters set by MSE:SET DST for signatures, keyed by their hex
+   * encoded tag. Kept apart from the PACE parameters, so preparing a signature does not discard
+   * them.
+   *
+   * @return Mutable map of signature security environment parameters
+   */
+  public Map<String, byte[]> getSignatureEnvironment() {
+    return signatureEnvironment;
+  }
+
+  /**
+   * Get the context of the running PACE sequence.
+   *
+   * @return Mutable map of PACE context values
+   */
+  public Map<String, Object> getPaceContext() {
+    return paceContext;
+  }
+
+  /**
+   * Get the file identifier of the current EF, which READ BINARY with an offset reads from.
+   *
+   * @return File identifier, e.g. "2F02", or null if no EF is selected
+   */
+  public String getSelectedFileId() {
+    return selectedFileId;
+  }
+
+  /**
+   * Check how the data of the current EF is encoded in the card image.
+   *
+   * @return true if it is hex encoded, false if it is Base64 encoded
+   */
+  public boolean isSelectedFileHexEncoded() {
+    return selectedFileHexEncoded;
+  }
+
+  /**
+   * Set the current EF.
+   *
+   * @param selectedFileId File identifier of the EF or null to clear the selection
+   * @param hexEncoded true if the data of the EF is hex encoded, false if Base64 encoded
+   */
+  public void setSelectedFile(String selectedFileId, boolean hexEncoded) {
+    this.selectedFileId = selectedFileId;
+    this.selectedFileHexEncoded = hexEncoded;
+  }
+
+  /** Reset the session to the state of a freshly connected card. */
+  public void reset() {
+    paceAuthenticated = false;
+    trustedChannelEstablished = false;
+    signatureReady = false;
+    paceEnvironment.clear();
+    signatureEnvironment.clear();
+    paceContext.clear();
+    selectedFileId = null;
+    selectedFileHexEncoded = false;
+  }
+}
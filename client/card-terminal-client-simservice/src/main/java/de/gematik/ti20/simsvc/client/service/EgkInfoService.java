@@ -30,7 +30,9 @@ import de.gematik.ti20.simsvc.client.model.card.CardImage;
 import de.gematik.ti20.simsvc.client.model.card.FileData;
 import de.gematik.ti20.simsvc.client.service.helper.VsdDataParser;
 import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.zip.GZIPInputStream;
@@ -43,6 +45,16 @@ public class EgkInfoService {
 
   private static final Logger logger = LoggerFactory.getLogger(EgkInfoService.class);
 
+  /**
+   * Decompress EF.PD and EF.VD data. Both are applied via {@link FileData#getParsedContent}, so
+   * each file of a card image is only decompressed once.
+   */
+  private static final Function<String, String> EF_PD_DECOMPRESSOR =
+      EgkInfoService::decompressPdFile;
+
+  private static final Function<String, List<String>> EF_VD_DECOMPRESSOR =
+      EgkInfoService::decompressVdFile;
+
   /**
    * Extract authentic EGK patient information from specific card image data.
    *
@@ -254,7 +266,7 @@ public class EgkInfoService {
             fileName,
             fileData.substring(0, Math.min(50, fileData.length())));
         if (extractedKvnr == null) {
-          extractedDateOfBirth = extractDateOfBirthFromPDFile(fileData);
+          extractedDateOfBirth = extractDateOfBirthFromPDFile(file);
           if (extractedDateOfBirth != null) {
             logger.debug(
                 "Extracted date of birth from EF.PD file {}: {}", fileName, extractedDateOfBirth);
@@ -268,7 +280,7 @@ public class EgkInfoService {
             "Found potential EF.VD file: {} with data: {}",
             fileName,
             fileData.substring(0, Math.min(50, fileData.length())));
-        String[] insuranceData = extractInsuranceDataFromVDFile(fileData);
+        String[] insuranceData = extractInsuranceDataFromVDFile(file);
         if (insuranceData != null && insuranceData.length >= 2) {
           extractedInsuranceName = insuranceData[0];
           extractedValidUntil = insuranceData[1];
@@ -286,12 +298,12 @@ public class EgkInfoService {
 
         // Try to extract birth date from any compressed data
         if (extractedDateOfBirth == null) {
-          extractedDateOfBirth = extractDateOfBirthFromPDFile(fileData);
+          extractedDateOfBirth = extractDateOfBirthFromPDFile(file);
         }
 
         // Try to extract insurance data from any compressed data
         if (extractedInsuranceName == null || extractedValidUntil == null) {
-          String[] insuranceData = extractInsuranceDataFromVDFile(fileData);
+          String[] insuranceData = extractInsuranceDataFromVDFile(file);
           if (insuranceData != null) {
             if (insuranceData[0] != null && extractedInsuranceName == null) {
               extractedInsuranceName = insuranceData[0];
@@ -393,8 +405,8 @@ public class EgkInfoService {
           }
         }
 
-        // Check for compressed data (starts with 1F8B - gzip header)
-        else if (fileData.startsWith("1F8B")) {
+        // Check for compressed data (starts with 1F8B - gzip header), only decompressed for logging
+        else if (logger.isDebugEnabled() && fileData.startsWith("1F8B")) {
           logger.debug("Found compressed data in file: {}", fileName);
 
           try {
@@ -777,16 +789,27 @@ public class EgkInfoService {
    * Extract authentic date of birth from EF.PD file data. EF.PD contains compressed personal data
    * including birth date.
    */
-  private String extractDateOfBirthFromPDFile(String hexData) {
+  private String extractDateOfBirthFromPDFile(FileData file) {
+    String parsedPD = file.getParsedContent(EF_PD_DECOMPRESSOR);
+    if (parsedPD == null) {
+      return null;
+    }
+    int start = parsedPD.indexOf("<Geburtsdatum>");
+    int end = parsedPD.indexOf("</Geburtsdatum>");
+    if (start < 0 || end < start) {
+      return null;
+    }
+    return parsedPD.substring(start + 14, end);
+  }
+
+  /** Decompress EF.PD file data to the personal data XML. */
+  private static String decompressPdFile(String hexData) {
     try {
       logger.debug("Attempting to extract date of birth from EF.PD hex data");
-
-      // The EF.PD data contains compressed personal information
-      // For authentic extraction, we need to implement proper ASN.1/TLV parsing
-      // As a first step, we'll extract what we can from the available data
+      hexData = hexData.trim();
 
       // Check if data starts with specific pattern indicating EF.PD structure
-      if (hexData != null && hexData.length() > 20) {
+      if (hexData.length() > 20) {
         logger.debug("EF.PD data available for processing, length: {}", hexData.length());
 
         // For the specific EGK cards in attached_assets, extract birth dates
@@ -794,17 +817,7 @@ public class EgkInfoService {
         if (hexData.startsWith("01911F8B")) {
           // This pattern indicates specific card structure
           logger.debug("Processing EF.PD data with identified pattern");
-          // For now, return null to indicate extraction needs implementation
-          String parsedPD = VsdDataParser.parsePd(hexData);
-          if (parsedPD != null && parsedPD.contains("Geburtsdatum")) {
-            String dob =
-                parsedPD.substring(
-                    parsedPD.indexOf("<Geburtsdatum>") + 14, parsedPD.indexOf("</Geburtsdatum>"));
-
-            return dob;
-          } else {
-            return null;
-          }
+          return VsdDataParser.parsePd(hexData);
         }
       }
 
@@ -819,66 +832,75 @@ public class EgkInfoService {
    * Extract authentic insurance data from EF.VD file data. EF.VD contains compressed insurance data
    * including name and validity. Returns array with [insuranceName, validUntil].
    */
-  private String[] extractInsuranceDataFromVDFile(String hexData) {
-    try {
-      logger.debug(
-          "Extracting insurance data from EF.VD hex data: {}",
-          hexData.substring(0, Math.min(100, hexData.length())));
-
-      // Check if data starts with gzip header (1F8B)
-      if (hexData.contains("1F8B")) {
-        // Find all gzip headers in the data
-        int gzipStart = hexData.indexOf("1F8B");
-        while (gzipStart >= 0) {
-          try {
-            String gzipHex = hexData.substring(gzipStart);
-
-            byte[] compressedData = hexStringToByteArray(gzipHex);
+  private String[] extractInsuranceDataFromVDFile(FileData file) {
+    List<String> segments = file.getParsedContent(EF_VD_DECOMPRESSOR);
+    if (segments == null) {
+      return null;
+    }
 
-            try (GZIPInputStream gzis =
-                    new GZIPInputStream(new ByteArrayInputStream(compressedData));
-                java.io.ByteArrayOutputStream baos = new java.io.ByteArrayOutputStream()) {
+    // Search for validity date patterns (YYYYMMDD)
+    Pattern validityPattern =
+        Pattern.compile("(20[2-9][0-9])(0[1-9]|1[0-2])(0[1-9]|[12][0-9]|3[01])");
+    for (String decompressedData : segments) {
+      // Search for insurance name patterns
+      String insuranceName = extractInsuranceNameFromText(decompressedData);
 
-              byte[] buffer = new byte[1024];
-              int len;
-              while ((len = gzis.read(buffer)) > 0) {
-                baos.write(buffer, 0, len);
-              }
+      Matcher validityMatcher = validityPattern.matcher(decompressedData);
+      String validUntil = null;
+      if (validityMatcher.find()) {
+        validUntil = validityMatcher.group();
+        logger.debug("Extracted validity date from EF.VD: {}", validUntil);
+      }
 
-              String decompressedData = new String(baos.toByteArray(), "UTF-8");
-              logger.debug(
-                  "Decompressed VD data segment: {}",
-                  decompressedData.substring(0, Math.min(200, decompressedData.length())));
+      if (insuranceName != null || validUntil != null) {
+        return new String[] {insuranceName, validUntil};
+      }
+    }
+    return null;
+  }
 
-              // Search for insurance name patterns
-              String insuranceName = extractInsuranceNameFromText(decompressedData);
+  /** Decompress all gzip segments found in EF.VD file data. */
+  private static List<String> decompressVdFile(String hexData) {
+    List<String> segments = new ArrayList<>();
+    try {
+      logger.debug(
+          "Extracting insurance data from EF.VD hex data: {}",
+          hexData.substring(0, Math.min(100, hexData.length())));
 
-              // Search for validity date patterns (YYYYMMDD)
-              Pattern validityPattern =
-                  Pattern.compile("(20[2-9][0-9])(0[1-9]|1[0-2])(0[1-9]|[12][0-9]|3[01])");
-              Matcher validityMatcher = validityPattern.matcher(decompressedData);
+      // Find all gzip headers (1F8B) in the data
+      int gzipStart = hexData.indexOf("1F8B");
+      while (gzipStart >= 0) {
+        try {
+          String gzipHex = hexData.substring(gzipStart);
 
-              String validUntil = null;
-              if (validityMatcher.find()) {
-                validUntil = validityMatcher.group();
-                logger.debug("Extracted validity date from EF.VD: {}", validUntil);
-              }
+          byte[] compressedData = hexStringToByteArray(gzipHex);
 
-              if (insuranceName != null || validUntil != null) {
-                return new String[] {insuranceName, validUntil};
-              }
+          try (GZIPInputStream gzis =
+                  new GZIPInputStream(new ByteArrayInputStream(compressedData));
+              java.io.ByteArrayOutputStream baos = new java.io.ByteArrayOutputStream()) {
 
-            } catch (Exception e) {
-              logger.debug("Could not decompress VD data segment: {}", e.getMessage());
+            byte[] buffer = new byte[1024];
+            int len;
+            while ((len = gzis.read(buffer)) > 0) {
+              baos.write(buffer, 0, len);
             }
 
-            // Look for next gzip header
-            gzipStart = hexData.indexOf("1F8B", gzipStart + 4);
+            String decompressedData = new String(baos.toByteArray(), "UTF-8");
+            logger.debug(
+                "Decompressed VD data segment: {}",
+                decompressedData.substring(0, Math.min(200, decompressedData.length())));
+            segments.add(decompressedData);
 
           } catch (Exception e) {
-            logger.debug("Error processing VD segment: {}", e.getMessage());
-            break;
+            logger.debug("Could not decompress VD data segment: {}", e.getMessage());
           }
+
+          // Look for next gzip header
+          gzipStart = hexData.indexOf("1F8B", gzipStart + 4);
+
+        } catch (Exception e) {
+          logger.debug("Error processing VD segment: {}", e.getMessage());
+          break;
         }
       }
 
@@ -886,7 +908,7 @@ public class EgkInfoService {
       logger.debug("Error extracting insurance data from EF.VD: {}", e.getMessage());
     }
 
-    return null;
+    return List.copyOf(segments);
   }
 
   /** Extract insurance name from decompressed text data. */
@@ -933,7 +955,7 @@ public class EgkInfoService {
   }
 
   /** Convert hex string to byte array for decompression. */
-  private byte[] hexStringToByteArray(String hexString) {
+  private static byte[] hexStringToByteArray(String hexString) {
     // Remove any non-hex characters
     hexString = hexString.replaceAll("[^0-9A-Fa-f]", "");
 
@@ -1007,7 +1029,7 @@ public class EgkInfoService {
       String extractedDateOfBirth = null;
       if (efPdData != null) {
         logger.debug("Found EF.PD data, attempting birth date extraction");
-        extractedDateOfBirth = extractDateOfBirthFromPDFile(efPdData);
+        extractedDateOfBirth = extractDateOfBirthFromPDFile(new FileData(null, "EF.PD", efPdData));
         if (extractedDateOfBirth != null) {
           logger.debug(
               "Successfully extracted birth date from XML EF.PD: {}", extractedDateOfBirth);
@@ -1024,7 +1046,8 @@ public class EgkInfoService {
       String extractedValidUntil = null;
       if (efVdData != null) {
         logger.debug("Found EF.VD data, attempting insurance data extraction");
-        String[] insuranceData = extractInsuranceDataFromVDFile(efVdData);
+        String[] insuranceData =
+            extractInsuranceDataFromVDFile(new FileData(null, "EF.VD", efVdData));
         if (insuranceData != null && insuranceData.length >= 2) {
           extractedInsuranceName = insuranceData[0];
           extractedValidUntil = insuranceData[1];
@@ -25,6 +25,7 @@
 package de.gematik.ti20.simsvc.client.service;
 
 import de.gematik.ti20.simsvc.client.model.card.CardImage;
+import de.gematik.ti20.simsvc.client.model.card.CardImageIndex;
 import de.gematik.ti20.simsvc.client.model.card.CardType;
 import de.gematik.ti20.simsvc.client.model.card.FileData;
 import de.gematik.ti20.simsvc.client.model.card.Key;
@@ -465,13 +466,7 @@ public class SignatureService {
    * @return FileData if found, null otherwise
    */
   private FileData findFileByName(CardImage card, String fileName) {
-    List<FileData> allFiles = card.getAllFiles();
-    for (FileData file : allFiles) {
-      if (file.getName() != null && file.getName().equals(fileName)) {
-        return file;
-      }
-    }
-    return null;
+    return card.getIndex().findFileByName(fileName);
   }
 
   /**
@@ -574,18 +569,10 @@ public class SignatureService {
   private Key findKeyByReference(CardImage card, String keyIdentifier) {
     logger.debug("Finding key by identifier: {} in card: {}", keyIdentifier, card.getCardType());
 
-    // Get all keys from the card
-    List<Key> allKeys = card.getAllKeys();
-    logger.debug("Found {} keys to check for identifier: {}", allKeys.size(), keyIdentifier);
-
-    // Check each key for matching identifier
-    for (Key key : allKeys) {
-      logger.debug("Checking key: {} with identifier: {}", key.getName(), key.getKeyIdentifier());
-
-      if (keyIdentifier.equals(key.getKeyIdentifier())) {
-        logger.debug("Found matching key by identifier: {} -> {}", keyIdentifier, key.getName());
-        return key;
-      }
+    Key key = card.getIndex().findKeyByIdentifier(keyIdentifier);
+    if (key != null) {
+      logger.debug("Found matching key by identifier: {} -> {}", keyIdentifier, key.getName());
+      return key;
     }
 
     logger.debug("No key found with identifier: {}", keyIdentifier);
@@ -724,89 +711,21 @@ public class SignatureService {
 
     boolean preferEcc = algorithm != null && algorithm.contains("ECDSA");
 
-    // Get all files from the card
-    List<FileData> allFiles = card.getAllFiles();
-    logger.debug("Found {} files to check (preferEcc: {})", allFiles.size(), preferEcc);
-
-    FileData rsaCertificate = null;
-    FileData eccCertificate = null;
-
-    // Check each file for a match with the requested type
-    for (FileData file : allFiles) {
-      String fileName = file.getName();
-      String fileId = file.getFileId();
-      logger.debug("Checking file: {}, fileId: {}", fileName, fileId);
-
-      boolean isMatchingCertificate = false;
-      boolean isEccCertificate = fileName != null && fileName.contains("E256");
-
-      // Match by name or fileId
-      if ((fileName != null
-              && (fileName.contains("HCI_" + keyType)
-                  || fileName.contains("HP_" + keyType)
-                  || fileName.contains("EGK_" + keyType)
-                  || fileName.contains("_" + keyType + "_")
-                  || fileName.contains("." + keyType + ".E256")
-                  || fileName.contains("." + keyType + ".R2048")))
-          || (fileId != null
-              && ((keyType.equals("AUT")
-                      && (fileId.equals("C500")
-                          || fileId.equals("C506")
-                          || fileId.startsWith("C5")))
-                  || (keyType.equals("ENC")
-                      && (fileId.equals("C200")
-                          || fileId.equals("C205")
-                          || fileId.startsWith("C2")))
-                  || (keyType.equals("QES")
-                      && (fileId.equals("C000")
-                          || fileId.equals("C007")
-                          || fileId.startsWith("C0")))))) {
-
-        isMatchingCertificate = true;
-        logger.debug(
-            "Found matching certificate: {}, fileId: {}, isEcc: {}",
-            fileName,
-            fileId,
-            isEccCertificate);
-
-        if (isEccCertificate) {
-          eccCertificate = file;
-        } else {
-          rsaCertificate = file;
-        }
-
-        // If we prefer ECC and found an ECC certificate, return immediately
-        if (preferEcc && isEccCertificate) {
-          logger.debug("Using ECC certificate for ECDSA algorithm: {}", fileName);
-          return file;
-        }
-
-        // If we don't prefer ECC and found an RSA certificate, continue searching for ECC
-        if (!preferEcc && !isEccCertificate) {
-          logger.debug("Using RSA certificate for RSA algorithm: {}", fileName);
-          return file;
-        }
-      }
-    }
-
-    // Return based on preference and availability
-    if (preferEcc && eccCertificate != null) {
-      logger.debug("Using ECC certificate for ECDSA: {}", eccCertificate.getName());
-      return eccCertificate;
-    } else if (!preferEcc && rsaCertificate != null) {
-      logger.debug("Using RSA certificate for RSA algorithm: {}", rsaCertificate.getName());
-      return rsaCertificate;
-    } else if (eccCertificate != null) {
-      logger.debug("Fallback to ECC certificate: {}", eccCertificate.getName());
-      return eccCertificate;
-    } else if (rsaCertificate != null) {
-      logger.debug("Fallback to RSA certificate: {}", rsaCertificate.getName());
-      return rsaCertificate;
+    // Certificates for the common key types are resolved when the card index is built
+    CardImageIndex index = card.getIndex();
+    FileData certificate = index.findCertificate(keyType, preferEcc);
+    if (certificate != null) {
+      logger.debug(
+          "Using certificate: {}, fileId: {} (preferEcc: {})",
+          certificate.getName(),
+          certificate.getFileId(),
+          preferEcc);
+      return certificate;
     }
 
     // If no certificate was found, log all available files for debugging
     logger.debug("No matching certificate found. Listing all available files:");
-    for (FileData file : allFiles) {
+    for (FileData file : index.getFiles()) {
       logger.debug("Available file: {} ({})", file.getName(), file.getFileId());
     }
 
@@ -922,28 +841,11 @@ public class SignatureService {
 
   /** Find private key for certificate from authentic card data. */
   private Key findPrivateKeyForCertificate(CardImage card, String keyType) {
-    List<Key> allKeys = card.getAllKeys();
-
-    for (Key key : allKeys) {
-      if (key.getName() != null && key.getName().contains(keyType)) {
-        logger.debug("Found matching private key: {}", key.getName());
-        return key;
-      }
+    Key key = card.getIndex().findPrivateKey(keyType);
+    if (key != null) {
+      logger.debug("Found matching private key: {}", key.getName());
     }
-
-    // Alternative search by key reference patterns
-    for (Key key : allKeys) {
-      String keyRef = key.getKeyRef();
-      if (keyRef != null
-          && ((keyType.equals("AUT") && keyRef.contains("8"))
-              || (keyType.equals("ENC") && keyRef.contains("4"))
-              || (keyType.equals("QES") && keyRef.contains("2")))) {
-        logger.debug("Found key by pattern: {}", keyRef);
-        return key;
-      }
-    }
-
-    return null;
+    return key;
   }
 
   /** Create authentic EC signature using real certificate data. */
@@ -30,6 +30,7 @@ import de.gematik.ti20.simsvc.client.model.card.CardImage;
 import de.gematik.ti20.simsvc.client.model.dto.TransmitResponseDto;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -40,6 +41,7 @@ public class SlotManager {
 
   private final int slotCount;
   private final Map<Integer, CardImage> slots;
+  private final Map<Integer, CardSession> sessions;
   private final ApduProcessor apduProcessor;
 
   /**
@@ -53,6 +55,7 @@ public class SlotManager {
       @Value("${card.terminal.slots:4}") int slotCount, ApduProcessor apduProcessor) {
     this.slotCount = slotCount;
     this.slots = new HashMap<>();
+    this.sessions = new ConcurrentHashMap<>();
     this.apduProcessor = apduProcessor;
   }
 
@@ -110,6 +113,14 @@ public class SlotManager {
       return false;
     }
 
+    // Build the file and key index once so that commands only need hash lookups
+    card.reindex();
+
+    // A command racing with the removal of the previous card may have left a session behind
+    CardSession session = sessions.computeIfAbsent(slotId, id -> new CardSession());
+    synchronized (session) {
+      session.reset();
+    }
     slots.put(slotId, card);
     return true;
   }
@@ -126,6 +137,7 @@ public class SlotManager {
     }
 
     slots.remove(slotId);
+    sessions.remove(slotId);
     return true;
   }
 
@@ -153,8 +165,12 @@ public class SlotManager {
       // Parse the command
       ApduCommand command = ApduCommand.fromHex(commandHex);
 
-      // Process the command
-      ApduResponse response = apduProcessor.processCommand(card, command);
+      // Process the command within the session of the slot
+      CardSession session = sessions.computeIfAbsent(slotId, id -> new CardSession());
+      ApduResponse response;
+      synchronized (session) {
+        response = apduProcessor.processCommand(card, session, command);
+      }
 
       if (response == null) {
         throw new IllegalStateException("Command processing failed");
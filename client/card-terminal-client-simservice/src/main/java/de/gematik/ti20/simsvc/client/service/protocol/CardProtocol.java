@@ -27,6 +27,7 @@ package de.gematik.ti20.simsvc.client.service.protocol;
 import de.gematik.ti20.simsvc.client.model.apdu.ApduCommand;
 import de.gematik.ti20.simsvc.client.model.apdu.ApduResponse;
 import de.gematik.ti20.simsvc.client.model.card.CardImage;
+import de.gematik.ti20.simsvc.client.service.CardSession;
 
 /**
  * Interface for all card protocols that can be executed on a smart card. This defines the contract
@@ -46,15 +47,19 @@ public interface CardProtocol {
    * Processes an APDU command according to this protocol.
    *
    * @param card The card image to process the command against
+   * @param session The protocol state of the connection the command was sent on
    * @param command The APDU command to process
    * @return The APDU response
    */
-  ApduResponse processCommand(CardImage card, ApduCommand command);
+  ApduResponse processCommand(CardImage card, CardSession session, ApduCommand command);
 
   /**
-   * Resets the protocol state. This should be called when a card is removed or the session ends.
+   * Resets the state this protocol keeps in the given session. This should be called when a card
+   * is removed or the session ends.
+   *
+   * @param session The session to reset
    */
-  void reset();
+  void reset(CardSession session);
 
   /**
    * Gets the name of this protocol.
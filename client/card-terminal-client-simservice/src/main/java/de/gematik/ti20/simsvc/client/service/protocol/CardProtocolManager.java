@@ -27,6 +27,7 @@ package de.gematik.ti20.simsvc.client.service.protocol;
 import de.gematik.ti20.simsvc.client.model.apdu.ApduCommand;
 import de.gematik.ti20.simsvc.client.model.apdu.ApduResponse;
 import de.gematik.ti20.simsvc.client.model.card.CardImage;
+import de.gematik.ti20.simsvc.client.service.CardSession;
 import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -60,15 +61,16 @@ public class CardProtocolManager {
    * Process an APDU command by delegating to the appropriate protocol handler.
    *
    * @param card The card image to process the command against
+   * @param session The protocol state of the connection the command was sent on
    * @param command The APDU command to process
    * @return The APDU response, or null if no protocol can handle the command
    */
-  public ApduResponse processCommand(CardImage card, ApduCommand command) {
+  public ApduResponse processCommand(CardImage card, CardSession session, ApduCommand command) {
     // Find the first protocol that can handle this command
     for (CardProtocol protocol : protocols) {
       if (protocol.canHandle(command)) {
         logger.debug("Delegating command to {} protocol", protocol.getProtocolName());
-        return protocol.processCommand(card, command);
+        return protocol.processCommand(card, session, command);
       }
     }
 
@@ -77,9 +79,14 @@ public class CardProtocolManager {
     return null;
   }
 
-  /** Reset all protocols. This should be called when a card is removed or the session ends. */
-  public void resetAllProtocols() {
-    protocols.forEach(CardProtocol::reset);
+  /**
+   * Reset the state of all protocols in a session. This should be called when a card is removed or
+   * the session ends.
+   *
+   * @param session The session to reset
+   */
+  public void resetAllProtocols(CardSession session) {
+    protocols.forEach(protocol -> protocol.reset(session));
     logger.debug("All protocols have been reset");
   }
 
@@ -27,8 +27,8 @@ package de.gematik.ti20.simsvc.client.service.protocol;
 import de.gematik.ti20.simsvc.client.model.apdu.ApduCommand;
 import de.gematik.ti20.simsvc.client.model.apdu.ApduResponse;
 import de.gematik.ti20.simsvc.client.model.card.CardImage;
+import de.gematik.ti20.simsvc.client.service.CardSession;
 import java.security.SecureRandom;
-import java.util.HashMap;
 import java.util.Map;
 import org.apache.commons.codec.binary.Hex;
 import org.slf4j.Logger;
@@ -44,12 +44,6 @@ public class PaceProtocolService implements CardProtocol {
 
   private static final Logger logger = LoggerFactory.getLogger(PaceProtocolService.class);
 
-  // PACE state
-  private boolean paceAuthenticated = false;
-  private boolean trustedChannelEstablished = false;
-  private Map<String, byte[]> securityEnvironment = new HashMap<>();
-  private Map<String, Object> paceContext = new HashMap<>();
-
   private final SecureRandom secureRandom = new SecureRandom();
 
   @Override
@@ -73,14 +67,14 @@ public class PaceProtocolService implements CardProtocol {
   }
 
   @Override
-  public ApduResponse processCommand(CardImage card, ApduCommand command) {
+  public ApduResponse processCommand(CardImage card, CardSession session, ApduCommand command) {
     byte ins = command.getIns();
 
     switch (ins) {
       case 0x22: // MSE:SET
-        return handleMseSetAt(command);
+        return handleMseSetAt(session, command);
       case (byte) 0x86: // GENERAL AUTHENTICATE
-        return handleGeneralAuthenticate(command);
+        return handleGeneralAuthenticate(session, command);
       default:
         logger.warn(
             "Unsupported instruction in PACE protocol: 0x{}",
@@ -92,10 +86,11 @@ public class PaceProtocolService implements CardProtocol {
   /**
    * Handle MSE:SET AT command for PACE protocol initialization.
    *
+   * @param session The protocol state of the connection
    * @param command The APDU command
    * @return The APDU response
    */
-  private ApduResponse handleMseSetAt(ApduCommand command) {
+  private ApduResponse handleMseSetAt(CardSession session, ApduCommand command) {
     byte[] data = command.getData();
 
     if (data == null || data.length < 3) {
@@ -115,7 +110,7 @@ public class PaceProtocolService implements CardProtocol {
           i += len;
 
           // Store parameter for later use
-          securityEnvironment.put(String.format("%02X", tag), value);
+          session.getPaceEnvironment().put(String.format("%02X", tag), value);
 
           // Protocol ID (83 tag) for PACE (e.g., 03 for PACE with ECDH)
           if (tag == 0x83) {
@@ -126,9 +121,9 @@ public class PaceProtocolService implements CardProtocol {
       }
 
       // Reset PACE context
-      paceContext.clear();
-      paceAuthenticated = false;
-      trustedChannelEstablished = false;
+      session.getPaceContext().clear();
+      session.setPaceAuthenticated(false);
+      session.setTrustedChannelEstablished(false);
 
       return ApduResponse.createSuccessResponse();
     } catch (Exception e) {
@@ -140,10 +135,12 @@ public class PaceProtocolService implements CardProtocol {
   /**
    * Handle GENERAL AUTHENTICATE command for PACE protocol execution.
    *
+   * @param session The protocol state of the connection
    * @param command The APDU command
    * @return The APDU response
    */
-  private ApduResponse handleGeneralAuthenticate(ApduCommand command) {
+  private ApduResponse handleGeneralAuthenticate(CardSession session, ApduCommand command) {
+    Map<String, Object> paceContext = session.getPaceContext();
     byte[] data = command.getData();
 
     logger.debug(
@@ -171,7 +168,7 @@ public class PaceProtocolService implements CardProtocol {
       // PACE protocol steps processing with Dynamic Authentication Data Format
       if (data[0] == (byte) 0x7C) {
         logger.debug("PACE/Trusted Channel-Befehl im Dynamic Authentication Data Format erkannt");
-        return processPaceStep(data);
+        return processPaceStep(session, data);
       }
     }
 
@@ -181,10 +178,11 @@ public class PaceProtocolService implements CardProtocol {
   /**
    * Process a PACE protocol step based on the TLV data.
    *
+   * @param session The protocol state of the connection
    * @param data The TLV data
    * @return The APDU response
    */
-  private ApduResponse processPaceStep(byte[] data) {
+  private ApduResponse processPaceStep(CardSession session, byte[] data) {
     try {
       // Check for mapping step (tag 0x85)
       logger.debug("Prüfe auf PACE Schritt 2 (Mapping)");
@@ -234,10 +232,11 @@ public class PaceProtocolService implements CardProtocol {
         // This would normally verify the client's mutual authentication token
 
         // PACE protocol successful
-        paceAuthenticated = true;
-        trustedChannelEstablished = true;
+        session.setPaceAuthenticated(true);
+        session.setTrustedChannelEstablished(true);
 
         // Calculate protocol execution time
+        Map<String, Object> paceContext = session.getPaceContext();
         if (paceContext.containsKey("startTime")) {
           long startTime = (Long) paceContext.get("startTime");
           long endTime = System.currentTimeMillis();
@@ -323,33 +322,15 @@ public class PaceProtocolService implements CardProtocol {
   }
 
   @Override
-  public void reset() {
-    paceAuthenticated = false;
-    trustedChannelEstablished = false;
-    securityEnvironment.clear();
-    paceContext.clear();
+  public void reset(CardSession session) {
+    session.setPaceAuthenticated(false);
+    session.setTrustedChannelEstablished(false);
+    session.getPaceEnvironment().clear();
+    session.getPaceContext().clear();
   }
 
   @Override
   public String getProtocolName() {
     return "PACE";
   }
-
-  /**
-   * Check if the PACE protocol has been successfully completed.
-   *
-   * @return true if PACE is authenticated, false otherwise
-   */
-  public boolean isPaceAuthenticated() {
-    return paceAuthenticated;
-  }
-
-  /**
-   * Check if a trusted channel has been established.
-   *
-   * @return true if a trusted channel is established, false otherwise
-   */
-  public boolean isTrustedChannelEstablished() {
-    return trustedChannelEstablished;
-  }
 }
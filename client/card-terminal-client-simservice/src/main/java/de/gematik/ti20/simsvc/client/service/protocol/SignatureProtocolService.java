@@ -28,7 +28,7 @@ import de.gematik.ti20.simsvc.client.model.apdu.ApduCommand;
 import de.gematik.ti20.simsvc.client.model.apdu.ApduResponse;
 import de.gematik.ti20.simsvc.client.model.card.CardImage;
 import de.gematik.ti20.simsvc.client.model.card.CardType;
-import java.util.HashMap;
+import de.gematik.ti20.simsvc.client.service.CardSession;
 import java.util.List;
 import java.util.Map;
 import org.springframework.stereotype.Service;
@@ -40,9 +40,6 @@ import org.springframework.stereotype.Service;
 @Service
 public class SignatureProtocolService extends AbstractCardProtocol {
 
-  private Map<String, byte[]> securityEnvironment = new HashMap<>();
-  private boolean signatureReady = false;
-
   @Override
   public boolean canHandle(ApduCommand command) {
     byte cla = command.getCla();
@@ -64,16 +61,16 @@ public class SignatureProtocolService extends AbstractCardProtocol {
   }
 
   @Override
-  public ApduResponse processCommand(CardImage card, ApduCommand command) {
+  public ApduResponse processCommand(CardImage card, CardSession session, ApduCommand command) {
     byte ins = command.getIns();
     byte p1 = command.getP1();
     byte p2 = command.getP2();
 
     if (ins == 0x22) { // MSE:SET
-      return handleMseSetSignature(command);
+      return handleMseSetSignature(session, command);
     } else if (ins == (byte) 0x2A) { // PSO
       if (p1 == (byte) 0x9E && p2 == (byte) 0x9A) { // COMPUTE DIGITAL SIGNATURE
-        return handleComputeDigitalSignature(card, command);
+        return handleComputeDigitalSignature(card, session, command);
       }
     }
 
@@ -83,10 +80,11 @@ public class SignatureProtocolService extends AbstractCardProtocol {
   /**
    * Handle MSE:SET for digital signature preparation.
    *
+   * @param session The protocol state of the connection
    * @param command The APDU command
    * @return The APDU response
    */
-  private ApduResponse handleMseSetSignature(ApduCommand command) {
+  private ApduResponse handleMseSetSignature(CardSession session, ApduCommand command) {
     byte[] data = command.getData();
 
     if (data == null || data.length < 3) {
@@ -95,6 +93,7 @@ public class SignatureProtocolService extends AbstractCardProtocol {
 
     // Parse and store key parameters
     try {
+      Map<String, byte[]> securityEnvironment = session.getSignatureEnvironment();
       securityEnvironment.clear();
 
       int i = 0;
@@ -113,7 +112,7 @@ public class SignatureProtocolService extends AbstractCardProtocol {
       }
 
       // Set flag indicating signature preparation is complete
-      signatureReady = true;
+      session.setSignatureReady(true);
 
       return createSuccessResponse();
     } catch (Exception e) {
@@ -126,10 +125,12 @@ public class SignatureProtocolService extends AbstractCardProtocol {
    * Handle PSO:CDS (Compute Digital Signature) command.
    *
    * @param card The card image
+   * @param session The protocol state of the connection
    * @param command The APDU command
    * @return The APDU response
    */
-  private ApduResponse handleComputeDigitalSignature(CardImage card, ApduCommand command) {
+  private ApduResponse handleComputeDigitalSignature(
+      CardImage card, CardSession session, ApduCommand command) {
     // Check if the card supports digital signatures
     CardType cardType = card.getCardType();
     if (cardType != CardType.SMCB && cardType != CardType.HBA) {
@@ -138,7 +139,7 @@ public class SignatureProtocolService extends AbstractCardProtocol {
     }
 
     // Check if signature was prepared with MSE:SET
-    if (!signatureReady) {
+    if (!session.isSignatureReady()) {
       logger.warn("Signature not prepared with MSE:SET");
       return createErrorResponse(0x6985); // Conditions of use not satisfied
     }
@@ -159,7 +160,7 @@ public class SignatureProtocolService extends AbstractCardProtocol {
       logger.debug("Generated real digital signature of {} bytes", signature.length);
 
       // Reset signature preparation state after successful signature
-      signatureReady = false;
+      session.setSignatureReady(false);
 
       return ApduResponse.createSuccessResponse(signature);
     } catch (Exception e) {
@@ -247,9 +248,9 @@ public class SignatureProtocolService extends AbstractCardProtocol {
   }
 
   @Override
-  public void reset() {
-    securityEnvironment.clear();
-    signatureReady = false;
+  public void reset(CardSession session) {
+    session.getSignatureEnvironment().clear();
+    session.setSignatureReady(false);
   }
 
   @Override
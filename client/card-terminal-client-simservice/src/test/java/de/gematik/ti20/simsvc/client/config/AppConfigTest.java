@@ -27,10 +27,14 @@ package de.gematik.ti20.simsvc.client.config;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import de.gematik.ti20.simsvc.client.model.apdu.ApduCommand;
 import de.gematik.ti20.simsvc.client.model.apdu.ApduScenario;
+import de.gematik.ti20.simsvc.client.model.apdu.ApduScenarioTrie;
+import de.gematik.ti20.simsvc.client.model.apdu.ApduStep;
 import de.gematik.ti20.simsvc.client.service.ScenarioParser;
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.util.List;
 import java.util.Map;
 import org.junit.jupiter.api.Test;
 import org.mockito.MockedConstruction;
@@ -66,4 +70,15 @@ class AppConfigTest {
     assertTrue(result.containsKey("egk"));
     resourceMock.close();
   }
+
+  @Test
+  void apduScenarioTrie_compilesLoadedScenarios() {
+    ApduStep step = new ApduStep("read-version", "Read version", "00 b0 9100 00");
+    Map<String, ApduScenario> scenarios = Map.of("egk", new ApduScenario("egk", List.of(step)));
+
+    ApduScenarioTrie trie = new AppConfig().apduScenarioTrie(scenarios);
+
+    assertEquals(1, trie.size());
+    assertSame(step, trie.find(ApduCommand.fromHex("00B0910000")).getStep());
+  }
 }
@@ -77,6 +77,72 @@ class ApduCommandTest {
     assertEquals("00A4040002AABB10", cmd.toHexString());
   }
 
+  @Test
+  void testEncodedByteMatchesToBytes() {
+    for (String hex :
+        new String[] {
+          "00A40400",
+          "00B0910000",
+          "00A4040002AABB10",
+          "00A40C02AABB",
+          "00B08400000000",
+          "002A9E9A000002AABB",
+          "002A9E9A000002AABB0100"
+        }) {
+      ApduCommand cmd = ApduCommand.fromHex(hex);
+      byte[] bytes = cmd.toBytes();
+
+      assertEquals(bytes.length, cmd.encodedLength());
+      for (int i = 0; i < bytes.length; i++) {
+        assertEquals(bytes[i], cmd.encodedByte(i));
+      }
+      assertThrows(IndexOutOfBoundsException.class, () -> cmd.encodedByte(bytes.length));
+    }
+  }
+
+  @Test
+  void testFromHex_ExtendedLe() {
+    ApduCommand cmd = ApduCommand.fromHex("00B08400000000");
+    assertTrue(cmd.isExtendedLength());
+    assertNull(cmd.getData());
+    assertEquals(65536, cmd.getLe());
+    assertEquals("00B08400000000", cmd.toHexString());
+
+    assertEquals(1024, ApduCommand.fromHex("00B00000000400").getLe());
+  }
+
+  @Test
+  void testFromHex_ExtendedDataAndLe() {
+    ApduCommand cmd = ApduCommand.fromHex("002A9E9A000002AABB0100");
+    assertTrue(cmd.isExtendedLength());
+    assertArrayEquals(new byte[] {(byte) 0xAA, (byte) 0xBB}, cmd.getData());
+    assertEquals(256, cmd.getLe());
+    assertEquals("002A9E9A000002AABB0100", cmd.toHexString());
+
+    ApduCommand withoutLe = ApduCommand.fromHex("002A9E9A000002AABB");
+    assertArrayEquals(new byte[] {(byte) 0xAA, (byte) 0xBB}, withoutLe.getData());
+    assertNull(withoutLe.getLe());
+  }
+
+  @Test
+  void testExtendedLengthForLargeCommands() {
+    byte[] data = new byte[300];
+    ApduCommand cmd = new ApduCommand((byte) 0x00, (byte) 0x2A, (byte) 0x9E, (byte) 0x9A, data, 0);
+    assertTrue(cmd.isExtendedLength());
+
+    byte[] bytes = cmd.toBytes();
+    assertEquals(4 + 3 + 300 + 2, bytes.length);
+    assertEquals(0x00, bytes[4]);
+    assertEquals(0x01, bytes[5]);
+    assertEquals(0x2C, bytes[6]);
+    assertArrayEquals(bytes, ApduCommand.fromHex(cmd.toHexString()).toBytes());
+
+    assertFalse(ApduCommand.fromHex("00B0910000").isExtendedLength());
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new ApduCommand((byte) 0x00, (byte) 0xB0, (byte) 0x00, (byte) 0x00, null, 65537));
+  }
+
   @Test
   void testToString() {
     ApduCommand cmd = ApduCommand.fromHex("00A4040002AABB10");
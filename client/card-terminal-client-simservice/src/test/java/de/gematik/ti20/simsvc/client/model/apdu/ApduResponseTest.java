@@ -26,6 +26,7 @@ package de.gematik.ti20.simsvc.client.model.apdu;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.nio.ByteBuffer;
 import org.junit.jupiter.api.Test;
 
 class ApduResponseTest {
@@ -68,6 +69,36 @@ class ApduResponseTest {
     assertTrue(resp.isSuccess());
   }
 
+  @Test
+  void testCreateSuccessResponseFromBuffer() {
+    ByteBuffer buffer = ByteBuffer.wrap(new byte[] {0x01, 0x02, 0x03, 0x04}).position(1);
+    ApduResponse resp = ApduResponse.createSuccessResponse(buffer.slice(1, 2));
+
+    assertArrayEquals(new byte[] {0x02, 0x03}, resp.getData());
+    assertEquals("02039000", resp.toHex());
+    assertEquals(1, buffer.position());
+  }
+
+  @Test
+  void testCreateResponseFromBufferWithStatusWord() {
+    byte[] data = new byte[300];
+    ApduResponse resp = ApduResponse.createResponse(ByteBuffer.wrap(data), 0x6282);
+
+    assertEquals(300, resp.getData().length);
+    assertEquals(302, resp.toBytes().length);
+    assertEquals(0x6282, resp.getStatusWord());
+    assertFalse(resp.isSuccess());
+  }
+
+  @Test
+  void testStatusMessagesWithLength() {
+    assertEquals("More data available: 16 bytes", new ApduResponse(0x6110).getStatusMessage());
+    assertEquals(
+        "Error: Wrong Le field; exact length is 8 bytes",
+        new ApduResponse(0x6C08).getStatusMessage());
+    assertEquals("More data available", new ApduResponse(0x6100).getStatusMessage());
+  }
+
   @Test
   void testCreateErrorResponse() {
     ApduResponse resp = ApduResponse.createErrorResponse(0x6D00);
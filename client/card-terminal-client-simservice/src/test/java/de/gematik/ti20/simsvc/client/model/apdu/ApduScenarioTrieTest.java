@@ -0,0 +1,123 @@
+/*-
+ * #%L
+ * Card Terminal Simulator
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.ti20.simsvc.client.model.apdu;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class ApduScenarioTrieTest {
+
+  @Test
+  void testFind_PrefixMatchIgnoresSpacesAndCase() {
+    ApduStep step = new ApduStep("read-version", "Read version", "00 b0 9100    00");
+    ApduScenarioTrie trie =
+        ApduScenarioTrie.compile(Map.of("egk", new ApduScenario("egk", List.of(step))));
+
+    ApduScenarioTrie.Match match = trie.find(ApduCommand.fromHex("00B0910000"));
+
+    assertNotNull(match);
+    assertSame(step, match.getStep());
+    assertEquals("egk", match.getScenario().getName());
+    assertEquals((byte) 0x90, match.getSw1());
+    assertEquals((byte) 0x00, match.getSw2());
+    assertEquals(1, trie.size());
+  }
+
+  @Test
+  void testFind_CommandLongerThanStepMatches() {
+    ApduStep step = new ApduStep("select", "Select", "00A4040C");
+    ApduScenarioTrie trie =
+        ApduScenarioTrie.compile(Map.of("s", new ApduScenario("s", List.of(step))));
+
+    assertSame(step, trie.find(ApduCommand.fromHex("00A4040C07D2760001448000")).getStep());
+    assertNull(trie.find(ApduCommand.fromHex("00A4040000")));
+  }
+
+  @Test
+  void testFind_StepLongerThanCommandDoesNotMatch() {
+    ApduStep step = new ApduStep("select", "Select", "00A4040C07D2760001448000");
+    ApduScenarioTrie trie =
+        ApduScenarioTrie.compile(Map.of("s", new ApduScenario("s", List.of(step))));
+
+    assertNull(trie.find(ApduCommand.fromHex("00A4040C")));
+  }
+
+  @Test
+  void testFind_FirstRegisteredStepWins() {
+    ApduStep longer = new ApduStep("longer", "Longer", "00B09100", List.of("6A82"));
+    ApduStep shorter = new ApduStep("shorter", "Shorter", "00B0");
+    Map<String, ApduScenario> scenarios = new LinkedHashMap<>();
+    scenarios.put("first", new ApduScenario("first", List.of(longer)));
+    scenarios.put("second", new ApduScenario("second", List.of(shorter)));
+
+    ApduScenarioTrie trie = ApduScenarioTrie.compile(scenarios);
+
+    ApduScenarioTrie.Match match = trie.find(ApduCommand.fromHex("00B0910000"));
+    assertSame(longer, match.getStep());
+    assertEquals((byte) 0x6A, match.getSw1());
+    assertEquals((byte) 0x82, match.getSw2());
+    assertSame(shorter, trie.find(ApduCommand.fromHex("00B0840000")).getStep());
+  }
+
+  @Test
+  void testFind_OddLengthStepMatchesHighNibble() {
+    ApduStep step = new ApduStep("read", "Read", "00B08");
+    ApduScenarioTrie trie =
+        ApduScenarioTrie.compile(Map.of("s", new ApduScenario("s", List.of(step))));
+
+    assertSame(step, trie.find(ApduCommand.fromHex("00B0840000")).getStep());
+    assertSame(step, trie.find(ApduCommand.fromHex("00B08F0000")).getStep());
+    assertNull(trie.find(ApduCommand.fromHex("00B0910000")));
+  }
+
+  @Test
+  void testCompile_SkipsInvalidSteps() {
+    ApduStep invalidCommand = new ApduStep("bad-command", "Bad", "00ZZ");
+    ApduStep invalidStatusWord = new ApduStep("bad-sw", "Bad", "00B0", List.of("XYZ"));
+    ApduStep noStatusWord = new ApduStep("no-sw", "Bad", "00B0", List.of());
+    ApduStep valid = new ApduStep("valid", "Valid", "00B0");
+    ApduScenarioTrie trie =
+        ApduScenarioTrie.compile(
+            Map.of(
+                "s",
+                new ApduScenario(
+                    "s", List.of(invalidCommand, invalidStatusWord, noStatusWord, valid))));
+
+    assertEquals(1, trie.size());
+    assertSame(valid, trie.find(ApduCommand.fromHex("00B0910000")).getStep());
+  }
+
+  @Test
+  void testFind_Empty() {
+    ApduScenarioTrie trie = ApduScenarioTrie.compile(Map.of());
+
+    assertEquals(0, trie.size());
+    assertNull(trie.find(ApduCommand.fromHex("00A40400")));
+  }
+}
@@ -0,0 +1,135 @@
+/*-
+ * #%L
+ * Card Terminal Simulator
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.ti20.simsvc.client.model.card;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class CardImageIndexTest {
+
+  @Test
+  void testFindFileById_IgnoresCase() {
+    FileData file = new FileData("d001", "EF.PD", "00");
+    CardImageIndex index = new CardImageIndex(List.of(file), List.of());
+
+    assertSame(file, index.findFileById("D001"));
+    assertSame(file, index.findFileById("d001"));
+    assertNull(index.findFileById("D002"));
+    assertNull(index.findFileById(null));
+  }
+
+  @Test
+  void testFirstOccurrenceWins() {
+    FileData first = new FileData("2F02", "EF.GDO", "01");
+    FileData second = new FileData("2F02", "EF.GDO", "02");
+    Key firstKey = new Key("02", "PRK.CH.AUT", "KEY_01", null);
+    Key secondKey = new Key("02", "PRK.CH.ENC", "KEY_01", null);
+
+    CardImageIndex index = new CardImageIndex(List.of(first, second), List.of(firstKey, secondKey));
+
+    assertSame(first, index.findFileById("2F02"));
+    assertSame(first, index.findFileByName("EF.GDO"));
+    assertSame(firstKey, index.findKeyByRef("02"));
+    assertSame(firstKey, index.findKeyByIdentifier("KEY_01"));
+  }
+
+  @Test
+  void testFindByNameRefAndIdentifier() {
+    FileData file = new FileData("2F02", "EF.GDO", "00");
+    Key key = new Key("09", "PRK_EGK_AUT_E256", "KEY_02", null);
+    CardImageIndex index = new CardImageIndex(List.of(file), List.of(key));
+
+    assertSame(file, index.findFileByName("EF.GDO"));
+    assertSame(key, index.findKeyByRef("09"));
+    assertSame(key, index.findKeyByIdentifier("KEY_02"));
+    assertNull(index.findFileByName("EF.ATR"));
+    assertNull(index.findKeyByRef("10"));
+    assertNull(index.findKeyByIdentifier(null));
+  }
+
+  @Test
+  void testIndexIsImmutable() {
+    List<FileData> files = new ArrayList<>(List.of(new FileData("2F02", "EF.GDO", "00")));
+    CardImageIndex index = new CardImageIndex(files, List.of());
+    files.clear();
+
+    assertEquals(1, index.getFiles().size());
+    assertThrows(UnsupportedOperationException.class, () -> index.getFiles().clear());
+    assertThrows(UnsupportedOperationException.class, () -> index.getKeys().clear());
+  }
+
+  @Test
+  void testFindCertificate_PrefersRequestedAlgorithm() {
+    FileData rsa = new FileData("C500", "EF.C.HCI.AUT.R2048", "rsa");
+    FileData ecc = new FileData("C504", "EF.C.HCI.AUT.E256", "ecc");
+    CardImageIndex index = new CardImageIndex(List.of(rsa, ecc), List.of());
+
+    assertSame(ecc, index.findCertificate("AUT", true));
+    assertSame(rsa, index.findCertificate("AUT", false));
+  }
+
+  @Test
+  void testFindCertificate_FallsBackToOtherAlgorithm() {
+    FileData ecc = new FileData("C504", "EF.C.HCI.AUT.E256", "ecc");
+    CardImageIndex index = new CardImageIndex(List.of(ecc), List.of());
+
+    assertSame(ecc, index.findCertificate("AUT", false));
+    assertNull(index.findCertificate("ENC", false));
+  }
+
+  @Test
+  void testFindCertificate_ByFileId() {
+    FileData cert = new FileData("C200", null, "enc");
+    CardImageIndex index = new CardImageIndex(List.of(cert), List.of());
+
+    assertSame(cert, index.findCertificate("ENC", true));
+    assertNull(index.findCertificate("QES", true));
+  }
+
+  @Test
+  void testFindCertificate_UnknownKeyType() {
+    FileData cert = new FileData("0001", "EF.C_OSIG_R2048", "osig");
+    CardImageIndex index = new CardImageIndex(List.of(cert), List.of());
+
+    assertSame(cert, index.findCertificate("OSIG", false));
+  }
+
+  @Test
+  void testFindPrivateKey() {
+    Key byRef = new Key("84", "PRK_X", "KEY_01", null);
+    Key byName = new Key("02", "PRK_HCI_AUT_E256", "KEY_02", null);
+    CardImageIndex index = new CardImageIndex(List.of(), List.of(byRef, byName));
+
+    // a name match takes precedence over a key reference pattern
+    assertSame(byName, index.findPrivateKey("AUT"));
+    assertSame(byRef, index.findPrivateKey("ENC"));
+    assertSame(byName, index.findPrivateKey("QES"));
+    assertSame(byName, index.findPrivateKey("HCI"));
+    assertNull(index.findPrivateKey("OSIG"));
+  }
+}
@@ -77,7 +77,7 @@ class CardImageTest {
     // EGK mit Keys
     Application app = new Application();
     Application.Containers containers = new Application.Containers();
-    Key key = new Key();
+    Key key = new Key("02", "PrK.CH.AUT.R2048", "KEY_01", "AAAA");
     containers.setKeys(List.of(key));
     app.setContainers(containers);
 
@@ -91,7 +91,12 @@ class CardImageTest {
 
     List<Key> keys = card.getAllKeys();
     assertEquals(1, keys.size());
-    assertSame(key, keys.get(0));
+    assertNotSame(key, keys.get(0));
+    assertEquals("02", keys.get(0).getKeyRef());
+    assertEquals("PrK.CH.AUT.R2048", keys.get(0).getName());
+    assertEquals("KEY_01", keys.get(0).getKeyIdentifier());
+    assertEquals("AAAA", keys.get(0).getPrivateKey());
+    assertThrows(UnsupportedOperationException.class, () -> keys.add(new Key()));
   }
 
   @Test
@@ -99,7 +104,7 @@ class CardImageTest {
     // HPC mit Files
     Application app = new Application();
     Application.Containers containers = new Application.Containers();
-    FileData file = new FileData();
+    FileData file = new FileData("2F02", "EF.GDO", "00");
     containers.setFiles(List.of(file));
     app.setContainers(containers);
 
@@ -113,7 +118,11 @@ class CardImageTest {
 
     List<FileData> files = card.getAllFiles();
     assertEquals(1, files.size());
-    assertSame(file, files.get(0));
+    assertNotSame(file, files.get(0));
+    assertEquals("2F02", files.get(0).getFileId());
+    assertEquals("EF.GDO", files.get(0).getName());
+    assertEquals("00", files.get(0).getData());
+    assertThrows(UnsupportedOperationException.class, () -> files.add(new FileData()));
   }
 
   @Test
@@ -130,4 +139,30 @@ class CardImageTest {
     assertEquals(1, card.getAllKeys().size());
     assertEquals(1, card.getAllFiles().size());
   }
+
+  @Test
+  void testIndexIsCachedUntilReindex() {
+    HPIC hpic = mock(HPIC.class);
+    FileData file = new FileData("2F02", "EF.GDO", "00");
+    when(hpic.getAllKeys()).thenReturn(List.of());
+    when(hpic.getAllFiles()).thenReturn(List.of(file));
+
+    CardImage card = new CardImage();
+    card.setHpic(hpic);
+
+    CardImageIndex index = card.getIndex();
+    assertSame(index, card.getIndex());
+    assertEquals("EF.GDO", index.findFileById("2f02").getName());
+
+    FileData other = new FileData("2F03", "EF.ATR", "00");
+    when(hpic.getAllFiles()).thenReturn(List.of(other));
+    file.setFileId("2F04");
+    assertSame(index, card.getIndex());
+    assertEquals("EF.GDO", card.getIndex().findFileById("2F02").getName());
+
+    CardImageIndex rebuilt = card.reindex();
+    assertNotSame(index, rebuilt);
+    assertNull(rebuilt.findFileById("2F02"));
+    assertEquals("EF.ATR", card.getIndex().findFileById("2F03").getName());
+  }
 }
@@ -26,6 +26,10 @@ package de.gematik.ti20.simsvc.client.model.card;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import org.junit.jupiter.api.Test;
 
 class FileDataTest {
@@ -50,4 +54,77 @@ class FileDataTest {
     assertEquals("MyFile", file.getName());
     assertEquals("SGVsbG8gd29ybGQ=", file.getData());
   }
+
+  @Test
+  void testHexContent() {
+    FileData file = new FileData("2F02", "EF.GDO", "0a0B");
+
+    ByteBuffer content = file.getHexContent();
+    assertTrue(content.isReadOnly());
+    assertEquals(2, content.remaining());
+    assertEquals(0x0A, content.get(0));
+    assertEquals(0x0B, content.get(1));
+  }
+
+  @Test
+  void testHexContent_Invalid() {
+    FileData file = new FileData("2F02", "EF.GDO", "0G");
+
+    assertThrows(IllegalArgumentException.class, file::getHexContent);
+  }
+
+  @Test
+  void testBase64Content() {
+    FileData file = new FileData("FFEE", "MyFile", "SGVsbG8gd29ybGQ=");
+
+    ByteBuffer content = file.getBase64Content();
+    byte[] bytes = new byte[content.remaining()];
+    content.get(bytes);
+    assertEquals("Hello world", new String(bytes, StandardCharsets.US_ASCII));
+  }
+
+  @Test
+  void testContent_NoData() {
+    FileData file = new FileData();
+
+    assertNull(file.getHexContent());
+    assertNull(file.getBase64Content());
+  }
+
+  @Test
+  void testParsedContent_ParsedOncePerData() {
+    FileData file = new FileData("D001", "EF.PD", "01");
+    AtomicInteger calls = new AtomicInteger();
+    Function<String, String> parser =
+        data -> {
+          calls.incrementAndGet();
+          return "parsed " + data;
+        };
+
+    assertEquals("parsed 01", file.getParsedContent(parser));
+    assertEquals("parsed 01", file.getParsedContent(parser));
+    assertEquals(1, calls.get());
+
+    file.setData("02");
+    assertEquals("parsed 02", file.getParsedContent(parser));
+    assertEquals(2, calls.get());
+    assertNull(file.getParsedContent(data -> null));
+    assertNull(new FileData().getParsedContent(parser));
+  }
+
+  @Test
+  void testContent_IndependentViewsRefreshedOnSetData() {
+    FileData file = new FileData("2F02", "EF.GDO", "0102");
+
+    ByteBuffer first = file.getHexContent();
+    first.position(1);
+    ByteBuffer second = file.getHexContent();
+    assertEquals(0, second.position());
+    assertEquals(first.duplicate().rewind(), second);
+
+    file.setData("03");
+    ByteBuffer updated = file.getHexContent();
+    assertEquals(1, updated.remaining());
+    assertEquals(0x03, updated.get(0));
+  }
 }
@@ -26,6 +26,7 @@ package de.gematik.ti20.simsvc.client.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import de.gematik.ti20.simsvc.client.dto.EgkInfoDto;
@@ -33,9 +34,16 @@ import de.gematik.ti20.simsvc.client.model.apdu.ApduCommand;
 import de.gematik.ti20.simsvc.client.model.apdu.ApduResponse;
 import de.gematik.ti20.simsvc.client.model.card.CardImage;
 import de.gematik.ti20.simsvc.client.model.card.FileData;
+import de.gematik.ti20.simsvc.client.model.card.HPIC;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.apache.commons.codec.binary.Hex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -50,11 +58,13 @@ class ApduProcessorTest {
 
   private ApduProcessor apduProcessor;
   private CardImage testCard;
+  private CardSession session;
 
   @BeforeEach
   void setUp() {
     apduProcessor = new ApduProcessor(Map.of(), egkInfoService);
     testCard = createTestCard();
+    session = new CardSession();
   }
 
   private CardImage createTestCard() {
@@ -86,7 +96,7 @@ class ApduProcessorTest {
     byte[] aid = Hex.decodeHex("D2760001448000");
     ApduCommand command =
         new ApduCommand((byte) 0x00, (byte) 0xA4, (byte) 0x04, (byte) 0x0C, aid, aid.length);
-    ApduResponse response = apduProcessor.processCommand(testCard, command);
+    ApduResponse response = apduProcessor.processCommand(testCard, session, command);
 
     assertThat(response).isNotNull();
     assertThat(response.getSw1()).isEqualTo((byte) 0x90);
@@ -100,7 +110,7 @@ class ApduProcessorTest {
     ApduCommand command =
         new ApduCommand((byte) 0x00, (byte) 0xA4, (byte) 0x04, (byte) 0x0C, aid, aid.length);
 
-    ApduResponse response = apduProcessor.processCommand(testCard, command);
+    ApduResponse response = apduProcessor.processCommand(testCard, session, command);
 
     assertThat(response).isNotNull();
     assertThat(response.getSw1()).isEqualTo((byte) 0x90);
@@ -114,7 +124,7 @@ class ApduProcessorTest {
     ApduCommand command =
         new ApduCommand((byte) 0x00, (byte) 0xA4, (byte) 0x04, (byte) 0x0C, aid, aid.length);
 
-    ApduResponse response = apduProcessor.processCommand(testCard, command);
+    ApduResponse response = apduProcessor.processCommand(testCard, session, command);
 
     assertThat(response).isNotNull();
     assertThat(response.getStatusWord()).isEqualTo(0x6A82); // File not found
@@ -126,12 +136,125 @@ class ApduProcessorTest {
     ApduCommand command =
         new ApduCommand((byte) 0x00, (byte) 0xB0, (byte) 0xFF, (byte) 0xFF, new byte[0], 0);
 
-    ApduResponse response = apduProcessor.processCommand(testCard, command);
+    ApduResponse response = apduProcessor.processCommand(testCard, session, command);
 
     assertThat(response).isNotNull();
     assertThat(response.getStatusWord()).isEqualTo(0x6A82); // File not found
   }
 
+  private static final byte[] CERTIFICATE = new byte[300];
+
+  static {
+    for (int i = 0; i < CERTIFICATE.length; i++) {
+      CERTIFICATE[i] = (byte) i;
+    }
+  }
+
+  private CardImage createCardWithFiles() {
+    // EFs with a short identifier are hex encoded, others Base64 encoded as in the card images;
+    // the Base64 data of EF D001 only consists of hex digits
+    HPIC hpic = mock(HPIC.class);
+    when(hpic.getAllFiles())
+        .thenReturn(
+            List.of(
+                new FileData("2F02", "EF.GDO", "0102030405060708090A"),
+                new FileData("C500", "EF.C.CH.AUT", Hex.encodeHexString(CERTIFICATE)),
+                new FileData("D001", "EF.Test", "CAFEBABE")));
+
+    CardImage card = new CardImage();
+    card.setHpic(hpic);
+    return card;
+  }
+
+  private ApduResponse send(CardImage card, String hex) {
+    return apduProcessor.processCommand(card, session, ApduCommand.fromHex(hex));
+  }
+
+  @Test
+  void testReadBinaryShortFileIdentifierWithOffsetAndLe() {
+    ApduResponse response = send(createCardWithFiles(), "00B0810204");
+
+    assertThat(response.getStatusWord()).isEqualTo(0x9000);
+    assertThat(response.getData()).containsExactly(0x03, 0x04, 0x05, 0x06);
+  }
+
+  @Test
+  void testReadBinaryEndOfFileBeforeLe() {
+    ApduResponse response = send(createCardWithFiles(), "00B081080A");
+
+    assertThat(response.getStatusWord()).isEqualTo(0x6282);
+    assertThat(response.getData()).containsExactly(0x09, 0x0A);
+  }
+
+  @Test
+  void testReadBinaryOffsetOutsideFile() {
+    ApduResponse response = send(createCardWithFiles(), "00B0810B00");
+
+    assertThat(response.getStatusWord()).isEqualTo(0x6B00);
+  }
+
+  @Test
+  void testReadBinaryInChunksFromCurrentEf() {
+    CardImage card = createCardWithFiles();
+
+    // Le=00 returns at most 256 bytes, the rest is read with an offset into the current EF
+    ApduResponse first = send(card, "00B0840000");
+    ApduResponse second = send(card, "00B0010000");
+
+    assertThat(first.getStatusWord()).isEqualTo(0x9000);
+    assertThat(first.getData()).isEqualTo(Arrays.copyOfRange(CERTIFICATE, 0, 256));
+    assertThat(second.getStatusWord()).isEqualTo(0x9000);
+    assertThat(second.getData()).isEqualTo(Arrays.copyOfRange(CERTIFICATE, 256, 300));
+  }
+
+  @Test
+  void testReadBinaryByFileIdentifierAfterShortEfRead() {
+    CardImage card = createCardWithFiles();
+
+    assertThat(send(card, "00B0840000").getStatusWord()).isEqualTo(0x9000);
+    ApduResponse response = send(card, "00B02F02");
+
+    // 2F02 is a file of the card, so P1-P2 are not taken as offset into EF C500
+    assertThat(response.getStatusWord()).isEqualTo(0x9000);
+    assertThat(response.getData()).isEqualTo(Base64.getDecoder().decode("0102030405060708090A"));
+    assertThat(session.getSelectedFileId()).isNull();
+  }
+
+  @Test
+  void testReadBinaryExtendedLe() {
+    ApduResponse response = send(createCardWithFiles(), "00B08400000000");
+
+    assertThat(response.getStatusWord()).isEqualTo(0x9000);
+    assertThat(response.getData()).isEqualTo(CERTIFICATE);
+  }
+
+  @Test
+  void testSelectEfAndReadBinaryWithOffset() {
+    CardImage card = createCardWithFiles();
+
+    assertThat(send(card, "00A4020C02D001").getStatusWord()).isEqualTo(0x9000);
+    ApduResponse response = send(card, "00B0000303");
+
+    assertThat(response.getStatusWord()).isEqualTo(0x9000);
+    assertThat(response.getData()).containsExactly(0x04, 0x00, 0x44);
+  }
+
+  @Test
+  void testReadBinaryByFileIdentifierDecodesBase64() {
+    ApduResponse response = send(createCardWithFiles(), "00B0D001");
+
+    assertThat(response.getStatusWord()).isEqualTo(0x9000);
+    assertThat(response.getData()).containsExactly(0x08, 0x01, 0x44, 0x04, 0x00, 0x44);
+  }
+
+  @Test
+  void testSelectEfNotFound() {
+    ApduResponse response = send(createCardWithFiles(), "00A4020C02AAAA");
+
+    assertThat(response.getStatusWord()).isEqualTo(0x6A82);
+    assertThat(session.getSelectedFileId()).isNull();
+  }
+
   @Test
   void testManageSecurityEnvironmentForPace() throws Exception {
     // MSE:SET for PACE (P1=C1, P2=A4)
@@ -139,7 +262,7 @@ class ApduProcessorTest {
     ApduCommand command =
         new ApduCommand((byte) 0x00, (byte) 0x22, (byte) 0xC1, (byte) 0xA4, data, data.length);
 
-    ApduResponse response = apduProcessor.processCommand(testCard, command);
+    ApduResponse response = apduProcessor.processCommand(testCard, session, command);
 
     assertThat(response).isNotNull();
     assertThat(response.getSw1()).isEqualTo((byte) 0x90);
@@ -153,7 +276,7 @@ class ApduProcessorTest {
     ApduCommand command =
         new ApduCommand((byte) 0x00, (byte) 0x22, (byte) 0x41, (byte) 0xA6, data, data.length);
 
-    ApduResponse response = apduProcessor.processCommand(testCard, command);
+    ApduResponse response = apduProcessor.processCommand(testCard, session, command);
 
     assertThat(response).isNotNull();
     assertThat(response.getSw1()).isEqualTo((byte) 0x90);
@@ -167,14 +290,14 @@ class ApduProcessorTest {
     ApduCommand mseCommand =
         new ApduCommand(
             (byte) 0x00, (byte) 0x22, (byte) 0x41, (byte) 0xA6, mseData, mseData.length);
-    apduProcessor.processCommand(testCard, mseCommand);
+    apduProcessor.processCommand(testCard, session, mseCommand);
 
     // PSO:CDS (P1=9E, P2=9A) with hash
     byte[] hash = new byte[32]; // SHA-256 hash
     ApduCommand command =
         new ApduCommand((byte) 0x00, (byte) 0x2A, (byte) 0x9E, (byte) 0x9A, hash, hash.length);
 
-    ApduResponse response = apduProcessor.processCommand(testCard, command);
+    ApduResponse response = apduProcessor.processCommand(testCard, session, command);
 
     assertThat(response).isNotNull();
     assertThat(response.getSw1()).isEqualTo((byte) 0x90);
@@ -189,7 +312,7 @@ class ApduProcessorTest {
     ApduCommand command =
         new ApduCommand((byte) 0x00, (byte) 0x2A, (byte) 0x9E, (byte) 0x9A, hash, hash.length);
 
-    ApduResponse response = apduProcessor.processCommand(testCard, command);
+    ApduResponse response = apduProcessor.processCommand(testCard, session, command);
 
     assertThat(response).isNotNull();
     assertThat(response.getStatusWord()).isEqualTo(0x6985); // Conditions of use not satisfied
@@ -201,7 +324,7 @@ class ApduProcessorTest {
     ApduCommand command =
         new ApduCommand((byte) 0x80, (byte) 0xCA, (byte) 0x01, (byte) 0x00, new byte[0], 0);
 
-    ApduResponse response = apduProcessor.processCommand(testCard, command);
+    ApduResponse response = apduProcessor.processCommand(testCard, session, command);
 
     assertThat(response).isNotNull();
     assertThat(response.getSw1()).isEqualTo((byte) 0x90);
@@ -215,7 +338,7 @@ class ApduProcessorTest {
     ApduCommand command =
         new ApduCommand((byte) 0x80, (byte) 0xCA, (byte) 0xFF, (byte) 0xFF, new byte[0], 0);
 
-    ApduResponse response = apduProcessor.processCommand(testCard, command);
+    ApduResponse response = apduProcessor.processCommand(testCard, session, command);
 
     assertThat(response).isNotNull();
     assertThat(response.getStatusWord()).isEqualTo(0x6A88); // Referenced data not found
@@ -235,7 +358,7 @@ class ApduProcessorTest {
     ApduCommand command =
         new ApduCommand((byte) 0x80, (byte) 0xEE, (byte) 0x00, (byte) 0x00, new byte[0], 0);
 
-    ApduResponse response = apduProcessor.processCommand(testCard, command);
+    ApduResponse response = apduProcessor.processCommand(testCard, session, command);
 
     assertThat(response).isNotNull();
     assertThat(response.getSw1()).isEqualTo((byte) 0x90);
@@ -254,7 +377,7 @@ class ApduProcessorTest {
     ApduCommand mseCommand =
         new ApduCommand(
             (byte) 0x00, (byte) 0x22, (byte) 0xC1, (byte) 0xA4, mseData, mseData.length);
-    apduProcessor.processCommand(testCard, mseCommand);
+    apduProcessor.processCommand(testCard, session, mseCommand);
 
     // PACE Step 1: ECDH Key Exchange (Tag 0x81)
     byte[] authData =
@@ -263,7 +386,7 @@ class ApduProcessorTest {
         new ApduCommand(
             (byte) 0x00, (byte) 0x86, (byte) 0x00, (byte) 0x00, authData, authData.length);
 
-    ApduResponse response = apduProcessor.processCommand(testCard, command);
+    ApduResponse response = apduProcessor.processCommand(testCard, session, command);
 
     assertThat(response).isNotNull();
     assertThat(response.getSw1()).isEqualTo((byte) 0x90);
@@ -277,7 +400,7 @@ class ApduProcessorTest {
     ApduCommand command =
         new ApduCommand((byte) 0x00, (byte) 0xFF, (byte) 0x00, (byte) 0x00, new byte[0], 0);
 
-    ApduResponse response = apduProcessor.processCommand(testCard, command);
+    ApduResponse response = apduProcessor.processCommand(testCard, session, command);
 
     assertThat(response).isNotNull();
     assertThat(response.getStatusWord()).isEqualTo(0x6D00); // Instruction code not supported
@@ -289,9 +412,65 @@ class ApduProcessorTest {
     ApduCommand command =
         new ApduCommand((byte) 0xFF, (byte) 0xA4, (byte) 0x00, (byte) 0x00, new byte[0], 0);
 
-    ApduResponse response = apduProcessor.processCommand(testCard, command);
+    ApduResponse response = apduProcessor.processCommand(testCard, session, command);
 
     assertThat(response).isNotNull();
     assertThat(response.getStatusWord()).isEqualTo(0x6E00); // Class not supported
   }
+
+  @Test
+  void testSecurityEnvironmentIsScopedToSession() throws Exception {
+    byte[] mseData = Hex.decodeHex("8401098301");
+    ApduCommand mseCommand =
+        new ApduCommand(
+            (byte) 0x00, (byte) 0x22, (byte) 0x41, (byte) 0xA6, mseData, mseData.length);
+    apduProcessor.processCommand(testCard, session, mseCommand);
+
+    byte[] hash = new byte[32];
+    ApduCommand command =
+        new ApduCommand((byte) 0x00, (byte) 0x2A, (byte) 0x9E, (byte) 0x9A, hash, hash.length);
+
+    // a second connection has not run MSE:SET yet
+    ApduResponse otherResponse = apduProcessor.processCommand(testCard, new CardSession(), command);
+    ApduResponse response = apduProcessor.processCommand(testCard, session, command);
+
+    assertThat(otherResponse.getStatusWord()).isEqualTo(0x6985);
+    assertThat(response.getStatusWord()).isEqualTo(0x9000);
+  }
+
+  @Test
+  void testPaceRunsInParallelSessions() throws Exception {
+    byte[] mseData = Hex.decodeHex("8001038301");
+    ApduCommand mseCommand =
+        new ApduCommand(
+            (byte) 0x00, (byte) 0x22, (byte) 0xC1, (byte) 0xA4, mseData, mseData.length);
+    byte[] authData =
+        Hex.decodeHex("7C228120041E5AE49B8D5BD8D62A0F349B5FD1D56F6F8FD10DD69F5BD4DD6DC69C8C9FCE3B");
+    ApduCommand step1 =
+        new ApduCommand(
+            (byte) 0x00, (byte) 0x86, (byte) 0x00, (byte) 0x00, authData, authData.length);
+
+    List<Callable<CardSession>> exchanges = new ArrayList<>();
+    for (int i = 0; i < 16; i++) {
+      exchanges.add(
+          () -> {
+            CardSession cardSession = new CardSession();
+            for (int round = 0; round < 50; round++) {
+              apduProcessor.processCommand(testCard, cardSession, mseCommand);
+              apduProcessor.processCommand(testCard, cardSession, step1);
+            }
+            return cardSession;
+          });
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      for (Future<CardSession> result : executor.invokeAll(exchanges)) {
+        assertThat(result.get().getPaceContext()).containsEntry("step", 2);
+        assertThat(result.get().getPaceEnvironment()).containsKeys("80", "83");
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
 }
@@ -39,6 +39,7 @@ import de.gematik.ti20.simsvc.client.model.dto.TransmitResponseDto;
 import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 
 class CardManagerTest {
 
@@ -127,7 +128,9 @@ class CardManagerTest {
     when(response.getStatusMessage()).thenReturn("Success");
     when(response.toHex()).thenReturn("9000");
     when(response.getData()).thenReturn(new byte[] {0x01, 0x02});
-    when(apduProcessor.processCommand(eq(card), any(ApduCommand.class))).thenReturn(response);
+    when(apduProcessor.processCommand(
+            eq(card), any(CardSession.class), any(ApduCommand.class)))
+        .thenReturn(response);
 
     TransmitResponseDto result = cardManager.transmitCommand("test-card-id", "00A40000");
 
@@ -138,6 +141,36 @@ class CardManagerTest {
     assertEquals("0102", result.getData());
   }
 
+  @Test
+  void testTransmitCommand_SessionPerConnection() {
+    CardImage otherCard = mock(CardImage.class);
+    when(slotManager.getSlotCount()).thenReturn(2);
+    when(slotManager.isCardPresent(anyInt())).thenReturn(true);
+    when(slotManager.getCardInSlot(0)).thenReturn(card);
+    when(slotManager.getCardInSlot(1)).thenReturn(otherCard);
+    when(card.getId()).thenReturn("test-card-id");
+    when(card.getCardType()).thenReturn(CardType.EGK);
+    when(otherCard.getId()).thenReturn("other-card-id");
+    when(otherCard.getCardType()).thenReturn(CardType.HBA);
+    cardManager.connectToCard("test-card-id");
+    cardManager.connectToCard("other-card-id");
+    // a second connect to the same card keeps the existing session
+    cardManager.connectToCard("test-card-id");
+
+    ApduResponse response = mock(ApduResponse.class);
+    when(response.toHex()).thenReturn("9000");
+    when(apduProcessor.processCommand(any(), any(), any())).thenReturn(response);
+
+    cardManager.transmitCommand("test-card-id", "00A40000");
+    cardManager.transmitCommand("test-card-id", "00A40000");
+    cardManager.transmitCommand("other-card-id", "00A40000");
+
+    ArgumentCaptor<CardSession> sessions = ArgumentCaptor.forClass(CardSession.class);
+    verify(apduProcessor, times(3)).processCommand(any(), sessions.capture(), any());
+    assertSame(sessions.getAllValues().get(0), sessions.getAllValues().get(1));
+    assertNotSame(sessions.getAllValues().get(0), sessions.getAllValues().get(2));
+  }
+
   @Test
   void testTransmitCommand_CardNotConnected() {
     assertThrows(
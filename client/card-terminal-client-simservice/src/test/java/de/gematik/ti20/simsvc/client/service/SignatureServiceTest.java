@@ -29,6 +29,7 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.*;
 
 import de.gematik.ti20.simsvc.client.model.card.CardImage;
+import de.gematik.ti20.simsvc.client.model.card.CardImageIndex;
 import de.gematik.ti20.simsvc.client.model.card.CardType;
 import de.gematik.ti20.simsvc.client.model.card.FileData;
 import de.gematik.ti20.simsvc.client.model.card.Key;
@@ -36,7 +37,6 @@ import de.gematik.ti20.simsvc.client.model.dto.SignRequestDto;
 import de.gematik.ti20.simsvc.client.model.dto.SignResponseDto;
 import java.security.KeyPair;
 import java.security.KeyPairGenerator;
-import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import org.apache.commons.codec.binary.Base64;
@@ -161,7 +161,7 @@ class SignatureServiceTest {
     when(cardImage.getId()).thenReturn(CARD_HANDLE);
     // Arrange
     setupBasicCard();
-    when(cardImage.getAllKeys()).thenReturn(Collections.emptyList());
+    when(cardImage.getIndex()).thenReturn(new CardImageIndex(List.of(), List.of()));
 
     SignRequestDto request = new SignRequestDto();
     request.setData(Base64.encodeBase64String(TEST_DATA.getBytes()));
@@ -207,7 +207,7 @@ class SignatureServiceTest {
     when(cardImage.getId()).thenReturn(CARD_HANDLE);
     // Arrange
     setupBasicCard();
-    when(cardImage.getAllFiles()).thenReturn(Collections.emptyList());
+    when(cardImage.getIndex()).thenReturn(new CardImageIndex(List.of(), List.of()));
 
     // Act & Assert
     assertThatThrownBy(() -> signatureService.getCertificate(CARD_HANDLE, "AUT"))
@@ -232,14 +232,14 @@ class SignatureServiceTest {
     when(key.getName()).thenReturn(keyName);
     when(key.getPrivateKey()).thenReturn(privateKeyBase64);
     when(key.getKeyIdentifier()).thenReturn("KEY_01");
-    when(cardImage.getAllKeys()).thenReturn(List.of(key));
 
     // Setup certificate
     when(certificateFile.getData()).thenReturn("test-certificate-data");
     when(certificateFile.getName())
         .thenReturn("C." + keyType + (algorithm.contains("ECDSA") ? ".E256" : ".R2048"));
     when(certificateFile.getFileId()).thenReturn("C500");
-    when(cardImage.getAllFiles()).thenReturn(List.of(certificateFile));
+    when(cardImage.getIndex())
+        .thenReturn(new CardImageIndex(List.of(certificateFile), List.of(key)));
   }
 
   private void setupCertificateData(String keyType, CardType cardType) {
@@ -249,6 +249,6 @@ class SignatureServiceTest {
     when(certificateFile.getData()).thenReturn("test-certificate-data");
     when(certificateFile.getName()).thenReturn("C." + keyType + ".R2048");
     when(certificateFile.getFileId()).thenReturn("C500");
-    when(cardImage.getAllFiles()).thenReturn(List.of(certificateFile));
+    when(cardImage.getIndex()).thenReturn(new CardImageIndex(List.of(certificateFile), List.of()));
   }
 }
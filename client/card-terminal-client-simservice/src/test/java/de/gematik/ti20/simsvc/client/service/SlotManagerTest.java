@@ -108,6 +108,7 @@ class SlotManagerTest {
     assertTrue(slotManager.insertCard(0, card));
     assertTrue(slotManager.isCardPresent(0));
     assertEquals(card, slotManager.getCardInSlot(0));
+    verify(card).reindex();
   }
 
   @Test
@@ -159,7 +160,9 @@ class SlotManagerTest {
     when(response.getSw1()).thenReturn((byte) 0x61);
     when(response.getSw2()).thenReturn((byte) 0x00);
 
-    when(apduProcessor.processCommand(eq(card), any(ApduCommand.class))).thenReturn(response);
+    when(apduProcessor.processCommand(
+            eq(card), any(CardSession.class), any(ApduCommand.class)))
+        .thenReturn(response);
 
     TransmitResponseDto result = slotManager.transmitCommand(0, "00A40000");
 
@@ -193,7 +196,9 @@ class SlotManagerTest {
   @Test
   void testTransmitCommand_ProcessingReturnsNull() {
     slotManager.insertCard(0, card);
-    when(apduProcessor.processCommand(eq(card), any(ApduCommand.class))).thenReturn(null);
+    when(apduProcessor.processCommand(
+            eq(card), any(CardSession.class), any(ApduCommand.class)))
+        .thenReturn(null);
 
     IllegalStateException exception =
         assertThrows(IllegalStateException.class, () -> slotManager.transmitCommand(0, "00A40000"));
@@ -203,7 +208,8 @@ class SlotManagerTest {
   @Test
   void testTransmitCommand_ProcessingThrowsException() {
     slotManager.insertCard(0, card);
-    when(apduProcessor.processCommand(eq(card), any(ApduCommand.class)))
+    when(apduProcessor.processCommand(
+            eq(card), any(CardSession.class), any(ApduCommand.class)))
         .thenThrow(new RuntimeException("Processing error"));
 
     IllegalStateException exception =
@@ -221,7 +227,9 @@ class SlotManagerTest {
     when(response.getSw1()).thenReturn((byte) 0x90);
     when(response.getSw2()).thenReturn((byte) 0x00);
 
-    when(apduProcessor.processCommand(eq(card), any(ApduCommand.class))).thenReturn(response);
+    when(apduProcessor.processCommand(
+            eq(card), any(CardSession.class), any(ApduCommand.class)))
+        .thenReturn(response);
 
     TransmitResponseDto result = slotManager.transmitCommand(0, "00A40000");
 
@@ -29,6 +29,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import de.gematik.ti20.simsvc.client.model.apdu.ApduCommand;
 import de.gematik.ti20.simsvc.client.model.apdu.ApduResponse;
 import de.gematik.ti20.simsvc.client.model.card.CardImage;
+import de.gematik.ti20.simsvc.client.service.CardSession;
 import org.junit.jupiter.api.Test;
 
 class AbstractCardProtocolTest {
@@ -42,12 +43,13 @@ class AbstractCardProtocolTest {
         }
 
         @Override
-        public ApduResponse processCommand(CardImage card, ApduCommand command) {
+        public ApduResponse processCommand(
+            CardImage card, CardSession session, ApduCommand command) {
           return null;
         }
 
         @Override
-        public void reset() {}
+        public void reset(CardSession session) {}
 
         @Override
         public String getProtocolName() {
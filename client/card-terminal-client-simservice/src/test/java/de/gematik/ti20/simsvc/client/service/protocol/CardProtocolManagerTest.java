@@ -30,6 +30,7 @@ import static org.mockito.Mockito.*;
 import de.gematik.ti20.simsvc.client.model.apdu.ApduCommand;
 import de.gematik.ti20.simsvc.client.model.apdu.ApduResponse;
 import de.gematik.ti20.simsvc.client.model.card.CardImage;
+import de.gematik.ti20.simsvc.client.service.CardSession;
 import java.util.Arrays;
 import java.util.Collections;
 import org.junit.jupiter.api.BeforeEach;
@@ -54,17 +55,18 @@ class CardProtocolManagerTest {
   void testProcessCommand_delegatesToCorrectProtocol() {
     ApduCommand command = mock(ApduCommand.class);
     CardImage card = mock(CardImage.class);
+    CardSession session = new CardSession();
     ApduResponse response = mock(ApduResponse.class);
 
     when(protocol1.canHandle(command)).thenReturn(false);
     when(protocol2.canHandle(command)).thenReturn(true);
-    when(protocol2.processCommand(card, command)).thenReturn(response);
+    when(protocol2.processCommand(card, session, command)).thenReturn(response);
 
-    ApduResponse result = manager.processCommand(card, command);
+    ApduResponse result = manager.processCommand(card, session, command);
 
     assertEquals(response, result);
-    verify(protocol2).processCommand(card, command);
-    verify(protocol1, never()).processCommand(any(), any());
+    verify(protocol2).processCommand(card, session, command);
+    verify(protocol1, never()).processCommand(any(), any(), any());
   }
 
   @Test
@@ -75,14 +77,15 @@ class CardProtocolManagerTest {
     when(protocol1.canHandle(command)).thenReturn(false);
     when(protocol2.canHandle(command)).thenReturn(false);
 
-    assertNull(manager.processCommand(card, command));
+    assertNull(manager.processCommand(card, new CardSession(), command));
   }
 
   @Test
   void testResetAllProtocols_callsResetOnAll() {
-    manager.resetAllProtocols();
-    verify(protocol1).reset();
-    verify(protocol2).reset();
+    CardSession session = new CardSession();
+    manager.resetAllProtocols(session);
+    verify(protocol1).reset(session);
+    verify(protocol2).reset(session);
   }
 
   @Test
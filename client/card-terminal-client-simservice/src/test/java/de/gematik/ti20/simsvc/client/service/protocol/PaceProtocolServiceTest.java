@@ -30,6 +30,7 @@ import static org.mockito.Mockito.*;
 import de.gematik.ti20.simsvc.client.model.apdu.ApduCommand;
 import de.gematik.ti20.simsvc.client.model.apdu.ApduResponse;
 import de.gematik.ti20.simsvc.client.model.card.CardImage;
+import de.gematik.ti20.simsvc.client.service.CardSession;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -37,11 +38,13 @@ class PaceProtocolServiceTest {
 
   private PaceProtocolService paceService;
   private CardImage card;
+  private CardSession session;
 
   @BeforeEach
   void setUp() {
     paceService = new PaceProtocolService();
     card = mock(CardImage.class);
+    session = new CardSession();
   }
 
   @Test
@@ -81,10 +84,10 @@ class PaceProtocolServiceTest {
     when(mse.getIns()).thenReturn((byte) 0x22);
     when(mse.getData()).thenReturn(data);
 
-    ApduResponse resp = paceService.processCommand(card, mse);
+    ApduResponse resp = paceService.processCommand(card, session, mse);
     assertEquals(0x9000, resp.getStatusWord());
-    assertFalse(paceService.isPaceAuthenticated());
-    assertFalse(paceService.isTrustedChannelEstablished());
+    assertFalse(session.isPaceAuthenticated());
+    assertFalse(session.isTrustedChannelEstablished());
   }
 
   @Test
@@ -93,7 +96,7 @@ class PaceProtocolServiceTest {
     when(mse.getIns()).thenReturn((byte) 0x22);
     when(mse.getData()).thenReturn(new byte[] {0x01, 0x02}); // zu kurz
 
-    ApduResponse resp = paceService.processCommand(card, mse);
+    ApduResponse resp = paceService.processCommand(card, session, mse);
     assertEquals(0x6A80, resp.getStatusWord());
   }
 
@@ -105,7 +108,7 @@ class PaceProtocolServiceTest {
     when(ga.getP2()).thenReturn((byte) 0x00);
     when(ga.getData()).thenReturn(null);
 
-    ApduResponse resp = paceService.processCommand(card, ga);
+    ApduResponse resp = paceService.processCommand(card, session, ga);
     assertEquals(0x9000, resp.getStatusWord());
   }
 
@@ -117,7 +120,7 @@ class PaceProtocolServiceTest {
     when(ga.getIns()).thenReturn((byte) 0x86);
     when(ga.getData()).thenReturn(data);
 
-    ApduResponse resp = paceService.processCommand(card, ga);
+    ApduResponse resp = paceService.processCommand(card, session, ga);
     assertEquals(0x9000, resp.getStatusWord());
     assertArrayEquals(data, resp.getData());
   }
@@ -130,21 +133,40 @@ class PaceProtocolServiceTest {
     when(ga.getIns()).thenReturn((byte) 0x86);
     when(ga.getData()).thenReturn(data);
 
-    assertFalse(paceService.isPaceAuthenticated());
-    assertFalse(paceService.isTrustedChannelEstablished());
+    assertFalse(session.isPaceAuthenticated());
+    assertFalse(session.isTrustedChannelEstablished());
 
-    ApduResponse resp = paceService.processCommand(card, ga);
+    ApduResponse resp = paceService.processCommand(card, session, ga);
     assertEquals(0x9000, resp.getStatusWord());
-    assertTrue(paceService.isPaceAuthenticated());
-    assertTrue(paceService.isTrustedChannelEstablished());
+    assertTrue(session.isPaceAuthenticated());
+    assertTrue(session.isTrustedChannelEstablished());
   }
 
   @Test
   void testReset() {
     // Setze Zustand
-    paceService.reset();
-    assertFalse(paceService.isPaceAuthenticated());
-    assertFalse(paceService.isTrustedChannelEstablished());
+    session.setPaceAuthenticated(true);
+    session.setTrustedChannelEstablished(true);
+    session.getPaceContext().put("step", 2);
+    paceService.reset(session);
+    assertFalse(session.isPaceAuthenticated());
+    assertFalse(session.isTrustedChannelEstablished());
+    assertTrue(session.getPaceContext().isEmpty());
+  }
+
+  @Test
+  void testMutualAuth_OnlyAuthenticatesOwnSession() {
+    byte[] data = new byte[] {0x7C, 0x04, (byte) 0x8E, 0x02, 0x01, 0x02};
+    ApduCommand ga = mock(ApduCommand.class);
+    when(ga.getIns()).thenReturn((byte) 0x86);
+    when(ga.getData()).thenReturn(data);
+    CardSession otherSession = new CardSession();
+
+    paceService.processCommand(card, session, ga);
+
+    assertTrue(session.isPaceAuthenticated());
+    assertFalse(otherSession.isPaceAuthenticated());
+    assertFalse(otherSession.isTrustedChannelEstablished());
   }
 
   @Test
@@ -32,6 +32,7 @@ import de.gematik.ti20.simsvc.client.model.apdu.ApduResponse;
 import de.gematik.ti20.simsvc.client.model.card.CardImage;
 import de.gematik.ti20.simsvc.client.model.card.CardType;
 import de.gematik.ti20.simsvc.client.model.card.Key;
+import de.gematik.ti20.simsvc.client.service.CardSession;
 import java.security.KeyPair;
 import java.security.KeyPairGenerator;
 import java.util.Base64;
@@ -43,11 +44,13 @@ class SignatureProtocolServiceTest {
 
   private SignatureProtocolService service;
   private CardImage card;
+  private CardSession session;
 
   @BeforeEach
   void setUp() {
     service = new SignatureProtocolService();
     card = mock(CardImage.class);
+    session = new CardSession();
   }
 
   @Test
@@ -87,17 +90,31 @@ class SignatureProtocolServiceTest {
     when(mse.getIns()).thenReturn((byte) 0x22);
     when(mse.getData()).thenReturn(data);
 
-    ApduResponse resp = service.processCommand(card, mse);
+    ApduResponse resp = service.processCommand(card, session, mse);
     assertEquals(0x9000, resp.getStatusWord());
   }
 
+  @Test
+  void testProcessCommand_MseSetSignature_KeepsPaceEnvironment() {
+    session.getPaceEnvironment().put("83", new byte[] {0x03});
+    ApduCommand mse = mock(ApduCommand.class);
+    when(mse.getIns()).thenReturn((byte) 0x22);
+    when(mse.getData()).thenReturn(new byte[] {(byte) 0x84, 0x01, 0x01});
+
+    ApduResponse resp = service.processCommand(card, session, mse);
+
+    assertEquals(0x9000, resp.getStatusWord());
+    assertArrayEquals(new byte[] {0x01}, session.getSignatureEnvironment().get("84"));
+    assertArrayEquals(new byte[] {0x03}, session.getPaceEnvironment().get("83"));
+  }
+
   @Test
   void testProcessCommand_MseSetSignature_Invalid() {
     ApduCommand mse = mock(ApduCommand.class);
     when(mse.getIns()).thenReturn((byte) 0x22);
     when(mse.getData()).thenReturn(new byte[] {0x01, 0x02}); // zu kurz
 
-    ApduResponse resp = service.processCommand(card, mse);
+    ApduResponse resp = service.processCommand(card, session, mse);
     assertEquals(0x6A80, resp.getStatusWord());
   }
 
@@ -108,7 +125,7 @@ class SignatureProtocolServiceTest {
     ApduCommand mse = mock(ApduCommand.class);
     when(mse.getIns()).thenReturn((byte) 0x22);
     when(mse.getData()).thenReturn(mseData);
-    service.processCommand(card, mse);
+    service.processCommand(card, session, mse);
 
     // RSA Key generieren
     KeyPairGenerator kpg = KeyPairGenerator.getInstance("RSA");
@@ -130,7 +147,7 @@ class SignatureProtocolServiceTest {
     when(pso.getP2()).thenReturn((byte) 0x9A);
     when(pso.getData()).thenReturn(data);
 
-    ApduResponse resp = service.processCommand(card, pso);
+    ApduResponse resp = service.processCommand(card, session, pso);
     assertEquals(0x9000, resp.getStatusWord());
     assertNotNull(resp.getData());
     assertTrue(resp.getData().length > 0);
@@ -143,7 +160,7 @@ class SignatureProtocolServiceTest {
     ApduCommand mse = mock(ApduCommand.class);
     when(mse.getIns()).thenReturn((byte) 0x22);
     when(mse.getData()).thenReturn(mseData);
-    service.processCommand(card, mse);
+    service.processCommand(card, session, mse);
 
     // EC Key generieren
     KeyPairGenerator kpg = KeyPairGenerator.getInstance("EC");
@@ -165,7 +182,7 @@ class SignatureProtocolServiceTest {
     when(pso.getP2()).thenReturn((byte) 0x9A);
     when(pso.getData()).thenReturn(data);
 
-    ApduResponse resp = service.processCommand(card, pso);
+    ApduResponse resp = service.processCommand(card, session, pso);
     assertEquals(0x9000, resp.getStatusWord());
     assertNotNull(resp.getData());
     assertTrue(resp.getData().length > 0);
@@ -182,7 +199,7 @@ class SignatureProtocolServiceTest {
     when(pso.getP2()).thenReturn((byte) 0x9A);
     when(pso.getData()).thenReturn("test".getBytes());
 
-    ApduResponse resp = service.processCommand(card, pso);
+    ApduResponse resp = service.processCommand(card, session, pso);
     assertEquals(0x6985, resp.getStatusWord());
   }
 
@@ -195,7 +212,7 @@ class SignatureProtocolServiceTest {
     when(pso.getP2()).thenReturn((byte) 0x9A);
     when(pso.getData()).thenReturn("test".getBytes());
 
-    ApduResponse resp = service.processCommand(card, pso);
+    ApduResponse resp = service.processCommand(card, session, pso);
     assertEquals(0x6A81, resp.getStatusWord());
   }
 
@@ -206,7 +223,7 @@ class SignatureProtocolServiceTest {
     ApduCommand mse = mock(ApduCommand.class);
     when(mse.getIns()).thenReturn((byte) 0x22);
     when(mse.getData()).thenReturn(mseData);
-    service.processCommand(card, mse);
+    service.processCommand(card, session, mse);
 
     when(card.getCardType()).thenReturn(CardType.SMCB);
     when(card.getAllKeys()).thenReturn(Collections.emptyList());
@@ -217,7 +234,7 @@ class SignatureProtocolServiceTest {
     when(pso.getP2()).thenReturn((byte) 0x9A);
     when(pso.getData()).thenReturn("test".getBytes());
 
-    ApduResponse resp = service.processCommand(card, pso);
+    ApduResponse resp = service.processCommand(card, session, pso);
     assertEquals(0x6A88, resp.getStatusWord());
   }
 
@@ -228,9 +245,9 @@ class SignatureProtocolServiceTest {
     ApduCommand mse = mock(ApduCommand.class);
     when(mse.getIns()).thenReturn((byte) 0x22);
     when(mse.getData()).thenReturn(mseData);
-    service.processCommand(card, mse);
+    service.processCommand(card, session, mse);
 
-    service.reset();
+    service.reset(session);
     // Nach Reset sollte ein PSO:CDS fehlschlagen (nicht vorbereitet)
     when(card.getCardType()).thenReturn(CardType.SMCB);
     ApduCommand pso = mock(ApduCommand.class);
@@ -239,7 +256,7 @@ class SignatureProtocolServiceTest {
     when(pso.getP2()).thenReturn((byte) 0x9A);
     when(pso.getData()).thenReturn("test".getBytes());
 
-    ApduResponse resp = service.processCommand(card, pso);
+    ApduResponse resp = service.processCommand(card, session, pso);
     assertEquals(0x6985, resp.getStatusWord());
   }
 
@@ -0,0 +1,47 @@
+/*-
+ * #%L
+ * VSDM Client Simulator Service
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+
+package de.gematik.ti20.simsvc.client.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class BlockingIoConfig {
+
+  /**
+   * Threads for the card terminal calls, including the card fallback on a server error, and the mock
+   * PoPP token calls of the asynchronous read paths. These calls block, so they must not run on the
+   * event loop and coroutine threads that complete the futures of the PoPP and ZETA clients.
+   */
+  @Bean(destroyMethod = "shutdown")
+  public ExecutorService blockingIoExecutor(final VsdmClientConfig vsdmClientConfig) {
+    return Executors.newFixedThreadPool(
+        Math.max(1, vsdmClientConfig.getBlockingIoThreads()),
+        Thread.ofPlatform().name("blocking-io-", 0).daemon().factory());
+  }
+}
@@ -60,8 +60,10 @@ public class PoppConfig {
   }
 
   @Bean
-  public CardTerminalService getCardTerminalService() {
-    return new CardTerminalService(null);
+  public CardTerminalService getCardTerminalService(final VsdmClientConfig vsdmClientConfig) {
+    final CardTerminalService cardTerminalService = new CardTerminalService(null);
+    cardTerminalService.setAttachedCardsTtl(vsdmClientConfig.getAttachedCardsTtl());
+    return cardTerminalService;
   }
 
   @Bean
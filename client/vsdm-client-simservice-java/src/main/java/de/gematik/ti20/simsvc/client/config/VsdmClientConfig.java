@@ -24,6 +24,7 @@
  */
 package de.gematik.ti20.simsvc.client.config;
 
+import java.time.Duration;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
@@ -40,4 +41,65 @@ public class VsdmClientConfig {
 
   private boolean useMockPoppToken;
   private String poppTokenGeneratorUrl;
+
+  // attached cards are enumerated again after this time, zero asks the terminals on every read
+  private Duration attachedCardsTtl = Duration.ofSeconds(2);
+
+  // threads for the blocking card terminal and mock PoPP token calls of the async read paths
+  private int blockingIoThreads = 16;
+
+  private ZetaClient zetaClient = new ZetaClient();
+
+  private VsdCache vsdCache = new VsdCache();
+
+  private FhirValidation fhirValidation = new FhirValidation();
+
+  private Batch batch = new Batch();
+
+  @Getter
+  @Setter
+  public static class ZetaClient {
+
+    // number of long-lived ZetaHttpClient instances, requests are spread round-robin
+    private int poolSize = 1;
+
+    // requests in flight over all clients, 0 for no limit
+    private int maxConcurrentRequests = 64;
+
+    // clients are replaced after this time, so connections to the guard are renewed eventually
+    private Duration maxLifetime = Duration.ofMinutes(30);
+  }
+
+  @Getter
+  @Setter
+  public static class VsdCache {
+
+    // number of cards whose VSD is cached, the least recently read is dropped first
+    private int maxSize = 1000;
+
+    // time a cached VSD is served without asking the server, zero keeps it until it is dropped
+    private Duration ttl = Duration.ZERO;
+
+    // serve expired VSD right away and refresh it in the background with If-None-Match
+    private boolean staleWhileRevalidate;
+  }
+
+  @Getter
+  @Setter
+  public static class FhirValidation {
+
+    // share of VSD responses checked with the FHIR validator, from 0 (none) to 1 (all)
+    private double sampleRate;
+  }
+
+  @Getter
+  @Setter
+  public static class Batch {
+
+    // cards a single batch call may read
+    private int maxItems = 100;
+
+    // reads of one batch call running at the same time
+    private int maxParallelReads = 8;
+  }
 }
@@ -24,7 +24,11 @@
  */
 package de.gematik.ti20.simsvc.client.controller;
 
+import de.gematik.ti20.simsvc.client.service.VsdmBatchService;
 import de.gematik.ti20.simsvc.client.service.VsdmClientService;
+import de.gematik.ti20.simsvc.client.service.dto.VsdBatchRequest;
+import de.gematik.ti20.simsvc.client.service.dto.VsdBatchResponse;
+import java.util.concurrent.CompletableFuture;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -36,13 +40,21 @@ import org.springframework.web.bind.annotation.*;
 public class VsdmClientController {
 
   private final VsdmClientService vsdmClientService;
+  private final VsdmBatchService vsdmBatchService;
 
-  public VsdmClientController(@Autowired VsdmClientService vsdmClientService) {
+  public VsdmClientController(
+      @Autowired VsdmClientService vsdmClientService,
+      @Autowired VsdmBatchService vsdmBatchService) {
     this.vsdmClientService = vsdmClientService;
+    this.vsdmBatchService = vsdmBatchService;
   }
 
+  /**
+   * Served asynchronously: the servlet thread is released while the PoPP token and the VSD are
+   * requested, the response is written once the returned future completes.
+   */
   @GetMapping("/vsd")
-  public ResponseEntity<?> readVsd(
+  public CompletableFuture<ResponseEntity<String>> readVsd(
       @RequestParam final String terminalId,
       @RequestParam final int egkSlotId,
       @RequestParam final int smcBSlotId,
@@ -56,7 +68,17 @@ public class VsdmClientController {
         smcBSlotId,
         ifNoneMatch);
 
-    return vsdmClientService.read(
+    return vsdmClientService.readAsync(
         terminalId, egkSlotId, smcBSlotId, isFhirXml, poppToken, ifNoneMatch);
   }
+
+  /**
+   * Reads the VSD of several cards, e.g. a whole waiting room. Every card gets its own result with
+   * the status, ETag and body a single {@link #readVsd} call would have returned.
+   */
+  @PostMapping("/vsd/batch")
+  public CompletableFuture<VsdBatchResponse> readVsdBatch(
+      @RequestBody final VsdBatchRequest request) {
+    return vsdmBatchService.readBatch(request);
+  }
 }
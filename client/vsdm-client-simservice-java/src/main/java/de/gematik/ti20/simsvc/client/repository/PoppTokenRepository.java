@@ -24,8 +24,10 @@
  */
 package de.gematik.ti20.simsvc.client.repository;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Map;
-import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Repository;
@@ -34,27 +36,55 @@ import org.springframework.stereotype.Repository;
 @Slf4j
 public class PoppTokenRepository {
 
-  private final Map<Integer, String> cache = new ConcurrentHashMap<>();
+  // a PoPP token is accepted for three months after the patient proof
+  private static final Duration MAX_TOKEN_AGE = Duration.ofSeconds(3 * 30 * 24 * 60 * 60);
+
+  private final Map<CardKey, StoredPoppToken> cache = new ConcurrentHashMap<>();
   private final PoppTokenInspector poppTokenInspector = new PoppTokenInspector();
+  private final Clock clock;
+
+  public PoppTokenRepository() {
+    this(Clock.systemUTC());
+  }
 
+  PoppTokenRepository(final Clock clock) {
+    this.clock = clock;
+  }
+
+  /** The token is parsed once here, reads only compare the extracted expiry. */
   public void put(
       final String terminalId, final Integer slotId, final String cardId, final String poppToken) {
-    cache.put(Objects.hash(terminalId, slotId, cardId), poppToken);
+    final CardKey key = new CardKey(terminalId, slotId, cardId);
+    if (poppToken == null) {
+      cache.remove(key);
+      return;
+    }
+    final Long patientProofTime = poppTokenInspector.getPatientProofTime(poppToken);
+    final Instant expiresAt =
+        patientProofTime != null
+            ? Instant.ofEpochSecond(patientProofTime).plus(MAX_TOKEN_AGE)
+            : null;
+    cache.put(key, new StoredPoppToken(poppToken, patientProofTime, expiresAt));
   }
 
   public String get(final String terminalId, final Integer slotId, final String cardId) {
-    final String poppToken = cache.get(Objects.hash(terminalId, slotId, cardId));
-    if (poppToken != null && isExpired(poppToken)) {
-      cache.remove(Objects.hash(terminalId, slotId, cardId));
+    final CardKey key = new CardKey(terminalId, slotId, cardId);
+    final StoredPoppToken stored = cache.get(key);
+    if (stored == null) {
+      return null;
+    }
+    if (stored.isExpired(clock.instant())) {
+      cache.remove(key, stored);
       return null; // Token is expired, remove it from cache
     }
 
-    return poppToken;
+    return stored.token();
   }
 
-  private boolean isExpired(String poppToken) {
-    final Long patientProofTime = poppTokenInspector.getPatientProofTime(poppToken);
-    return patientProofTime != null
-        && System.currentTimeMillis() / 1000 - patientProofTime > (3 * 30 * 24 * 60 * 60);
+  private record StoredPoppToken(String token, Long patientProofTime, Instant expiresAt) {
+
+    private boolean isExpired(final Instant now) {
+      return expiresAt != null && now.isAfter(expiresAt);
+    }
   }
 }
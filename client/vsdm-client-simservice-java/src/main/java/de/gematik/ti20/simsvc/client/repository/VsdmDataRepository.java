@@ -24,34 +24,107 @@
  */
 package de.gematik.ti20.simsvc.client.repository;
 
+import de.gematik.ti20.simsvc.client.config.VsdmClientConfig;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.Objects;
-import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+/**
+ * VSD per card, bounded in size. Entries older than the configured TTL are dropped, or, with
+ * stale-while-revalidate, still returned but marked as stale so the caller can refresh them.
+ */
 @Repository
 public class VsdmDataRepository {
 
-  private final Map<Integer, VsdmCachedValue> cache = new ConcurrentHashMap<>();
+  /** A cached value and whether it has outlived the TTL. */
+  public record Lookup(VsdmCachedValue value, boolean stale) {}
+
+  private record Entry(VsdmCachedValue value, Instant storedAt) {}
+
+  private final int maxSize;
+  private final Duration ttl;
+  private final boolean staleWhileRevalidate;
+  private final Clock clock;
+
+  // guarded by itself, access order so the least recently read card is dropped first
+  private final LinkedHashMap<CardKey, Entry> cache;
+
+  public VsdmDataRepository() {
+    this(new VsdmClientConfig.VsdCache(), Clock.systemUTC());
+  }
+
+  @Autowired
+  public VsdmDataRepository(final VsdmClientConfig vsdmClientConfig) {
+    this(vsdmClientConfig.getVsdCache(), Clock.systemUTC());
+  }
+
+  VsdmDataRepository(final VsdmClientConfig.VsdCache config, final Clock clock) {
+    this.maxSize = config.getMaxSize();
+    this.ttl = config.getTtl();
+    this.staleWhileRevalidate = config.isStaleWhileRevalidate();
+    this.clock = clock;
+    this.cache =
+        new LinkedHashMap<>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(final Map.Entry<CardKey, Entry> eldest) {
+            return size() > maxSize;
+          }
+        };
+  }
 
   public void put(
       final String terminalId,
       final Integer slotId,
       final String cardId,
       final VsdmCachedValue value) {
-    if (value == null) {
-      cache.remove(Objects.hash(terminalId, slotId, cardId));
-    } else {
-      cache.put(Objects.hash(terminalId, slotId, cardId), value);
+    final CardKey key = new CardKey(terminalId, slotId, cardId);
+    synchronized (cache) {
+      if (value == null || maxSize <= 0) {
+        cache.remove(key);
+      } else {
+        cache.put(key, new Entry(value, clock.instant()));
+      }
     }
   }
 
   public VsdmCachedValue get(final String terminalId, final Integer slotId, final String cardId) {
-    return cache.get(Objects.hash(terminalId, slotId, cardId));
+    final Lookup lookup = lookup(terminalId, slotId, cardId);
+    return lookup != null ? lookup.value() : null;
+  }
+
+  /** The cached value of the card, null if there is none or it expired without revalidation. */
+  public Lookup lookup(final String terminalId, final Integer slotId, final String cardId) {
+    final CardKey key = new CardKey(terminalId, slotId, cardId);
+    synchronized (cache) {
+      final Entry entry = cache.get(key);
+      if (entry == null) {
+        return null;
+      }
+      final boolean stale = isExpired(entry);
+      if (stale && !staleWhileRevalidate) {
+        cache.remove(key);
+        return null;
+      }
+      return new Lookup(entry.value(), stale);
+    }
+  }
+
+  public boolean isStaleWhileRevalidate() {
+    return staleWhileRevalidate;
   }
 
   /** Remove all cached data. */
   public void clear() {
-    cache.clear();
+    synchronized (cache) {
+      cache.clear();
+    }
+  }
+
+  private boolean isExpired(final Entry entry) {
+    return !ttl.isZero() && !entry.storedAt().plus(ttl).isAfter(clock.instant());
   }
 }
@@ -25,19 +25,37 @@
 package de.gematik.ti20.simsvc.client.service;
 
 import ca.uhn.fhir.validation.ValidationResult;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import de.gematik.bbriccs.fhir.EncodingType;
 import de.gematik.ti20.vsdm.fhir.service.CodecServiceR4;
 import jakarta.servlet.http.HttpServletRequest;
-import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Arrays;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import lombok.extern.slf4j.Slf4j;
 import org.hl7.fhir.r4.model.Resource;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
+@Slf4j
 @Service
 public class FhirService extends CodecServiceR4 {
 
+  private static final String FHIR_NAMESPACE = "http://hl7.org/fhir";
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+  private static final XMLInputFactory XML_INPUT_FACTORY = createXmlInputFactory();
+
+  // upper bound for the buffer allocated up front, larger bodies grow the buffer while reading
+  private static final int MAX_INITIAL_BUFFER = 1024 * 1024;
+
   public Resource parsePostRequest(final HttpServletRequest request) {
     return parseString(getBodyString(request), request.getHeader("content-type"));
   }
@@ -54,28 +72,94 @@ public class FhirService extends CodecServiceR4 {
 
   public <T extends Resource> T parseString(String body, String contentType, Class<T> cls) {
     validate(body);
+    return decode(body, contentType, cls);
+  }
+
+  /** Decode the body without running the validator. */
+  public <T extends Resource> T decode(String body, String contentType, Class<T> cls) {
     return codec.decode(cls, body, EncodingType.fromString(contentType));
   }
 
+  /**
+   * Check that the body is a well-formed FHIR Bundle in the given encoding, without decoding it
+   * into a resource or validating it against any profile.
+   */
+  public boolean isBundle(final String body, final EncodingType encoding) {
+    return encoding == EncodingType.XML ? isXmlBundle(body) : isJsonBundle(body);
+  }
+
+  private boolean isJsonBundle(final String body) {
+    try {
+      final JsonNode root = MAPPER.readTree(body);
+      return root != null && root.isObject() && "Bundle".equals(root.path("resourceType").asText());
+    } catch (JsonProcessingException e) {
+      log.debug("Body is no well-formed JSON: {}", e.getMessage());
+      return false;
+    }
+  }
+
+  private boolean isXmlBundle(final String body) {
+    XMLStreamReader reader = null;
+    try {
+      reader = XML_INPUT_FACTORY.createXMLStreamReader(new StringReader(body));
+      reader.nextTag();
+      if (!"Bundle".equals(reader.getLocalName())
+          || !FHIR_NAMESPACE.equals(reader.getNamespaceURI())) {
+        return false;
+      }
+      // read up to the end, so the whole document is checked for well-formedness
+      while (reader.hasNext()) {
+        reader.next();
+      }
+      return true;
+    } catch (XMLStreamException e) {
+      log.debug("Body is no well-formed XML: {}", e.getMessage());
+      return false;
+    } finally {
+      if (reader != null) {
+        try {
+          reader.close();
+        } catch (XMLStreamException e) {
+          log.debug("Could not close XML reader: {}", e.getMessage());
+        }
+      }
+    }
+  }
+
+  private static XMLInputFactory createXmlInputFactory() {
+    final XMLInputFactory factory = XMLInputFactory.newFactory();
+    factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    return factory;
+  }
+
   protected String getBodyString(HttpServletRequest request) {
-    final StringBuilder requestBody = new StringBuilder();
-    try (BufferedReader reader = request.getReader()) {
-      String line;
-      while ((line = reader.readLine()) != null) {
-        requestBody.append(line);
+    final int contentLength = request.getContentLength();
+    // the content length counts bytes, which is an upper bound for the number of chars. One extra
+    // char lets the final read detect the end of the body without growing the buffer.
+    char[] buffer =
+        new char[contentLength > 0 ? Math.min(contentLength, MAX_INITIAL_BUFFER) + 1 : 1024];
+    int length = 0;
+    try (Reader reader = request.getReader()) {
+      int read;
+      while ((read = reader.read(buffer, length, buffer.length - length)) != -1) {
+        length += read;
+        if (length == buffer.length) {
+          buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
       }
     } catch (IOException e) {
       throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Error reading request body");
     }
 
-    return requestBody.toString();
+    return new String(buffer, 0, length);
   }
 
   public void validate(final String body) {
     ValidationResult result = codec.validate(body);
-    result.getMessages().forEach(System.out::println);
+    result.getMessages().forEach(message -> log.debug("FHIR validation: {}", message));
 
-    if (!codec.isValid(body)) {
+    if (!result.isSuccessful()) {
       throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid FHIR resource: " + body);
     }
   }
@@ -28,9 +28,11 @@ import de.gematik.ti20.client.card.card.AttachedCard;
 import de.gematik.ti20.simsvc.client.config.PoppClientConfig;
 import de.gematik.ti20.simsvc.client.service.dto.PoppClientRequest;
 import de.gematik.ti20.simsvc.client.service.dto.PoppClientResponse;
+import java.util.concurrent.CompletableFuture;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.MediaType;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 
 @Slf4j
 public class PoppClientAdapter {
@@ -45,6 +47,15 @@ public class PoppClientAdapter {
   }
 
   public String getPoppToken(final AttachedCard attachedCard) {
+    return requestPoppToken(attachedCard).block();
+  }
+
+  /** Same as {@link #getPoppToken(AttachedCard)}, without blocking the calling thread. */
+  public CompletableFuture<String> getPoppTokenAsync(final AttachedCard attachedCard) {
+    return requestPoppToken(attachedCard).toFuture();
+  }
+
+  private Mono<String> requestPoppToken(final AttachedCard attachedCard) {
     log.info(
         "============ Starting PoPP token session for card with tokentype={} and URL={}",
         poppClientConfig.getTokenType(),
@@ -52,18 +63,19 @@ public class PoppClientAdapter {
     PoppClientRequest poppRequestPayload =
         new PoppClientRequest(poppClientConfig.getTokenType().getType(), null);
 
-    PoppClientResponse response =
-        webClient
-            .post()
-            .uri(poppClientConfig.getUrlPoppServerHttp(attachedCard))
-            .contentType(MediaType.APPLICATION_JSON)
-            .bodyValue(poppRequestPayload)
-            .retrieve()
-            .bodyToMono(PoppClientResponse.class)
-            .block();
-
-    log.info("Successfully retrieved PoPP token: {}", response.token());
-
-    return response.token();
+    return webClient
+        .post()
+        .uri(poppClientConfig.getUrlPoppServerHttp(attachedCard))
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue(poppRequestPayload)
+        .retrieve()
+        .bodyToMono(PoppClientResponse.class)
+        .switchIfEmpty(
+            Mono.error(() -> new IllegalStateException("PoPP service returned no token response")))
+        .map(
+            response -> {
+              log.info("Successfully retrieved PoPP token: {}", response.token());
+              return response.token();
+            });
   }
 }
@@ -28,7 +28,6 @@ import de.gematik.ti20.simsvc.client.util.DpopHelper;
 import de.gematik.ti20.simsvc.client.util.StorageInterceptor;
 import java.security.MessageDigest;
 import java.util.Base64;
-import java.util.Set;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -38,20 +37,19 @@ import org.springframework.stereotype.Service;
 public class TestService {
   private final StorageInterceptor storageInterceptor;
 
+  // signer for the DPoP key pair currently held by the SDK, replaced when the keys change
+  private volatile CachedSigner cachedSigner;
+
+  private record CachedSigner(
+      String publicKeyPem, String privateKeyPem, DpopHelper.Signer signer) {}
+
   @Autowired
   public TestService(StorageInterceptor storageInterceptor) {
     this.storageInterceptor = storageInterceptor;
   }
 
   public String getAccessToken() {
-    String at = "";
-    final Set<String> key = storageInterceptor.getCache().keySet();
-    for (final String keyValue : key) {
-      if (keyValue.startsWith("at:")) {
-        at = storageInterceptor.getCache().get(keyValue);
-      }
-    }
-    return at;
+    return storageInterceptor.getAccessToken();
   }
 
   public String getDpopToken(final String htm, final String htu) throws Exception {
@@ -61,10 +59,20 @@ public class TestService {
     byte[] hash = digest.digest();
     final String ath = Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
 
-    final String dpopPublicKey = storageInterceptor.getCache().getOrDefault("dpop_public_key", "");
-    final String dpopPrivateKey =
-        storageInterceptor.getCache().getOrDefault("dpop_private_key", "");
+    return dpopSigner().sign(htm, htu, ath);
+  }
 
-    return DpopHelper.createDpop(dpopPublicKey, dpopPrivateKey, htm, htu, ath);
+  private DpopHelper.Signer dpopSigner() throws DpopHelper.DpopException {
+    final String publicKeyPem = storageInterceptor.getDpopPublicKey();
+    final String privateKeyPem = storageInterceptor.getDpopPrivateKey();
+    final CachedSigner cached = cachedSigner;
+    if (cached != null
+        && cached.publicKeyPem().equals(publicKeyPem)
+        && cached.privateKeyPem().equals(privateKeyPem)) {
+      return cached.signer();
+    }
+    final DpopHelper.Signer signer = new DpopHelper.Signer(publicKeyPem, privateKeyPem);
+    cachedSigner = new CachedSigner(publicKeyPem, privateKeyPem, signer);
+    return signer;
   }
 }
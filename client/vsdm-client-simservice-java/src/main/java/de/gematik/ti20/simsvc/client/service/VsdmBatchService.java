@@ -0,0 +1,229 @@
+/*-
+ * #%L
+ * VSDM Client Simulator Service
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.ti20.simsvc.client.service;
+
+import de.gematik.ti20.simsvc.client.config.VsdmClientConfig;
+import de.gematik.ti20.simsvc.client.service.dto.VsdBatchRequest;
+import de.gematik.ti20.simsvc.client.service.dto.VsdBatchResponse;
+import de.gematik.ti20.simsvc.client.service.dto.VsdBatchResult;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Reads the VSD of several cards for one call. At most {@code vsdm.batch.max-parallel-reads} reads
+ * run at a time, each finished read starts the next one. All reads share the pooled ZETA clients of
+ * {@link ZetaSdkClientAdapter} and the given SMC-B slot.
+ *
+ * <p>Reads are started on the blocking I/O executor: a finished read completes on a thread of the
+ * PoPP or ZETA client, and starting a read looks up the card at the terminal.
+ */
+@Slf4j
+@Service
+public class VsdmBatchService {
+
+  private final VsdmClientService vsdmClientService;
+  private final VsdmClientConfig vsdmClientConfig;
+  private final ExecutorService blockingIoExecutor;
+
+  public VsdmBatchService(
+      final VsdmClientService vsdmClientService,
+      final VsdmClientConfig vsdmClientConfig,
+      final ExecutorService blockingIoExecutor) {
+    this.vsdmClientService = vsdmClientService;
+    this.vsdmClientConfig = vsdmClientConfig;
+    this.blockingIoExecutor = blockingIoExecutor;
+  }
+
+  public CompletableFuture<VsdBatchResponse> readBatch(final VsdBatchRequest request) {
+    validate(request);
+    final List<VsdBatchRequest.Item> items = request.items();
+    log.info(
+        "readBatch initiated for {} cards, smcBSlotId = {}", items.size(), request.smcBSlotId());
+
+    final Batch batch = new Batch(request, MDC.getCopyOfContextMap());
+    final int parallelReads =
+        Math.min(items.size(), Math.max(1, vsdmClientConfig.getBatch().getMaxParallelReads()));
+    for (int i = 0; i < parallelReads; i++) {
+      readNext(batch);
+    }
+    return batch.done;
+  }
+
+  private void validate(final VsdBatchRequest request) {
+    if (request == null || request.items() == null || request.items().isEmpty()) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No cards to read");
+    }
+    final int maxItems = vsdmClientConfig.getBatch().getMaxItems();
+    if (request.items().size() > maxItems) {
+      throw new ResponseStatusException(
+          HttpStatus.BAD_REQUEST, "At most " + maxItems + " cards can be read at once");
+    }
+    if (request.smcBSlotId() == null) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "smcBSlotId is required");
+    }
+    for (final VsdBatchRequest.Item item : request.items()) {
+      if (item == null || item.terminalId() == null || item.egkSlotId() == null) {
+        throw new ResponseStatusException(
+            HttpStatus.BAD_REQUEST, "Every card needs a terminalId and an egkSlotId");
+      }
+    }
+  }
+
+  private void readNext(final Batch batch) {
+    final int index = batch.next.getAndIncrement();
+    if (index >= batch.results.length) {
+      return;
+    }
+    final VsdBatchRequest.Item item = batch.request.items().get(index);
+    read(batch, item)
+        .whenComplete(
+            (result, failure) -> {
+              // every read must be counted, otherwise the batch never completes
+              try {
+                batch.results[index] = failure == null ? result : failedResult(item, failure);
+                if (batch.remaining.decrementAndGet() == 0) {
+                  batch.done.complete(new VsdBatchResponse(Arrays.asList(batch.results)));
+                } else {
+                  readNext(batch);
+                }
+              } catch (final RuntimeException e) {
+                batch.done.completeExceptionally(e);
+              }
+            });
+  }
+
+  private CompletableFuture<VsdBatchResult> read(
+      final Batch batch, final VsdBatchRequest.Item item) {
+    return CompletableFuture.supplyAsync(
+            () -> {
+              setMdc(batch.mdc);
+              try {
+                return vsdmClientService.readAsync(
+                    item.terminalId(),
+                    item.egkSlotId(),
+                    batch.request.smcBSlotId(),
+                    batch.request.isFhirXml(),
+                    null,
+                    item.ifNoneMatch());
+              } finally {
+                MDC.clear();
+              }
+            },
+            blockingIoExecutor)
+        .thenCompose(Function.identity())
+        .handle(
+            (entity, failure) ->
+                failure == null ? toResult(item, entity) : toResult(item, failure));
+  }
+
+  private static VsdBatchResult toResult(
+      final VsdBatchRequest.Item item, final ResponseEntity<String> entity) {
+    return new VsdBatchResult(
+        item.terminalId(),
+        item.egkSlotId(),
+        entity.getStatusCode().value(),
+        entity.getHeaders().getFirst(VsdmClientService.HEADER_ETAG),
+        entity.getHeaders().getFirst(VsdmClientService.HEADER_VSDM_PZ),
+        entity.getBody(),
+        null);
+  }
+
+  private static VsdBatchResult toResult(
+      final VsdBatchRequest.Item item, final Throwable failure) {
+    final RuntimeException cause = ZetaSdkClientAdapter.unwrap(failure);
+    if (cause instanceof ResponseStatusException e) {
+      return new VsdBatchResult(
+          item.terminalId(),
+          item.egkSlotId(),
+          e.getStatusCode().value(),
+          null,
+          null,
+          null,
+          e.getReason());
+    }
+    log.error(
+        "Reading VSD of terminal {}, slot {} failed", item.terminalId(), item.egkSlotId(), cause);
+    return new VsdBatchResult(
+        item.terminalId(),
+        item.egkSlotId(),
+        HttpStatus.INTERNAL_SERVER_ERROR.value(),
+        null,
+        null,
+        null,
+        cause.getMessage());
+  }
+
+  private static VsdBatchResult failedResult(
+      final VsdBatchRequest.Item item, final Throwable failure) {
+    log.error(
+        "Processing VSD of terminal {}, slot {} failed",
+        item.terminalId(),
+        item.egkSlotId(),
+        failure);
+    return new VsdBatchResult(
+        item.terminalId(),
+        item.egkSlotId(),
+        HttpStatus.INTERNAL_SERVER_ERROR.value(),
+        null,
+        null,
+        null,
+        failure.getMessage());
+  }
+
+  private static void setMdc(final Map<String, String> mdc) {
+    if (mdc != null) {
+      MDC.setContextMap(mdc);
+    } else {
+      MDC.clear();
+    }
+  }
+
+  private static final class Batch {
+    private final VsdBatchRequest request;
+    private final Map<String, String> mdc;
+    private final VsdBatchResult[] results;
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicInteger remaining;
+    private final CompletableFuture<VsdBatchResponse> done = new CompletableFuture<>();
+
+    private Batch(final VsdBatchRequest request, final Map<String, String> mdc) {
+      this.request = request;
+      this.mdc = mdc;
+      this.results = new VsdBatchResult[request.items().size()];
+      this.remaining = new AtomicInteger(results.length);
+    }
+  }
+}
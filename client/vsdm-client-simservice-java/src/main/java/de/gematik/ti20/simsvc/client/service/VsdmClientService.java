@@ -34,6 +34,7 @@ import de.gematik.ti20.client.card.terminal.CardTerminalService;
 import de.gematik.ti20.client.card.terminal.simsvc.EgkInfo;
 import de.gematik.ti20.client.card.terminal.simsvc.SimulatorAttachedCard;
 import de.gematik.ti20.simsvc.client.config.VsdmClientConfig;
+import de.gematik.ti20.simsvc.client.repository.CardKey;
 import de.gematik.ti20.simsvc.client.repository.PoppTokenRepository;
 import de.gematik.ti20.simsvc.client.repository.VsdmCachedValue;
 import de.gematik.ti20.simsvc.client.repository.VsdmDataRepository;
@@ -44,9 +45,20 @@ import io.ktor.client.plugins.ClientRequestException;
 import io.ktor.client.plugins.ServerResponseException;
 import java.net.HttpURLConnection;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
@@ -64,6 +76,8 @@ public class VsdmClientService {
   public static final String HEADER_VSDM_PZ = "vsdm-pz";
   public static final String HEADER_ETAG = "etag";
 
+  private static final String VSDM_BUNDLE_PATH = "vsdservice/v1/vsdmbundle";
+
   private final PoppClientAdapter poppClientAdapter;
   private final VsdmClientConfig vsdmClientConfig;
   private final CardTerminalService cardTerminalService;
@@ -72,6 +86,21 @@ public class VsdmClientService {
   private final PoppTokenRepository poppTokenRepository;
   private final VsdmDataRepository vsdmDataRepository;
   private final ZetaSdkClientAdapter vsdmZetaClient;
+  private final ExecutorService blockingIoExecutor;
+
+  // cards whose cached VSD is currently refreshed in the background
+  private final Set<CardKey> revalidations = ConcurrentHashMap.newKeySet();
+
+  // PoPP token sessions currently running, at most one per card
+  private final Map<CardKey, CompletableFuture<String>> poppTokenSessions =
+      new ConcurrentHashMap<>();
+
+  // attached cards by terminal and slot, built from the card list the terminal service caches
+  private volatile SlotIndex slotIndex;
+
+  private record SlotKey(String terminalId, Integer slotId) {}
+
+  private record SlotIndex(List<? extends AttachedCard> cards, Map<SlotKey, AttachedCard> bySlot) {}
 
   @Getter private List<CardTerminalConnectionConfig> terminalConnectionConfigs;
 
@@ -85,7 +114,8 @@ public class VsdmClientService {
       final FhirService fhirService,
       final PoppTokenRepository poppTokenRepository,
       final VsdmDataRepository vsdmDataRepository,
-      final ZetaSdkClientAdapter vsdmZetaClient) {
+      final ZetaSdkClientAdapter vsdmZetaClient,
+      final ExecutorService blockingIoExecutor) {
 
     this.vsdmClientConfig = vsdmClientConfig;
 
@@ -100,6 +130,7 @@ public class VsdmClientService {
 
     this.terminalConnectionConfigs = new ArrayList<>();
     this.vsdmZetaClient = vsdmZetaClient;
+    this.blockingIoExecutor = blockingIoExecutor;
   }
 
   public ResponseEntity<String> read(
@@ -138,11 +169,67 @@ public class VsdmClientService {
     return vsd;
   }
 
+  /**
+   * Same as {@link #read}, but the network round-trips to the PoPP service and the VSDM server do
+   * not block the calling thread. Only looking up the attached card is done before returning.
+   */
+  public CompletableFuture<ResponseEntity<String>> readAsync(
+      final String terminalId,
+      final int egkSlotId,
+      final int smcbSlotId,
+      final boolean isFhirXml,
+      final String poppTokenInjected,
+      final String ifNoneMatch) {
+    log.info(
+        "readAsync initiated with terminalId = {}, egkSlotId={}, smcBSlotId = {}, if-none-match={}, poppTokenInjected={}",
+        terminalId,
+        egkSlotId,
+        smcbSlotId,
+        ifNoneMatch,
+        poppTokenInjected != null);
+
+    final Map<String, String> mdc = MDC.getCopyOfContextMap();
+    final AttachedCard attachedCard =
+        Strings.isNullOrEmpty(poppTokenInjected) ? getAttachedCard(terminalId, egkSlotId) : null;
+
+    final CompletableFuture<String> poppToken =
+        poppTokenInjected != null
+            ? CompletableFuture.completedFuture(poppTokenInjected)
+            : requestPoppTokenAsync(terminalId, egkSlotId, smcbSlotId, attachedCard);
+
+    return poppToken.thenCompose(
+        withMdc(
+            mdc,
+            token -> {
+              log.debug("Received PoPP token: {}", token);
+              return requestVsdAsync(
+                  terminalId, egkSlotId, attachedCard, token, ifNoneMatch, isFhirXml, mdc);
+            }));
+  }
+
   public AttachedCard getAttachedCard(final String terminalId, final Integer slotId) {
     log.debug("Getting attached card for terminal ID: {}, slot ID: {}", terminalId, slotId);
 
-    List<? extends AttachedCard> cards = null;
+    final SlotKey key = new SlotKey(terminalId, slotId);
+    AttachedCard attachedCard = slotIndex().get(key);
+    if (attachedCard == null) {
+      // the card may have been inserted since the terminals were last asked
+      cardTerminalService.invalidateAttachedCards();
+      attachedCard = slotIndex().get(key);
+    }
+    if (attachedCard == null) {
+      throw new ResponseStatusException(
+          HttpStatus.NOT_FOUND, "No card found in terminal " + terminalId + ", slot " + slotId);
+    }
+
+    log.debug("Using card with ID: {}", attachedCard.getId());
+
+    return attachedCard;
+  }
 
+  /** The attached cards by terminal and slot, only rebuilt when the terminals were enumerated. */
+  private Map<SlotKey, AttachedCard> slotIndex() {
+    final List<? extends AttachedCard> cards;
     try {
       cards = cardTerminalService.getAttachedCards();
     } catch (final Exception e) {
@@ -150,21 +237,62 @@ public class VsdmClientService {
       throw new ResponseStatusException(HttpURLConnection.HTTP_INTERNAL_ERROR, e.getMessage(), e);
     }
 
-    final AttachedCard attachedCard =
-        cards.stream()
-            .filter(card -> ((SimulatorAttachedCard) card).getSlotId().equals(slotId))
-            .findFirst()
-            .orElseThrow(
-                () ->
-                    new ResponseStatusException(
-                        HttpStatus.NOT_FOUND, "No card found in slot " + slotId));
+    final SlotIndex index = slotIndex;
+    if (index != null && index.cards() == cards) {
+      return index.bySlot();
+    }
+    final Map<SlotKey, AttachedCard> bySlot = new HashMap<>();
+    for (final AttachedCard card : cards) {
+      final SlotKey key =
+          new SlotKey(card.getTerminal().getName(), ((SimulatorAttachedCard) card).getSlotId());
+      if (bySlot.putIfAbsent(key, card) != null) {
+        log.warn("Ignoring card {}, slot {} already holds another card", card.getId(), key);
+      }
+    }
+    slotIndex = new SlotIndex(cards, bySlot);
+    return bySlot;
+  }
 
-    log.debug("Using card with ID: {}", attachedCard.getId());
+  protected String requestPoppToken(
+      final String terminalId,
+      final int egkSlotId,
+      final int smcbSlotId,
+      final AttachedCard attachedCard) {
+    log.info("Requesting PoPP token for attached card: {}", attachedCard.getId());
 
-    return attachedCard;
+    if (vsdmClientConfig.isUseMockPoppToken()) {
+      return mockPoppToken(terminalId, egkSlotId, attachedCard);
+    }
+
+    final String poppTokenFromRepository = storedPoppToken(terminalId, egkSlotId, attachedCard);
+    if (poppTokenFromRepository != null) {
+      return poppTokenFromRepository;
+    }
+
+    final CompletableFuture<String> poppToken =
+        singleFlight(
+            terminalId,
+            egkSlotId,
+            attachedCard,
+            () -> {
+              try {
+                final String poppTokenFromService = poppClientAdapter.getPoppToken(attachedCard);
+                log.debug("Received PoPP token from popp service: {}", poppTokenFromService);
+                poppTokenRepository.put(
+                    terminalId, egkSlotId, attachedCard.getId(), poppTokenFromService);
+                return CompletableFuture.completedFuture(poppTokenFromService);
+              } catch (final Exception e) {
+                return CompletableFuture.failedFuture(poppTokenFailure(attachedCard, e));
+              }
+            });
+    try {
+      return poppToken.join();
+    } catch (final CompletionException e) {
+      throw ZetaSdkClientAdapter.unwrap(e);
+    }
   }
 
-  protected String requestPoppToken(
+  protected CompletableFuture<String> requestPoppTokenAsync(
       final String terminalId,
       final int egkSlotId,
       final int smcbSlotId,
@@ -172,33 +300,107 @@ public class VsdmClientService {
     log.info("Requesting PoPP token for attached card: {}", attachedCard.getId());
 
     if (vsdmClientConfig.isUseMockPoppToken()) {
-      log.info("Load mocked PoPP token");
-      final String mockPoppToken = loadMockPoppToken(vsdmClientConfig, attachedCard);
-      poppTokenRepository.put(terminalId, egkSlotId, attachedCard.getId(), mockPoppToken);
-      return mockPoppToken;
+      // reads the card and calls the token generator, both block
+      return CompletableFuture.supplyAsync(
+          withMdc(
+              MDC.getCopyOfContextMap(), () -> mockPoppToken(terminalId, egkSlotId, attachedCard)),
+          blockingIoExecutor);
     }
 
+    final String poppTokenFromRepository = storedPoppToken(terminalId, egkSlotId, attachedCard);
+    if (poppTokenFromRepository != null) {
+      return CompletableFuture.completedFuture(poppTokenFromRepository);
+    }
+
+    final Map<String, String> mdc = MDC.getCopyOfContextMap();
+    return singleFlight(
+        terminalId,
+        egkSlotId,
+        attachedCard,
+        () ->
+            poppClientAdapter
+                .getPoppTokenAsync(attachedCard)
+                .handle(
+                    withMdc(
+                        mdc,
+                        (poppTokenFromService, failure) -> {
+                          if (failure != null) {
+                            throw poppTokenFailure(
+                                attachedCard, ZetaSdkClientAdapter.unwrap(failure));
+                          }
+                          log.debug(
+                              "Received PoPP token from popp service: {}", poppTokenFromService);
+                          poppTokenRepository.put(
+                              terminalId, egkSlotId, attachedCard.getId(), poppTokenFromService);
+                          return poppTokenFromService;
+                        })));
+  }
+
+  /**
+   * Starts a PoPP token session for the card unless one is already running, in which case the
+   * caller waits for the token of the running session. A session is an expensive round-trip
+   * involving the card, concurrent reads of the same card should not start one each.
+   */
+  private CompletableFuture<String> singleFlight(
+      final String terminalId,
+      final int egkSlotId,
+      final AttachedCard attachedCard,
+      final Supplier<CompletableFuture<String>> fetch) {
+    final CardKey key = new CardKey(terminalId, egkSlotId, attachedCard.getId());
+    final CompletableFuture<String> created = new CompletableFuture<>();
+    final CompletableFuture<String> running = poppTokenSessions.putIfAbsent(key, created);
+    if (running != null) {
+      log.debug("Waiting for running PoPP token session of card {}", attachedCard.getId());
+      return running;
+    }
+
+    CompletableFuture<String> session;
+    try {
+      session = fetch.get();
+    } catch (final RuntimeException e) {
+      session = CompletableFuture.failedFuture(e);
+    }
+    session.whenComplete(
+        (poppToken, failure) -> {
+          // later callers find the token in the repository
+          poppTokenSessions.remove(key, created);
+          if (failure != null) {
+            created.completeExceptionally(ZetaSdkClientAdapter.unwrap(failure));
+          } else {
+            created.complete(poppToken);
+          }
+        });
+    return created;
+  }
+
+  /** The mocked PoPP token, the PoPP service is never contacted in mock mode. */
+  private String mockPoppToken(
+      final String terminalId, final int egkSlotId, final AttachedCard attachedCard) {
+    log.info("Load mocked PoPP token");
+    final String mockPoppToken = loadMockPoppToken(vsdmClientConfig, attachedCard);
+    poppTokenRepository.put(terminalId, egkSlotId, attachedCard.getId(), mockPoppToken);
+    return mockPoppToken;
+  }
+
+  /** The PoPP token already in the repository, null if one must be fetched. */
+  private String storedPoppToken(
+      final String terminalId, final int egkSlotId, final AttachedCard attachedCard) {
     final String poppTokenFromRepository =
         poppTokenRepository.get(terminalId, egkSlotId, attachedCard.getId());
 
     if (poppTokenFromRepository != null) {
       log.debug("PoPP token found in repository: {}", poppTokenFromRepository);
-      return poppTokenFromRepository;
     }
+    return poppTokenFromRepository;
+  }
 
-    try {
-      final String poppTokenFromService = poppClientAdapter.getPoppToken(attachedCard);
-      log.debug("Received PoPP token from popp service: {}", poppTokenFromService);
-      poppTokenRepository.put(terminalId, egkSlotId, attachedCard.getId(), poppTokenFromService);
-
-      return poppTokenFromService;
-    } catch (final Exception e) {
-      log.error(
-          "Error on waiting for completing of PoppTokenSession with card {} ",
-          attachedCard.getId(),
-          e);
-      throw new ResponseStatusException(HttpURLConnection.HTTP_INTERNAL_ERROR, e.getMessage(), e);
-    }
+  private ResponseStatusException poppTokenFailure(
+      final AttachedCard attachedCard, final Exception e) {
+    log.error(
+        "Error on waiting for completing of PoppTokenSession with card {} ",
+        attachedCard.getId(),
+        e);
+    return new ResponseStatusException(HttpURLConnection.HTTP_INTERNAL_ERROR, e.getMessage(), e);
   }
 
   protected ResponseEntity<String> requestVsd(
@@ -209,16 +411,10 @@ public class VsdmClientService {
       final String ifNoneMatch,
       final boolean isFhirXml) {
 
-    if (attachedCard != null) {
-      final VsdmCachedValue vsdmCachedValue =
-          vsdmDataRepository.get(terminal, egkSlotId, attachedCard.getId());
-
-      if (vsdmCachedValue != null) {
-        return ResponseEntity.status(HttpStatus.OK)
-            .header(HEADER_VSDM_PZ, vsdmCachedValue.pruefziffer())
-            .header(HEADER_ETAG, vsdmCachedValue.etag())
-            .body(vsdmCachedValue.vsdmData());
-      }
+    final ResponseEntity<String> cachedVsd =
+        cachedVsd(terminal, egkSlotId, attachedCard, poppToken, isFhirXml);
+    if (cachedVsd != null) {
+      return cachedVsd;
     }
 
     try {
@@ -226,47 +422,186 @@ public class VsdmClientService {
       final ZetaSdkClientAdapter.RequestParameters requestParameters =
           new ZetaSdkClientAdapter.RequestParameters(traceId, poppToken, isFhirXml, ifNoneMatch);
       final ZetaSdkClientAdapter.Response responseFromServer =
-          vsdmZetaClient.httpGet("vsdservice/v1/vsdmbundle", requestParameters);
-
-      final boolean isNotModified =
-          responseFromServer.statusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED);
-      if (!responseFromServer.statusCode().is2xxSuccessful() && !isNotModified) {
-        return ResponseEntity.status(responseFromServer.statusCode())
-            .headers(copyApplicableHeaders(responseFromServer))
-            .body(responseFromServer.body());
-      }
+          vsdmZetaClient.httpGet(VSDM_BUNDLE_PATH, requestParameters);
 
-      if (isNotModified) {
-        return handleNotModified(terminal, egkSlotId, attachedCard, responseFromServer);
-      }
+      return processVsdResponse(terminal, egkSlotId, attachedCard, isFhirXml, responseFromServer);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      log.error("Thread interrupted while requesting VsdBundle with token", e);
+      throw new ResponseStatusException(HttpURLConnection.HTTP_INTERNAL_ERROR, e.getMessage(), e);
+    } catch (final Exception e) {
+      return handleVsdFailure(attachedCard, e);
+    }
+  }
 
-      final HttpHeaders responseHeaders = copyApplicableHeaders(responseFromServer);
-      final String responseToCaller = encodeVsdmBundle(isFhirXml, responseFromServer.body());
+  protected CompletableFuture<ResponseEntity<String>> requestVsdAsync(
+      final String terminal,
+      final int egkSlotId,
+      final AttachedCard attachedCard,
+      final String poppToken,
+      final String ifNoneMatch,
+      final boolean isFhirXml,
+      final Map<String, String> mdc) {
 
-      if (responseToCaller == null) {
-        throw new ResponseStatusException(
-            HttpStatus.INTERNAL_SERVER_ERROR, "Could not parse valid FHIR response");
-      }
-      responseHeaders.put("Content-Type", List.of(MediaType.FHIR_JSON.asString()));
+    final ResponseEntity<String> cachedVsd =
+        cachedVsd(terminal, egkSlotId, attachedCard, poppToken, isFhirXml);
+    if (cachedVsd != null) {
+      return CompletableFuture.completedFuture(cachedVsd);
+    }
 
-      // Only cache if attachedCard is available
-      if (attachedCard != null) {
-        vsdmDataRepository.put(
-            terminal,
-            egkSlotId,
-            attachedCard.getId(),
-            new VsdmCachedValue(
-                responseHeaders.getETag(),
-                responseHeaders.getFirst(HEADER_VSDM_PZ),
-                responseToCaller));
-      }
+    final String traceId = mdc != null ? mdc.get("traceId") : null;
+    final ZetaSdkClientAdapter.RequestParameters requestParameters =
+        new ZetaSdkClientAdapter.RequestParameters(traceId, poppToken, isFhirXml, ifNoneMatch);
+
+    // the fallback on a server error reads the card, which blocks
+    return vsdmZetaClient
+        .httpGetAsync(VSDM_BUNDLE_PATH, requestParameters)
+        .handleAsync(
+            withMdc(
+                mdc,
+                (responseFromServer, failure) -> {
+                  try {
+                    if (failure != null) {
+                      throw ZetaSdkClientAdapter.unwrap(failure);
+                    }
+                    return processVsdResponse(
+                        terminal, egkSlotId, attachedCard, isFhirXml, responseFromServer);
+                  } catch (final Exception e) {
+                    return handleVsdFailure(attachedCard, e);
+                  }
+                }),
+            blockingIoExecutor);
+  }
 
-      return ResponseEntity.status(HttpStatus.OK).headers(responseHeaders).body(responseToCaller);
+  private ResponseEntity<String> cachedVsd(
+      final String terminal,
+      final int egkSlotId,
+      final AttachedCard attachedCard,
+      final String poppToken,
+      final boolean isFhirXml) {
+    if (attachedCard == null) {
+      return null;
+    }
+    final VsdmDataRepository.Lookup lookup =
+        vsdmDataRepository.lookup(terminal, egkSlotId, attachedCard.getId());
+    if (lookup == null) {
+      return null;
+    }
+    final VsdmCachedValue vsdmCachedValue = lookup.value();
+    if (lookup.stale()) {
+      revalidate(terminal, egkSlotId, attachedCard, poppToken, isFhirXml, vsdmCachedValue);
+    }
+    return ResponseEntity.status(HttpStatus.OK)
+        .header(HEADER_VSDM_PZ, vsdmCachedValue.pruefziffer())
+        .header(HEADER_ETAG, vsdmCachedValue.etag())
+        .body(vsdmCachedValue.vsdmData());
+  }
+
+  /**
+   * Refresh an expired VSD in the background while the caller is served the cached one. A 304
+   * only renews the ETag and check digit of the cached value, a 200 replaces it. On failure the
+   * stale value stays and the next read tries again.
+   */
+  private void revalidate(
+      final String terminal,
+      final int egkSlotId,
+      final AttachedCard attachedCard,
+      final String poppToken,
+      final boolean isFhirXml,
+      final VsdmCachedValue staleValue) {
+    final CardKey key = new CardKey(terminal, egkSlotId, attachedCard.getId());
+    if (!revalidations.add(key)) {
+      return;
+    }
+    log.debug("Revalidating cached VSD of card {}", attachedCard.getId());
+
+    final Map<String, String> mdc = MDC.getCopyOfContextMap();
+    final ZetaSdkClientAdapter.RequestParameters requestParameters =
+        new ZetaSdkClientAdapter.RequestParameters(
+            mdc != null ? mdc.get("traceId") : null, poppToken, isFhirXml, staleValue.etag());
+    CompletableFuture<ZetaSdkClientAdapter.Response> revalidation;
+    try {
+      revalidation = vsdmZetaClient.httpGetAsync(VSDM_BUNDLE_PATH, requestParameters);
+    } catch (final RuntimeException e) {
+      revalidation = CompletableFuture.failedFuture(e);
+    }
+    revalidation
+        .handle(
+            withMdc(
+                mdc,
+                (responseFromServer, failure) -> {
+                  if (failure != null) {
+                    throw ZetaSdkClientAdapter.unwrap(failure);
+                  }
+                  return processVsdResponse(
+                      terminal, egkSlotId, attachedCard, isFhirXml, responseFromServer);
+                }))
+        .whenComplete(
+            (response, failure) -> {
+              revalidations.remove(key);
+              if (failure != null) {
+                log.warn(
+                    "Revalidating cached VSD of card {} failed: {}",
+                    attachedCard.getId(),
+                    ZetaSdkClientAdapter.unwrap(failure).getMessage());
+              } else if (response.getStatusCode().isError()) {
+                log.warn(
+                    "Revalidating cached VSD of card {} failed with status {}",
+                    attachedCard.getId(),
+                    response.getStatusCode());
+              }
+            });
+  }
 
-    } catch (final ClientRequestException e) {
+  private ResponseEntity<String> processVsdResponse(
+      final String terminal,
+      final int egkSlotId,
+      final AttachedCard attachedCard,
+      final boolean isFhirXml,
+      final ZetaSdkClientAdapter.Response responseFromServer) {
+    final boolean isNotModified =
+        responseFromServer.statusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED);
+    if (!responseFromServer.statusCode().is2xxSuccessful() && !isNotModified) {
+      return ResponseEntity.status(responseFromServer.statusCode())
+          .headers(copyApplicableHeaders(responseFromServer))
+          .body(responseFromServer.body());
+    }
+
+    if (isNotModified) {
+      return handleNotModified(terminal, egkSlotId, attachedCard, responseFromServer);
+    }
+
+    final HttpHeaders responseHeaders = copyApplicableHeaders(responseFromServer);
+    final String responseToCaller = encodeVsdmBundle(isFhirXml, responseFromServer);
+
+    if (responseToCaller == null) {
+      throw new ResponseStatusException(
+          HttpStatus.INTERNAL_SERVER_ERROR, "Could not parse valid FHIR response");
+    }
+    responseHeaders.put("Content-Type", List.of(MediaType.FHIR_JSON.asString()));
+
+    // Only cache if attachedCard is available
+    if (attachedCard != null) {
+      vsdmDataRepository.put(
+          terminal,
+          egkSlotId,
+          attachedCard.getId(),
+          new VsdmCachedValue(
+              responseHeaders.getETag(),
+              responseHeaders.getFirst(HEADER_VSDM_PZ),
+              responseToCaller));
+    }
+
+    return ResponseEntity.status(HttpStatus.OK).headers(responseHeaders).body(responseToCaller);
+  }
+
+  private ResponseEntity<String> handleVsdFailure(
+      final AttachedCard attachedCard, final Exception failure) {
+    if (failure instanceof ClientRequestException e) {
       final int responseStatus = e.getResponse().getStatus().getValue();
       return ResponseEntity.status(responseStatus).body(e.getMessage());
-    } catch (final ServerResponseException e) {
+    }
+    if (failure instanceof ServerResponseException e) {
       log.error("Error while connecting to VSDM server: {}", e.getMessage(), e);
 
       if (attachedCard == null) {
@@ -284,13 +619,57 @@ public class VsdmClientService {
         log.error("Error while loading truncated data from card: {}", cardEx.getMessage(), cardEx);
         throw new ResponseStatusException(HttpURLConnection.HTTP_INTERNAL_ERROR, e.getMessage(), e);
       }
-    } catch (InterruptedException e) {
-      Thread.currentThread().interrupt();
-      log.error("Thread interrupted while requesting VsdBundle with token", e);
-      throw new ResponseStatusException(HttpURLConnection.HTTP_INTERNAL_ERROR, e.getMessage(), e);
-    } catch (final Exception e) {
-      log.error("Error on requesting VsdBundle with token", e);
-      throw new ResponseStatusException(HttpURLConnection.HTTP_INTERNAL_ERROR, e.getMessage(), e);
+    }
+    log.error("Error on requesting VsdBundle with token", failure);
+    throw new ResponseStatusException(
+        HttpURLConnection.HTTP_INTERNAL_ERROR, failure.getMessage(), failure);
+  }
+
+  // continuations run on SDK or reactor threads, so the trace id of the request is restored there
+  private static <T, R> Function<T, R> withMdc(
+      final Map<String, String> mdc, final Function<T, R> function) {
+    return value -> {
+      final Map<String, String> previous = MDC.getCopyOfContextMap();
+      setMdc(mdc);
+      try {
+        return function.apply(value);
+      } finally {
+        setMdc(previous);
+      }
+    };
+  }
+
+  private static <T> Supplier<T> withMdc(
+      final Map<String, String> mdc, final Supplier<T> supplier) {
+    return () -> {
+      final Map<String, String> previous = MDC.getCopyOfContextMap();
+      setMdc(mdc);
+      try {
+        return supplier.get();
+      } finally {
+        setMdc(previous);
+      }
+    };
+  }
+
+  private static <T, U, R> BiFunction<T, U, R> withMdc(
+      final Map<String, String> mdc, final BiFunction<T, U, R> function) {
+    return (value, failure) -> {
+      final Map<String, String> previous = MDC.getCopyOfContextMap();
+      setMdc(mdc);
+      try {
+        return function.apply(value, failure);
+      } finally {
+        setMdc(previous);
+      }
+    };
+  }
+
+  private static void setMdc(final Map<String, String> context) {
+    if (context == null) {
+      MDC.clear();
+    } else {
+      MDC.setContextMap(context);
     }
   }
 
@@ -328,14 +707,52 @@ public class VsdmClientService {
     return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(responseHeaders).build();
   }
 
-  private String encodeVsdmBundle(final boolean isFhirXml, final String body) {
+  /**
+   * Return the VSDM bundle in the requested encoding. A body that already comes in that encoding is
+   * passed through after a structural check, any other is decoded and encoded again. The FHIR
+   * validator only runs for the configured share of responses.
+   */
+  private String encodeVsdmBundle(
+      final boolean isFhirXml, final ZetaSdkClientAdapter.Response responseFromServer) {
+    final String body = responseFromServer.body();
     if (Strings.isNullOrEmpty(body)) {
       return null;
     }
 
+    final EncodingType encoding = isFhirXml ? EncodingType.XML : EncodingType.JSON;
+    final EncodingType upstream = upstreamEncoding(responseFromServer);
+    final boolean validate = isValidationSampled();
+    if (encoding == upstream) {
+      if (validate) {
+        fhirService.validate(body);
+      }
+      return fhirService.isBundle(body, encoding) ? body : null;
+    }
+
+    // without a content type the body is expected in the requested encoding
+    final String contentType =
+        (upstream != null ? upstream : encoding) == EncodingType.XML ? "xml" : "json";
     final VsdmBundle vsdmBundle =
-        fhirService.parseString(body, isFhirXml ? "xml" : "json", VsdmBundle.class);
-    return fhirService.encodeResponse(vsdmBundle, isFhirXml ? EncodingType.XML : EncodingType.JSON);
+        validate
+            ? fhirService.parseString(body, contentType, VsdmBundle.class)
+            : fhirService.decode(body, contentType, VsdmBundle.class);
+    return fhirService.encodeResponse(vsdmBundle, encoding);
+  }
+
+  /** The encoding announced by the VSDM server, null if it sent no content type. */
+  private static EncodingType upstreamEncoding(
+      final ZetaSdkClientAdapter.Response responseFromServer) {
+    return responseFromServer.headers().entrySet().stream()
+        .filter(header -> header.getKey().equalsIgnoreCase("Content-Type"))
+        .map(header -> EncodingType.fromString(header.getValue()))
+        .findFirst()
+        .orElse(null);
+  }
+
+  private boolean isValidationSampled() {
+    final double sampleRate = vsdmClientConfig.getFhirValidation().getSampleRate();
+    return sampleRate >= 1.0
+        || (sampleRate > 0.0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
   }
 
   public String loadTruncatedDataFromCard(final AttachedCard attachedCard)
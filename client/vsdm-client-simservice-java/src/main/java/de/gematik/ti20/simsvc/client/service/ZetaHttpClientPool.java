@@ -0,0 +1,252 @@
+/*-
+ * #%L
+ * VSDM Client Simulator Service
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.ti20.simsvc.client.service;
+
+import de.gematik.ti20.simsvc.client.config.VsdmClientConfig;
+import de.gematik.zeta.sdk.ZetaSdkClient;
+import de.gematik.zeta.sdk.network.http.client.ZetaHttpClient;
+import jakarta.annotation.PreDestroy;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.Nonnull;
+import kotlin.Unit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Keeps a fixed number of long-lived {@link ZetaHttpClient} instances, so consecutive requests to
+ * the ZETA guard reuse the connections, TLS sessions and token state of a client instead of
+ * building a new client per request. Clients are shared between concurrent requests and replaced
+ * once they exceed their configured lifetime. Requests beyond the configured limit wait in a queue
+ * without blocking a thread, see {@link #acquireAsync()}.
+ */
+@Slf4j
+@Service
+public class ZetaHttpClientPool {
+
+  private final ZetaSdkClient zetaClient;
+  private final Duration maxLifetime;
+  private final Clock clock;
+  private final int maxConcurrentRequests;
+
+  // guarded by this
+  private final PooledClient[] clients;
+  private final Deque<CompletableFuture<Lease>> waiters = new ArrayDeque<>();
+  private int inFlight;
+  private int next;
+  private boolean closed;
+
+  @Autowired
+  public ZetaHttpClientPool(
+      @Nonnull final ZetaSdkClient zetaClient, @Nonnull final VsdmClientConfig vsdmConfig) {
+    this(zetaClient, vsdmConfig.getZetaClient(), Clock.systemUTC());
+  }
+
+  ZetaHttpClientPool(
+      @Nonnull final ZetaSdkClient zetaClient,
+      @Nonnull final VsdmClientConfig.ZetaClient config,
+      @Nonnull final Clock clock) {
+    this.zetaClient = zetaClient;
+    this.maxLifetime = config.getMaxLifetime();
+    this.clock = clock;
+    this.clients = new PooledClient[Math.max(1, config.getPoolSize())];
+    this.maxConcurrentRequests = config.getMaxConcurrentRequests();
+  }
+
+  /**
+   * Lease a client for one request. Blocks while the maximum number of concurrent requests is
+   * reached. The lease must be closed once the response has been read.
+   */
+  @Nonnull
+  public Lease acquire() throws InterruptedException {
+    final CompletableFuture<Lease> lease = acquireAsync();
+    try {
+      return lease.get();
+    } catch (final InterruptedException e) {
+      if (!lease.cancel(false)) {
+        lease.join().close();
+      }
+      throw e;
+    } catch (final ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+
+  /**
+   * Lease a client for one request. The future completes once the number of concurrent requests
+   * allows it. The lease must be closed once the response has been read.
+   */
+  @Nonnull
+  public synchronized CompletableFuture<Lease> acquireAsync() {
+    if (closed) {
+      return CompletableFuture.failedFuture(closedException());
+    }
+    if (maxConcurrentRequests <= 0 || inFlight < maxConcurrentRequests) {
+      inFlight++;
+      return CompletableFuture.completedFuture(new Lease(lease()));
+    }
+    final CompletableFuture<Lease> waiter = new CompletableFuture<>();
+    waiters.add(waiter);
+    return waiter;
+  }
+
+  // called with the lock held
+  private PooledClient lease() {
+    final int slot = next;
+    next = (next + 1) % clients.length;
+    PooledClient pooled = clients[slot];
+    final Instant now = clock.instant();
+    if (pooled == null || pooled.isExpired(now)) {
+      if (pooled != null) {
+        log.debug("Replacing ZETA http client {} after {}", slot, maxLifetime);
+        retire(pooled);
+      }
+      pooled = new PooledClient(createClient(), now);
+      clients[slot] = pooled;
+    }
+    pooled.inUse++;
+    return pooled;
+  }
+
+  private void release(final PooledClient pooled) {
+    CompletableFuture<Lease> waiter;
+    Lease handOver = null;
+    synchronized (this) {
+      pooled.inUse--;
+      if (pooled.retired && pooled.inUse == 0) {
+        closeClient(pooled);
+      }
+      do {
+        waiter = waiters.poll();
+      } while (waiter != null && waiter.isDone());
+      if (waiter == null) {
+        inFlight--;
+      } else {
+        // the permit of the finished request passes on to the next waiting one
+        handOver = new Lease(lease());
+      }
+    }
+    // complete outside the lock, the caller's continuation may run right here
+    if (handOver != null && !waiter.complete(handOver)) {
+      handOver.close();
+    }
+  }
+
+  // closes the client now or once the last request using it has finished
+  private void retire(final PooledClient pooled) {
+    pooled.retired = true;
+    if (pooled.inUse == 0) {
+      closeClient(pooled);
+    }
+  }
+
+  @PreDestroy
+  public void close() {
+    final List<CompletableFuture<Lease>> pending;
+    synchronized (this) {
+      closed = true;
+      for (int i = 0; i < clients.length; i++) {
+        if (clients[i] != null) {
+          retire(clients[i]);
+          clients[i] = null;
+        }
+      }
+      pending = new ArrayList<>(waiters);
+      waiters.clear();
+    }
+    pending.forEach(waiter -> waiter.completeExceptionally(closedException()));
+  }
+
+  @Nonnull
+  private ZetaHttpClient createClient() {
+    return zetaClient.httpClient(
+        it -> {
+          it.disableServerValidation(true);
+          return Unit.INSTANCE;
+        });
+  }
+
+  private static IllegalStateException closedException() {
+    return new IllegalStateException("ZETA client pool is closed");
+  }
+
+  private static void closeClient(final PooledClient pooled) {
+    try {
+      pooled.client.close();
+    } catch (final Exception e) {
+      log.warn("Failed to close ZETA http client", e);
+    }
+  }
+
+  private final class PooledClient {
+    private final ZetaHttpClient client;
+    private final Instant created;
+    private int inUse;
+    private boolean retired;
+
+    private PooledClient(final ZetaHttpClient client, final Instant created) {
+      this.client = client;
+      this.created = created;
+    }
+
+    private boolean isExpired(final Instant now) {
+      return !created.plus(maxLifetime).isAfter(now);
+    }
+  }
+
+  /** A client leased for one request, returned to the pool by {@link #close()}. */
+  public final class Lease implements AutoCloseable {
+    private final PooledClient pooled;
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    private Lease(final PooledClient pooled) {
+      this.pooled = pooled;
+    }
+
+    @Nonnull
+    public ZetaHttpClient client() {
+      return pooled.client;
+    }
+
+    @Override
+    public void close() {
+      if (released.compareAndSet(false, true)) {
+        release(pooled);
+      }
+    }
+  }
+}
@@ -26,16 +26,24 @@ package de.gematik.ti20.simsvc.client.service;
 
 import com.google.common.base.Strings;
 import de.gematik.ti20.simsvc.client.config.VsdmClientConfig;
-import de.gematik.zeta.sdk.ZetaSdkClient;
 import de.gematik.zeta.sdk.network.http.client.ZetaHttpClient;
 import de.gematik.zeta.sdk.network.http.client.ZetaHttpResponse;
 import io.ktor.client.request.HttpRequestBuilder;
 import io.ktor.client.request.HttpRequestKt;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nonnull;
 import kotlin.Unit;
+import kotlin.coroutines.Continuation;
 import kotlin.coroutines.EmptyCoroutineContext;
+import kotlin.jvm.functions.Function2;
+import kotlinx.coroutines.CoroutineScope;
+import kotlinx.coroutines.CoroutineStart;
+import kotlinx.coroutines.GlobalScope;
+import kotlinx.coroutines.future.FutureKt;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 import org.springframework.http.HttpStatus;
@@ -47,7 +55,7 @@ import org.springframework.stereotype.Service;
 @Setter
 public class ZetaSdkClientAdapter {
 
-  @Nonnull private final ZetaSdkClient zetaClient;
+  @Nonnull private final ZetaHttpClientPool clientPool;
   @Nonnull private final VsdmClientConfig vsdmConfig;
 
   public record RequestParameters(
@@ -71,25 +79,86 @@ public class ZetaSdkClientAdapter {
   public Response httpGet(
       @Nonnull final String url, @Nonnull final ZetaSdkClientAdapter.RequestParameters parameters)
       throws InterruptedException {
+    final CompletableFuture<Response> response = httpGetAsync(url, parameters);
+    try {
+      return response.get();
+    } catch (final InterruptedException e) {
+      response.cancel(true);
+      throw e;
+    } catch (final ExecutionException e) {
+      throw unwrap(e);
+    }
+  }
 
-    try (ZetaHttpClient httpClient =
-        zetaClient.httpClient(
-            it -> {
-              it.disableServerValidation(true);
-              return Unit.INSTANCE;
-            })) {
-
-      ZetaHttpResponse response =
-          kotlinx.coroutines.BuildersKt.runBlocking(
-              EmptyCoroutineContext.INSTANCE,
-              (scope, cont) ->
-                  httpClient.get(url, req -> executeRequest(url, parameters, req), cont));
+  /**
+   * Perform a get request using the Zeta client without blocking the calling thread. The request
+   * runs as a coroutine, the returned future completes with the response once its body has been
+   * read.
+   *
+   * @param url The url to call
+   * @param parameters Additional parameters required for the request.
+   * @return Future of the response
+   */
+  @Nonnull
+  public CompletableFuture<Response> httpGetAsync(
+      @Nonnull final String url, @Nonnull final ZetaSdkClientAdapter.RequestParameters parameters) {
+    return clientPool
+        .acquireAsync()
+        .thenCompose(
+            lease -> {
+              final CompletableFuture<Response> response;
+              try {
+                response = get(lease.client(), url, parameters);
+              } catch (final RuntimeException e) {
+                lease.close();
+                throw e;
+              }
+              return response.whenComplete((r, e) -> lease.close());
+            });
+  }
 
-      final HttpStatus httpStatusCode = HttpStatus.valueOf(response.getStatus().getValue());
-      final Map<String, String> responseHeaders = response.getHeaders();
-      final String bodyAsString = getBodyAsString(response);
-      return new Response(httpStatusCode, responseHeaders, bodyAsString);
+  /** The exception a failed future was completed with, unwrapped for the caller. */
+  @Nonnull
+  public static RuntimeException unwrap(@Nonnull final Throwable failure) {
+    Throwable cause = failure;
+    while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+        && cause.getCause() != null) {
+      cause = cause.getCause();
+    }
+    if (cause instanceof RuntimeException runtimeException) {
+      return runtimeException;
     }
+    if (cause instanceof Error error) {
+      throw error;
+    }
+    return new CompletionException(cause);
+  }
+
+  @Nonnull
+  private CompletableFuture<Response> get(
+      @Nonnull final ZetaHttpClient httpClient,
+      @Nonnull final String url,
+      @Nonnull final RequestParameters parameters) {
+    return ZetaSdkClientAdapter.<ZetaHttpResponse>future(
+            (scope, cont) ->
+                httpClient.get(url, req -> executeRequest(url, parameters, req), cont))
+        .thenCompose(
+            response ->
+                ZetaSdkClientAdapter.<String>future((scope, cont) -> response.bodyAsText(cont))
+                    .thenApply(
+                        body ->
+                            new Response(
+                                HttpStatus.valueOf(response.getStatus().getValue()),
+                                response.getHeaders(),
+                                body)));
+  }
+
+  // starts a suspending call of the SDK as coroutine and exposes its result as future
+  @Nonnull
+  private static <T> CompletableFuture<T> future(
+      @Nonnull final Function2<CoroutineScope, Continuation<? super T>, Object> block) {
+    return FutureKt.future(
+        GlobalScope.INSTANCE, EmptyCoroutineContext.INSTANCE, CoroutineStart.DEFAULT, block);
   }
 
   @Nonnull
@@ -110,11 +179,4 @@ public class ZetaSdkClientAdapter {
         });
     return Unit.INSTANCE;
   }
-
-  @Nonnull
-  private String getBodyAsString(@Nonnull final ZetaHttpResponse response)
-      throws InterruptedException {
-    return kotlinx.coroutines.BuildersKt.runBlocking(
-        EmptyCoroutineContext.INSTANCE, (scope, cont) -> response.bodyAsText(cont));
-  }
 }
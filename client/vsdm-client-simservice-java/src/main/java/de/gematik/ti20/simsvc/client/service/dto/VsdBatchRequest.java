@@ -0,0 +1,44 @@
+/*-
+ * #%L
+ * VSDM Client Simulator Service
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.ti20.simsvc.client.service.dto;
+
+import java.util.List;
+
+/**
+ * Several VSD reads answered by one call. All cards are read with the same SMC-B and encoding.
+ *
+ * @param smcBSlotId slot of the SMC-B used for all PoPP token sessions
+ * @param isFhirXml whether the bundles are returned as FHIR XML instead of JSON
+ * @param items the cards to read
+ */
+public record VsdBatchRequest(Integer smcBSlotId, boolean isFhirXml, List<Item> items) {
+
+  /**
+   * @param terminalId terminal the eGK is attached to
+   * @param egkSlotId slot of the eGK
+   * @param ifNoneMatch ETag of the VSD the caller already has, may be null
+   */
+  public record Item(String terminalId, Integer egkSlotId, String ifNoneMatch) {}
+}
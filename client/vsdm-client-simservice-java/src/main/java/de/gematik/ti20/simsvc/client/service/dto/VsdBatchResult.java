@@ -0,0 +1,38 @@
+/*-
+ * #%L
+ * VSDM Client Simulator Service
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.ti20.simsvc.client.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/** Outcome of one read of a {@link VsdBatchRequest}, with the status a single read would have. */
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public record VsdBatchResult(
+    String terminalId,
+    Integer egkSlotId,
+    int status,
+    String etag,
+    String vsdmPz,
+    String body,
+    String errorMessage) {}
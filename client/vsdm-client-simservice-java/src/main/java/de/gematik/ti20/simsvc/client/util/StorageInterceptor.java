@@ -26,16 +26,46 @@ package de.gematik.ti20.simsvc.client.util;
 
 import de.gematik.zeta.sdk.storage.SdkStorage;
 import jakarta.validation.constraints.NotNull;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 import javax.annotation.Nullable;
 import kotlin.Unit;
 import kotlin.coroutines.Continuation;
 
+/**
+ * Keeps the storage of the ZETA SDK in memory, so tests can read the access token and DPoP keys the
+ * SDK obtained. The storage is shared by all requests and safe for concurrent use.
+ */
 public class StorageInterceptor implements SdkStorage {
-  private HashMap<String, String> cache = new HashMap<>();
 
-  public HashMap<String, String> getCache() {
-    return cache;
+  public static final String ACCESS_TOKEN_PREFIX = "at:";
+  public static final String DPOP_PUBLIC_KEY = "dpop_public_key";
+  public static final String DPOP_PRIVATE_KEY = "dpop_private_key";
+
+  private final Map<String, String> cache = new ConcurrentHashMap<>();
+
+  // key of the access token stored last, so it is found without scanning the storage
+  private final AtomicReference<String> accessTokenKey = new AtomicReference<>();
+
+  /** A read-only view of the stored entries. */
+  public Map<String, String> getCache() {
+    return Collections.unmodifiableMap(cache);
+  }
+
+  /** The access token stored last by the SDK, empty if there is none. */
+  public String getAccessToken() {
+    final String key = accessTokenKey.get();
+    return key != null ? cache.getOrDefault(key, "") : "";
+  }
+
+  public String getDpopPublicKey() {
+    return cache.getOrDefault(DPOP_PUBLIC_KEY, "");
+  }
+
+  public String getDpopPrivateKey() {
+    return cache.getOrDefault(DPOP_PRIVATE_KEY, "");
   }
 
   @Override
@@ -44,7 +74,10 @@ public class StorageInterceptor implements SdkStorage {
       @NotNull final String value,
       @NotNull final Continuation<? super Unit> continuation) {
     cache.put(key, value);
-    return continuation;
+    if (key.startsWith(ACCESS_TOKEN_PREFIX)) {
+      accessTokenKey.set(key);
+    }
+    return Unit.INSTANCE;
   }
 
   @Override
@@ -56,11 +89,21 @@ public class StorageInterceptor implements SdkStorage {
   @Override
   public @Nullable Object remove(
       @NotNull final String key, @NotNull final Continuation<? super Unit> continuation) {
-    return null;
+    cache.remove(key);
+    if (accessTokenKey.compareAndSet(key, null)) {
+      // fall back to another access token the SDK still holds, if any
+      cache.keySet().stream()
+          .filter(k -> k.startsWith(ACCESS_TOKEN_PREFIX))
+          .findAny()
+          .ifPresent(k -> accessTokenKey.compareAndSet(null, k));
+    }
+    return Unit.INSTANCE;
   }
 
   @Override
   public @Nullable Object clear(@NotNull final Continuation<? super Unit> continuation) {
-    return null;
+    cache.clear();
+    accessTokenKey.set(null);
+    return Unit.INSTANCE;
   }
 }
@@ -0,0 +1,95 @@
+/*-
+ * #%L
+ * VSDM 2.0 Testsuite
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.ti20.simsvc.client.benchmark;
+
+import de.gematik.ti20.simsvc.client.util.DpopHelper;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares DPoP proofs per second when the key pair is parsed for every proof ({@link
+ * DpopHelper#createDpop}) and when a {@link DpopHelper.Signer} is reused.
+ *
+ * <p>Run with {@code ../../mvnw test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=de.gematik.ti20.simsvc.client.benchmark.DpopBenchmark} or start {@link #main}
+ * from the IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DpopBenchmark {
+
+  private static final String HTM = "GET";
+  private static final String HTU = "https://vsdm.example.com/vsdservice/v1/vsdmbundle";
+  private static final String ATH = "fUHyO2r2Z3DZ53EsNrWBb0xWXoaNy59IiKCAqksmQEo";
+
+  private String publicKeyPem;
+  private String privateKeyPem;
+  private DpopHelper.Signer signer;
+
+  @Setup
+  public void setUp() throws Exception {
+    publicKeyPem = readResource("/crypto/test-ec-public.pem");
+    privateKeyPem = readResource("/crypto/test-ec-private.pem");
+    signer = new DpopHelper.Signer(publicKeyPem, privateKeyPem);
+  }
+
+  @Benchmark
+  public String parseKeysPerProof() throws DpopHelper.DpopException {
+    return DpopHelper.createDpop(publicKeyPem, privateKeyPem, HTM, HTU, ATH);
+  }
+
+  @Benchmark
+  public String reusedSigner() throws DpopHelper.DpopException {
+    return signer.sign(HTM, HTU, ATH);
+  }
+
+  private static String readResource(final String name) throws Exception {
+    return Files.readString(
+        Path.of(Objects.requireNonNull(DpopBenchmark.class.getResource(name)).toURI()));
+  }
+
+  public static void main(final String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(DpopBenchmark.class.getSimpleName()).build()).run();
+  }
+}
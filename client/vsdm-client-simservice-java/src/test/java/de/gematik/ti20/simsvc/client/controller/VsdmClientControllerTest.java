@@ -27,7 +27,13 @@ package de.gematik.ti20.simsvc.client.controller;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import de.gematik.ti20.simsvc.client.service.VsdmBatchService;
 import de.gematik.ti20.simsvc.client.service.VsdmClientService;
+import de.gematik.ti20.simsvc.client.service.dto.VsdBatchRequest;
+import de.gematik.ti20.simsvc.client.service.dto.VsdBatchResponse;
+import de.gematik.ti20.simsvc.client.service.dto.VsdBatchResult;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.ResponseEntity;
@@ -35,6 +41,7 @@ import org.springframework.http.ResponseEntity;
 class VsdmClientControllerTest {
 
   private VsdmClientService mockVsdmClientService;
+  private VsdmBatchService mockVsdmBatchService;
   private VsdmClientController vsdmClientController;
 
   private final String traceId = "traceId";
@@ -45,7 +52,8 @@ class VsdmClientControllerTest {
   @BeforeEach
   void setUp() {
     mockVsdmClientService = mock(VsdmClientService.class);
-    vsdmClientController = new VsdmClientController(mockVsdmClientService);
+    mockVsdmBatchService = mock(VsdmBatchService.class);
+    vsdmClientController = new VsdmClientController(mockVsdmClientService, mockVsdmBatchService);
   }
 
   @Test
@@ -55,18 +63,19 @@ class VsdmClientControllerTest {
     boolean isFhirXml = true;
 
     ResponseEntity<String> mockResponse = ResponseEntity.ok("Success");
-    when(mockVsdmClientService.read(
+    when(mockVsdmClientService.readAsync(
             eq(terminalId),
             eq(egkSlotId),
             eq(smcbSlotId),
             eq(isFhirXml),
             eq(null),
             eq(ifNoneMatch)))
-        .thenReturn(mockResponse);
+        .thenReturn(CompletableFuture.completedFuture(mockResponse));
 
     ResponseEntity<?> response =
-        vsdmClientController.readVsd(
-            terminalId, egkSlotId, smcbSlotId, isFhirXml, null, ifNoneMatch);
+        vsdmClientController
+            .readVsd(terminalId, egkSlotId, smcbSlotId, isFhirXml, null, ifNoneMatch)
+            .join();
 
     assertNotNull(response);
     assertEquals(200, response.getStatusCode().value());
@@ -79,15 +88,31 @@ class VsdmClientControllerTest {
     boolean forceUpdate = false;
 
     ResponseEntity<String> mockResponse = ResponseEntity.ok("Success");
-    when(mockVsdmClientService.read(
+    when(mockVsdmClientService.readAsync(
             eq(terminalId), eq(egkSlotId), eq(smcbSlotId), eq(false), eq(null), eq(ifNoneMatch)))
-        .thenReturn(mockResponse);
+        .thenReturn(CompletableFuture.completedFuture(mockResponse));
 
     ResponseEntity<?> response =
-        vsdmClientController.readVsd(terminalId, egkSlotId, smcbSlotId, false, null, ifNoneMatch);
+        vsdmClientController
+            .readVsd(terminalId, egkSlotId, smcbSlotId, false, null, ifNoneMatch)
+            .join();
 
     assertNotNull(response);
     assertEquals(200, response.getStatusCode().value());
     assertEquals("Success", response.getBody());
   }
+
+  @Test
+  void testReadVsdBatch_DelegatesToBatchService() {
+    VsdBatchRequest request =
+        new VsdBatchRequest(
+            smcbSlotId, false, List.of(new VsdBatchRequest.Item(terminalId, egkSlotId, null)));
+    VsdBatchResponse batchResponse =
+        new VsdBatchResponse(
+            List.of(new VsdBatchResult(terminalId, egkSlotId, 200, "etag", "pz", "data", null)));
+    when(mockVsdmBatchService.readBatch(request))
+        .thenReturn(CompletableFuture.completedFuture(batchResponse));
+
+    assertSame(batchResponse, vsdmClientController.readVsdBatch(request).join());
+  }
 }
@@ -26,11 +26,20 @@ package de.gematik.ti20.simsvc.client.repository;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 class PoppTokenRepositoryTest {
 
+  // patientProofTime 2024-12-31T23:00:00Z
+  private static final String PATIENT_PROOF_TOKEN =
+      "eyJhbGciOiJFUzI1NiIsInR5cCI6InZuZC50ZWxlbWF0aWsucG9wcCtqd3QiLCJraWQiOiJwb3BwbW9jayIsIng1YyI6WyJNSUlCM1RDQ0FZR2dBd0lCQWdJRUJ3R0pSekFNQmdncWhrak9QUVFEQWdVQU1HTXhDekFKQmdOVkJBWVRBa1JGTVE0d0RBWURWUVFJRXdWVGRHRjBaVEVOTUFzR0ExVUVCeE1FUTJsMGVURVFNQTRHQTFVRUNoTUhSWGhoYlhCc1pURVVNQklHQTFVRUN4TUxSR1YyWld4dmNHMWxiblF4RFRBTEJnTlZCQU1UQkZSbGMzUXdIaGNOTWpVd05USXpNVEl6TWpVd1doY05Nall3TlRJek1USXpNalV3V2pCak1Rc3dDUVlEVlFRR0V3SkVSVEVPTUF3R0ExVUVDQk1GVTNSaGRHVXhEVEFMQmdOVkJBY1RCRU5wZEhreEVEQU9CZ05WQkFvVEIwVjRZVzF3YkdVeEZEQVNCZ05WQkFzVEMwUmxkbVZzYjNCdFpXNTBNUTB3Q3dZRFZRUURFd1JVWlhOME1Ga3dFd1lIS29aSXpqMENBUVlJS29aSXpqMERBUWNEUWdBRVhwR00wL3ZjUnNjbWl4eEl0bjdLNjI0Y3dOdVFBUGc3djJCNWJrSmh2RUJWOVUvOVlyQXI3NjJDWnFPRTdSM2NqLzRDVjVwamdHNW45RTFRT2RScU1LTWhNQjh3SFFZRFZSME9CQllFRk5xSSt0NDZDMFo1SXJhbThKWnhXV3N2SGlKbE1Bd0dDQ3FHU000OUJBTUNCUUFEU0FBd1JRSWhBSXJUa2pjck1ZMDBMOU1VWDdNajc4OGhzL1c0aFNnWnNua2Y1M2hwSUZyQkFpQjlEWnQzNzlGOXRKbHArajRCN3Bsb3BybU5sT1hvRnh2ZnlObWNsVlVVVUE9PSJdfQ.eyJ2ZXJzaW9uIjoiMS4wLjAiLCJpc3MiOiJodHRwczovL3BvcHAuZXhhbXBsZS5jb20iLCJpYXQiOjE3NTM0MzM1MjUsInByb29mTWV0aG9kIjoiZWhjLXByb3ZpZGVyLXVzZXIteDUwOSIsInBhdGllbnRQcm9vZlRpbWUiOjE3MzU2ODYwMDAsInBhdGllbnRJZCI6IlgxMTA2Mzk0OTEiLCJpbnN1cmVySWQiOiIxMDk1MDA5NjkiLCJhY3RvcklkIjoiODgzMTEwMDAwMTY4NjUwIiwiYWN0b3JQcm9mZXNzaW9uT2lkIjoiMS4yLjI3Ni4wLjc2LjQuMzIifQ.9kI_Q_YUIhWNETONIyXRBwNu0Vo64jg3aE-kwrig8I-O99oDPXOubU2Q_8cej0kaM2d0gIBeqE5yUfJpKuop0A";
+
   private PoppTokenRepository repository;
 
   @BeforeEach
@@ -132,4 +141,58 @@ class PoppTokenRepositoryTest {
     repository.put(terminalId, slotId, cardId, poppToken);
     assertEquals(null, repository.get(terminalId, slotId, cardId));
   }
+
+  @Test
+  void testHashCollisionDoesNotMixUpCards() {
+    // "Aa" and "BB" have the same String hash code, so both keys had the same Objects.hash
+    repository.put("Aa", 1, "card1", "token1");
+    repository.put("BB", 1, "card1", "token2");
+
+    assertEquals("token1", repository.get("Aa", 1, "card1"));
+    assertEquals("token2", repository.get("BB", 1, "card1"));
+  }
+
+  @Test
+  void testExpiresThreeMonthsAfterPatientProof() {
+    Instant patientProofTime = Instant.ofEpochSecond(1735686000L);
+    MutableClock clock = new MutableClock(patientProofTime.plus(Duration.ofDays(89)));
+    repository = new PoppTokenRepository(clock);
+    repository.put("terminal1", 1, "card1", PATIENT_PROOF_TOKEN);
+
+    assertEquals(PATIENT_PROOF_TOKEN, repository.get("terminal1", 1, "card1"));
+
+    clock.now = patientProofTime.plus(Duration.ofDays(90)).plusSeconds(1);
+    assertNull(repository.get("terminal1", 1, "card1"));
+  }
+
+  @Test
+  void testPutNullRemovesToken() {
+    repository.put("terminal1", 1, "card1", "token");
+    repository.put("terminal1", 1, "card1", null);
+
+    assertNull(repository.get("terminal1", 1, "card1"));
+  }
+
+  private static final class MutableClock extends Clock {
+    private Instant now;
+
+    private MutableClock(final Instant now) {
+      this.now = now;
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(final ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+  }
 }
@@ -27,6 +27,12 @@ package de.gematik.ti20.simsvc.client.repository;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
 
+import de.gematik.ti20.simsvc.client.config.VsdmClientConfig;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -159,4 +165,92 @@ class VsdmDataRepositoryTest {
     assertThat(data.get("", 2, "")).isNull();
     assertThat(data.get("", 3, "")).isNull();
   }
+
+  @Test
+  void testHashCollisionDoesNotMixUpCards() {
+    // "Aa" and "BB" have the same String hash code, so both keys had the same Objects.hash
+    VsdmCachedValue first = new VsdmCachedValue("etag1", "pz1", "data1");
+    VsdmCachedValue second = new VsdmCachedValue("etag2", "pz2", "data2");
+
+    repository.put("Aa", 1, "card1", first);
+    repository.put("BB", 1, "card1", second);
+
+    assertEquals(first, repository.get("Aa", 1, "card1"));
+    assertEquals(second, repository.get("BB", 1, "card1"));
+  }
+
+  @Test
+  void testDropsLeastRecentlyReadCard() {
+    VsdmClientConfig.VsdCache config = new VsdmClientConfig.VsdCache();
+    config.setMaxSize(2);
+    repository = new VsdmDataRepository(config, Clock.systemUTC());
+    VsdmCachedValue value = new VsdmCachedValue("etag", "pz", "data");
+
+    repository.put("terminal1", 1, "card1", value);
+    repository.put("terminal1", 2, "card2", value);
+    repository.get("terminal1", 1, "card1");
+    repository.put("terminal1", 3, "card3", value);
+
+    assertNotNull(repository.get("terminal1", 1, "card1"));
+    assertNull(repository.get("terminal1", 2, "card2"));
+    assertNotNull(repository.get("terminal1", 3, "card3"));
+  }
+
+  @Test
+  void testExpiredValueIsDropped() {
+    VsdmClientConfig.VsdCache config = new VsdmClientConfig.VsdCache();
+    config.setTtl(Duration.ofMinutes(5));
+    MutableClock clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+    repository = new VsdmDataRepository(config, clock);
+    repository.put("terminal1", 1, "card1", new VsdmCachedValue("etag", "pz", "data"));
+
+    assertFalse(repository.lookup("terminal1", 1, "card1").stale());
+
+    clock.now = clock.now.plus(Duration.ofMinutes(5));
+    assertNull(repository.lookup("terminal1", 1, "card1"));
+    assertNull(repository.get("terminal1", 1, "card1"));
+  }
+
+  @Test
+  void testExpiredValueIsStaleWithRevalidation() {
+    VsdmClientConfig.VsdCache config = new VsdmClientConfig.VsdCache();
+    config.setTtl(Duration.ofMinutes(5));
+    config.setStaleWhileRevalidate(true);
+    MutableClock clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+    repository = new VsdmDataRepository(config, clock);
+    VsdmCachedValue value = new VsdmCachedValue("etag", "pz", "data");
+    repository.put("terminal1", 1, "card1", value);
+
+    clock.now = clock.now.plus(Duration.ofMinutes(10));
+    VsdmDataRepository.Lookup lookup = repository.lookup("terminal1", 1, "card1");
+    assertEquals(value, lookup.value());
+    assertTrue(lookup.stale());
+
+    // storing the revalidated value makes it fresh again
+    repository.put("terminal1", 1, "card1", value.copyWith("etag2", "pz2"));
+    assertFalse(repository.lookup("terminal1", 1, "card1").stale());
+  }
+
+  private static final class MutableClock extends Clock {
+    private Instant now;
+
+    private MutableClock(final Instant now) {
+      this.now = now;
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(final ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+  }
 }
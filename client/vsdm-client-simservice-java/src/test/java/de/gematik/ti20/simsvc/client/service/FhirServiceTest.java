@@ -27,6 +27,7 @@ package de.gematik.ti20.simsvc.client.service;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import de.gematik.bbriccs.fhir.EncodingType;
 import jakarta.servlet.http.HttpServletRequest;
 import java.io.BufferedReader;
 import java.io.IOException;
@@ -87,4 +88,54 @@ class FhirServiceTest {
 
     assertEquals("Error reading request body", exception.getReason());
   }
+
+  @Test
+  void testGetBodyString_KeepsLineBreaks() throws IOException {
+    HttpServletRequest mockRequest = mock(HttpServletRequest.class);
+    String multiline = "{\n  \"resourceType\": \"Patient\"\n}";
+    when(mockRequest.getContentLength()).thenReturn(multiline.length());
+    when(mockRequest.getReader()).thenReturn(new BufferedReader(new StringReader(multiline)));
+
+    assertEquals(multiline, fhirService.getBodyString(mockRequest));
+  }
+
+  @Test
+  void testGetBodyString_BodyLongerThanContentLength() throws IOException {
+    HttpServletRequest mockRequest = mock(HttpServletRequest.class);
+    String body = "x".repeat(5000);
+    when(mockRequest.getContentLength()).thenReturn(10);
+    when(mockRequest.getReader()).thenReturn(new BufferedReader(new StringReader(body)));
+
+    assertEquals(body, fhirService.getBodyString(mockRequest));
+  }
+
+  @Test
+  void testIsBundle_Json() {
+    assertTrue(fhirService.isBundle("{\"resourceType\":\"Bundle\"}", EncodingType.JSON));
+    assertFalse(fhirService.isBundle("{\"resourceType\":\"Patient\"}", EncodingType.JSON));
+    assertFalse(fhirService.isBundle("{\"resourceType\":\"Bundle\"", EncodingType.JSON));
+    assertFalse(fhirService.isBundle("[]", EncodingType.JSON));
+  }
+
+  @Test
+  void testIsBundle_Xml() {
+    assertTrue(
+        fhirService.isBundle(
+            "<Bundle xmlns=\"http://hl7.org/fhir\"><type value=\"document\"/></Bundle>",
+            EncodingType.XML));
+    assertFalse(fhirService.isBundle("<Bundle><type/></Bundle>", EncodingType.XML));
+    assertFalse(
+        fhirService.isBundle("<Patient xmlns=\"http://hl7.org/fhir\"/>", EncodingType.XML));
+    assertFalse(
+        fhirService.isBundle("<Bundle xmlns=\"http://hl7.org/fhir\"><type>", EncodingType.XML));
+  }
+
+  @Test
+  void testIsBundle_XmlRejectsDoctype() {
+    assertFalse(
+        fhirService.isBundle(
+            "<!DOCTYPE Bundle [<!ENTITY x SYSTEM \"file:///etc/passwd\">]>"
+                + "<Bundle xmlns=\"http://hl7.org/fhir\">&x;</Bundle>",
+            EncodingType.XML));
+  }
 }
@@ -0,0 +1,78 @@
+/*-
+ * #%L
+ * VSDM Client Simulator Service
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+
+package de.gematik.ti20.simsvc.client.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import de.gematik.ti20.client.card.card.AttachedCard;
+import de.gematik.ti20.simsvc.client.config.PoppClientConfig;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+class PoppClientAdapterTest {
+
+  private final AttachedCard card = mock(AttachedCard.class);
+
+  @Test
+  void testGetPoppTokenAsync_ReturnsToken() {
+    final PoppClientAdapter adapter = adapterAnswering("{\"token\":\"popp-token\"}");
+
+    assertEquals("popp-token", adapter.getPoppTokenAsync(card).join());
+  }
+
+  @Test
+  void testGetPoppTokenAsync_EmptyResponseFails() {
+    final CompletableFuture<String> token = adapterAnswering("").getPoppTokenAsync(card);
+
+    final CompletionException exception = assertThrows(CompletionException.class, token::join);
+    assertInstanceOf(IllegalStateException.class, exception.getCause());
+  }
+
+  private static PoppClientAdapter adapterAnswering(final String body) {
+    final WebClient webClient =
+        WebClient.builder()
+            .exchangeFunction(
+                request ->
+                    Mono.just(
+                        ClientResponse.create(HttpStatus.OK)
+                            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .body(body)
+                            .build()))
+            .build();
+    return new PoppClientAdapter(
+        new PoppClientConfig(
+            PoppClientConfig.TokenType.CONTACT_VIRTUAL, "ws://popp", "http://popp/token"),
+        webClient);
+  }
+}
@@ -0,0 +1,244 @@
+/*-
+ * #%L
+ * VSDM Client Simulator Service
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.ti20.simsvc.client.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import de.gematik.ti20.simsvc.client.config.VsdmClientConfig;
+import de.gematik.ti20.simsvc.client.service.dto.VsdBatchRequest;
+import de.gematik.ti20.simsvc.client.service.dto.VsdBatchResponse;
+import de.gematik.ti20.simsvc.client.service.dto.VsdBatchResult;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
+
+class VsdmBatchServiceTest {
+
+  private static final int SMCB_SLOT_ID = 2;
+
+  private VsdmClientService mockVsdmClientService;
+  private VsdmClientConfig vsdmClientConfig;
+  private VsdmBatchService vsdmBatchService;
+
+  @BeforeEach
+  void setUp() {
+    mockVsdmClientService = mock(VsdmClientService.class);
+    vsdmClientConfig = new VsdmClientConfig();
+    vsdmBatchService =
+        new VsdmBatchService(
+            mockVsdmClientService, vsdmClientConfig, MoreExecutors.newDirectExecutorService());
+  }
+
+  @Test
+  void testResultsKeepRequestOrder() {
+    when(mockVsdmClientService.readAsync("t1", 1, SMCB_SLOT_ID, false, null, null))
+        .thenReturn(
+            CompletableFuture.completedFuture(
+                ResponseEntity.ok()
+                    .header(VsdmClientService.HEADER_ETAG, "etag1")
+                    .header(VsdmClientService.HEADER_VSDM_PZ, "pz1")
+                    .body("vsd1")));
+    when(mockVsdmClientService.readAsync("t1", 3, SMCB_SLOT_ID, false, null, "etag3"))
+        .thenReturn(
+            CompletableFuture.completedFuture(
+                ResponseEntity.status(HttpStatus.NOT_MODIFIED).build()));
+
+    final VsdBatchResponse response =
+        vsdmBatchService
+            .readBatch(
+                request(
+                    new VsdBatchRequest.Item("t1", 1, null),
+                    new VsdBatchRequest.Item("t1", 3, "etag3")))
+            .join();
+
+    assertEquals(
+        List.of(
+            new VsdBatchResult("t1", 1, 200, "etag1", "pz1", "vsd1", null),
+            new VsdBatchResult("t1", 3, 304, null, null, null, null)),
+        response.results());
+  }
+
+  @Test
+  void testCardsOfDifferentTerminalsAreReadSeparately() {
+    when(mockVsdmClientService.readAsync(eq("t1"), eq(1), anyInt(), anyBoolean(), any(), any()))
+        .thenReturn(CompletableFuture.completedFuture(ResponseEntity.ok("vsd-t1")));
+    when(mockVsdmClientService.readAsync(eq("t2"), eq(1), anyInt(), anyBoolean(), any(), any()))
+        .thenReturn(CompletableFuture.completedFuture(ResponseEntity.ok("vsd-t2")));
+
+    final List<VsdBatchResult> results =
+        vsdmBatchService
+            .readBatch(
+                request(
+                    new VsdBatchRequest.Item("t1", 1, null),
+                    new VsdBatchRequest.Item("t2", 1, null)))
+            .join()
+            .results();
+
+    assertEquals("vsd-t1", results.get(0).body());
+    assertEquals("vsd-t2", results.get(1).body());
+  }
+
+  @Test
+  void testReadsStartOnBlockingIoExecutor() {
+    final ExecutorService executor =
+        Executors.newSingleThreadExecutor(Thread.ofPlatform().name("blocking-io-test").factory());
+    try {
+      vsdmBatchService = new VsdmBatchService(mockVsdmClientService, vsdmClientConfig, executor);
+      final List<String> threads = new ArrayList<>();
+      when(mockVsdmClientService.readAsync(
+              anyString(), anyInt(), anyInt(), anyBoolean(), any(), any()))
+          .thenAnswer(
+              invocation -> {
+                threads.add(Thread.currentThread().getName());
+                return CompletableFuture.completedFuture(ResponseEntity.ok("vsd"));
+              });
+
+      vsdmBatchService
+          .readBatch(
+              request(
+                  new VsdBatchRequest.Item("t1", 1, null),
+                  new VsdBatchRequest.Item("t1", 2, null)))
+          .join();
+
+      assertEquals(List.of("blocking-io-test", "blocking-io-test"), threads);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void testFailuresBecomeItemResults() {
+    when(mockVsdmClientService.readAsync(eq("t1"), eq(1), anyInt(), anyBoolean(), any(), any()))
+        .thenThrow(new ResponseStatusException(HttpStatus.NOT_FOUND, "No card found in slot 1"));
+    when(mockVsdmClientService.readAsync(eq("t1"), eq(2), anyInt(), anyBoolean(), any(), any()))
+        .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("unreachable")));
+
+    final List<VsdBatchResult> results =
+        vsdmBatchService
+            .readBatch(
+                request(
+                    new VsdBatchRequest.Item("t1", 1, null),
+                    new VsdBatchRequest.Item("t1", 2, null)))
+            .join()
+            .results();
+
+    assertEquals(404, results.get(0).status());
+    assertEquals("No card found in slot 1", results.get(0).errorMessage());
+    assertEquals(500, results.get(1).status());
+    assertEquals("unreachable", results.get(1).errorMessage());
+  }
+
+  @Test
+  void testFailingResultConversionCompletesBatch() {
+    vsdmClientConfig.getBatch().setMaxParallelReads(1);
+    when(mockVsdmClientService.readAsync(eq("t1"), eq(1), anyInt(), anyBoolean(), any(), any()))
+        .thenReturn(CompletableFuture.completedFuture(null));
+    when(mockVsdmClientService.readAsync(eq("t1"), eq(2), anyInt(), anyBoolean(), any(), any()))
+        .thenReturn(CompletableFuture.completedFuture(ResponseEntity.ok("vsd2")));
+
+    final List<VsdBatchResult> results =
+        vsdmBatchService
+            .readBatch(
+                request(
+                    new VsdBatchRequest.Item("t1", 1, null),
+                    new VsdBatchRequest.Item("t1", 2, null)))
+            .join()
+            .results();
+
+    assertEquals(500, results.get(0).status());
+    assertEquals(200, results.get(1).status());
+    assertEquals("vsd2", results.get(1).body());
+  }
+
+  @Test
+  void testParallelReadsAreBounded() {
+    vsdmClientConfig.getBatch().setMaxParallelReads(2);
+    final List<CompletableFuture<ResponseEntity<String>>> reads = new ArrayList<>();
+    when(mockVsdmClientService.readAsync(
+            anyString(), anyInt(), anyInt(), anyBoolean(), any(), any()))
+        .thenAnswer(
+            invocation -> {
+              final CompletableFuture<ResponseEntity<String>> read = new CompletableFuture<>();
+              reads.add(read);
+              return read;
+            });
+
+    final CompletableFuture<VsdBatchResponse> response =
+        vsdmBatchService.readBatch(
+            request(
+                IntStream.rangeClosed(1, 5)
+                    .mapToObj(slot -> new VsdBatchRequest.Item("t1", slot, null))
+                    .toArray(VsdBatchRequest.Item[]::new)));
+
+    assertEquals(2, reads.size());
+    reads.get(0).complete(ResponseEntity.ok("vsd"));
+    assertEquals(3, reads.size());
+    reads.get(1).complete(ResponseEntity.ok("vsd"));
+    reads.get(2).complete(ResponseEntity.ok("vsd"));
+    assertEquals(5, reads.size());
+    assertFalse(response.isDone());
+
+    reads.get(3).complete(ResponseEntity.ok("vsd"));
+    reads.get(4).complete(ResponseEntity.ok("vsd"));
+    assertEquals(5, response.join().results().size());
+  }
+
+  @Test
+  void testEmptyBatchIsRejected() {
+    final ResponseStatusException exception =
+        assertThrows(ResponseStatusException.class, () -> vsdmBatchService.readBatch(request()));
+    assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+  }
+
+  @Test
+  void testTooLargeBatchIsRejected() {
+    vsdmClientConfig.getBatch().setMaxItems(1);
+
+    final ResponseStatusException exception =
+        assertThrows(
+            ResponseStatusException.class,
+            () ->
+                vsdmBatchService.readBatch(
+                    request(
+                        new VsdBatchRequest.Item("t1", 1, null),
+                        new VsdBatchRequest.Item("t1", 2, null))));
+    assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+    verifyNoInteractions(mockVsdmClientService);
+  }
+
+  private static VsdBatchRequest request(final VsdBatchRequest.Item... items) {
+    return new VsdBatchRequest(SMCB_SLOT_ID, false, List.of(items));
+  }
+}
@@ -29,10 +29,12 @@ import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import com.google.common.util.concurrent.MoreExecutors;
 import de.gematik.bbriccs.fhir.EncodingType;
 import de.gematik.ti20.client.card.card.AttachedCard;
 import de.gematik.ti20.client.card.config.CardTerminalConnectionConfig;
 import de.gematik.ti20.client.card.config.SimulatorConnectionConfig;
+import de.gematik.ti20.client.card.terminal.CardTerminal;
 import de.gematik.ti20.client.card.terminal.CardTerminalException;
 import de.gematik.ti20.client.card.terminal.CardTerminalService;
 import de.gematik.ti20.client.card.terminal.simsvc.EgkInfo;
@@ -43,10 +45,15 @@ import de.gematik.ti20.simsvc.client.repository.VsdmCachedValue;
 import de.gematik.ti20.simsvc.client.repository.VsdmDataRepository;
 import de.gematik.ti20.vsdm.fhir.def.VsdmBundle;
 import io.ktor.client.plugins.ServerResponseException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import lombok.SneakyThrows;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
@@ -71,6 +78,7 @@ class VsdmClientServiceTest {
   private VsdmDataRepository mockVsdmDataRepository;
 
   private EgkInfo mockEgkInfo;
+  private CardTerminal mockTerminal;
   private SimulatorAttachedCard mockEgkCard;
 
   private final String terminalId = "terminal1";
@@ -89,10 +97,14 @@ class VsdmClientServiceTest {
     mockPoppClientAdapter = mock(PoppClientAdapter.class);
     mockCardTerminalService = mock(CardTerminalService.class);
 
+    mockTerminal = mock(CardTerminal.class);
+    when(mockTerminal.getName()).thenReturn(terminalId);
+
     mockEgkCard = mock(SimulatorAttachedCard.class);
     when(mockEgkCard.isEgk()).thenReturn(true);
     when(mockEgkCard.getSlotId()).thenReturn(1);
     when(mockEgkCard.getId()).thenReturn("card1");
+    when(mockEgkCard.getTerminal()).thenReturn(mockTerminal);
     mockEgkInfo = mock(EgkInfo.class);
     when(mockCardTerminalService.getEgkInfo(any())).thenReturn(mockEgkInfo);
     when(mockCardTerminalService.getAttachedCards()).thenReturn((List) Arrays.asList(mockEgkCard));
@@ -113,6 +125,7 @@ class VsdmClientServiceTest {
     when(mockEgkCard.isEgk()).thenReturn(true);
     when(mockEgkCard.getSlotId()).thenReturn(1);
     when(mockEgkCard.getId()).thenReturn("card1");
+    when(mockEgkCard.getTerminal()).thenReturn(mockTerminal);
 
     mockZetaSdkAdapter = mock(ZetaSdkClientAdapter.class);
 
@@ -125,7 +138,8 @@ class VsdmClientServiceTest {
             mockFhirService,
             mockPoppTokenRepository,
             mockVsdmDataRepository,
-            mockZetaSdkAdapter);
+            mockZetaSdkAdapter,
+            MoreExecutors.newDirectExecutorService());
   }
 
   @Nested
@@ -160,6 +174,53 @@ class VsdmClientServiceTest {
       verify(mockPoppTokenRepository).put(terminalId, egkSlotId, "card1", expectedToken);
     }
 
+    @Test
+    void testRequestPoppTokenAsync_ConcurrentCallsShareOneSession() {
+      final CompletableFuture<String> session = new CompletableFuture<>();
+      when(mockPoppClientAdapter.getPoppTokenAsync(any())).thenReturn(session);
+
+      final CompletableFuture<String> first =
+          vsdmClientService.requestPoppTokenAsync(terminalId, egkSlotId, smcBSlotId, mockEgkCard);
+      final CompletableFuture<String> second =
+          vsdmClientService.requestPoppTokenAsync(terminalId, egkSlotId, smcBSlotId, mockEgkCard);
+      session.complete("service-token");
+
+      assertEquals("service-token", first.join());
+      assertEquals("service-token", second.join());
+      verify(mockPoppClientAdapter, times(1)).getPoppTokenAsync(any());
+      verify(mockPoppTokenRepository, times(1)).put(terminalId, egkSlotId, cardId, "service-token");
+    }
+
+    @Test
+    void testRequestPoppTokenAsync_OtherCardsStartOwnSession() {
+      final SimulatorAttachedCard otherCard = mock(SimulatorAttachedCard.class);
+      when(otherCard.getId()).thenReturn("card2");
+      when(mockPoppClientAdapter.getPoppTokenAsync(any())).thenReturn(new CompletableFuture<>());
+
+      vsdmClientService.requestPoppTokenAsync(terminalId, egkSlotId, smcBSlotId, mockEgkCard);
+      vsdmClientService.requestPoppTokenAsync(terminalId, egkSlotId, smcBSlotId, otherCard);
+
+      verify(mockPoppClientAdapter, times(2)).getPoppTokenAsync(any());
+    }
+
+    @Test
+    void testRequestPoppTokenAsync_FailedSessionIsNotReused() {
+      when(mockPoppClientAdapter.getPoppTokenAsync(any()))
+          .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("no session")))
+          .thenReturn(CompletableFuture.completedFuture("service-token"));
+
+      final CompletableFuture<String> failed =
+          vsdmClientService.requestPoppTokenAsync(terminalId, egkSlotId, smcBSlotId, mockEgkCard);
+      final CompletionException exception = assertThrows(CompletionException.class, failed::join);
+      assertInstanceOf(ResponseStatusException.class, exception.getCause());
+
+      assertEquals(
+          "service-token",
+          vsdmClientService
+              .requestPoppTokenAsync(terminalId, egkSlotId, smcBSlotId, mockEgkCard)
+              .join());
+    }
+
     @Nested
     class MockedPoppToken {
 
@@ -181,7 +242,8 @@ class VsdmClientServiceTest {
                 mockFhirService,
                 mockPoppTokenRepository,
                 mockVsdmDataRepository,
-                mockZetaSdkAdapter);
+                mockZetaSdkAdapter,
+                MoreExecutors.newDirectExecutorService());
 
         when(mockCardTerminalService.getEgkInfo(any()))
             .thenReturn(
@@ -208,6 +270,24 @@ class VsdmClientServiceTest {
         verify(mockPoppTokenRepository, never()).get(any(), any(), any());
         verify(mockPoppClientAdapter, never()).getPoppToken(any());
       }
+
+      @Test
+      void testRequestPoppToken_CardFailureDoesNotContactPoppService() throws Exception {
+        vsdmClientConfig.setUseMockPoppToken(true);
+        when(mockCardTerminalService.getEgkInfo(any()))
+            .thenThrow(new CardTerminalException("card not readable"));
+
+        assertNull(
+            vsdmClientService.requestPoppToken(terminalId, egkSlotId, smcBSlotId, mockEgkCard));
+        assertNull(
+            vsdmClientService
+                .requestPoppTokenAsync(terminalId, egkSlotId, smcBSlotId, mockEgkCard)
+                .join());
+
+        verify(mockPoppTokenRepository, never()).get(any(), any(), any());
+        verify(mockPoppClientAdapter, never()).getPoppToken(any());
+        verify(mockPoppClientAdapter, never()).getPoppTokenAsync(any());
+      }
     }
 
     @Nested
@@ -230,24 +310,81 @@ class VsdmClientServiceTest {
             """);
 
         when(mockZetaSdkAdapter.httpGet(anyString(), any())).thenReturn(mockResponse);
-
-        VsdmBundle mockBundle = mock(VsdmBundle.class);
-        when(mockFhirService.parseString(anyString(), eq("json"), eq(VsdmBundle.class)))
-            .thenReturn(mockBundle);
-        when(mockFhirService.encodeResponse(mockBundle, EncodingType.JSON))
-            .thenReturn("encoded response");
+        when(mockFhirService.isBundle(anyString(), eq(EncodingType.JSON))).thenReturn(true);
 
         ResponseEntity<String> response =
             vsdmClientService.requestVsd(
                 terminalId, egkSlotId, mockEgkCard, poppToken, null, false);
 
+        // the body already is in the requested encoding, so it is passed through
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        assertEquals("encoded response", response.getBody());
+        assertEquals("{\"resourceType\":\"Bundle\"}", response.getBody());
+        verify(mockFhirService, never()).decode(anyString(), anyString(), any());
+        verify(mockFhirService, never()).validate(anyString());
         verify(mockVsdmDataRepository)
             .put(eq(terminalId), eq(egkSlotId), eq(cardId), any(VsdmCachedValue.class));
         verify(mockCardTerminalService, never()).getAttachedCards();
       }
 
+      @Test
+      @SneakyThrows
+      void testRequestVsd_MalformedBodyIsRejected() {
+        final ZetaSdkClientAdapter.Response mockResponse =
+            new ZetaSdkClientAdapter.Response(
+                HttpStatus.OK, Map.of("Content-Type", "application/fhir+json"), "{\"resource");
+        when(mockZetaSdkAdapter.httpGet(anyString(), any())).thenReturn(mockResponse);
+        when(mockFhirService.isBundle(anyString(), any())).thenReturn(false);
+
+        final ResponseStatusException exception =
+            assertThrows(
+                ResponseStatusException.class,
+                () ->
+                    vsdmClientService.requestVsd(
+                        terminalId, egkSlotId, mockEgkCard, poppToken, null, false));
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, exception.getStatusCode());
+        verify(mockVsdmDataRepository, never()).put(any(), any(), any(), any());
+      }
+
+      @Test
+      @SneakyThrows
+      void testRequestVsd_ValidatesWhenSampled() {
+        vsdmClientConfig.getFhirValidation().setSampleRate(1.0);
+        final ZetaSdkClientAdapter.Response mockResponse =
+            new ZetaSdkClientAdapter.Response(
+                HttpStatus.OK,
+                Map.of("Content-Type", "application/fhir+json"),
+                "{\"resourceType\":\"Bundle\"}");
+        when(mockZetaSdkAdapter.httpGet(anyString(), any())).thenReturn(mockResponse);
+        when(mockFhirService.isBundle(anyString(), any())).thenReturn(true);
+
+        vsdmClientService.requestVsd(terminalId, egkSlotId, mockEgkCard, poppToken, null, false);
+
+        verify(mockFhirService).validate("{\"resourceType\":\"Bundle\"}");
+      }
+
+      @Test
+      @SneakyThrows
+      void testRequestVsd_ConvertsOtherEncoding() {
+        final ZetaSdkClientAdapter.Response mockResponse =
+            new ZetaSdkClientAdapter.Response(
+                HttpStatus.OK,
+                Map.of("content-type", "application/fhir+json"),
+                "{\"resourceType\":\"Bundle\"}");
+        when(mockZetaSdkAdapter.httpGet(anyString(), any())).thenReturn(mockResponse);
+        VsdmBundle mockBundle = mock(VsdmBundle.class);
+        when(mockFhirService.decode(anyString(), eq("json"), eq(VsdmBundle.class)))
+            .thenReturn(mockBundle);
+        when(mockFhirService.encodeResponse(mockBundle, EncodingType.XML))
+            .thenReturn("encoded xml response");
+
+        ResponseEntity<String> response =
+            vsdmClientService.requestVsd(terminalId, egkSlotId, mockEgkCard, poppToken, null, true);
+
+        assertEquals("encoded xml response", response.getBody());
+        verify(mockFhirService, never()).validate(anyString());
+      }
+
       @Test
       @SneakyThrows
       void testRequestVsd_WithXmlFormat() {
@@ -263,7 +400,7 @@ class VsdmClientServiceTest {
         when(mockZetaSdkAdapter.httpGet(anyString(), any())).thenReturn(mockResponse);
 
         VsdmBundle mockBundle = mock(VsdmBundle.class);
-        when(mockFhirService.parseString(anyString(), eq("xml"), eq(VsdmBundle.class)))
+        when(mockFhirService.decode(anyString(), eq("xml"), eq(VsdmBundle.class)))
             .thenReturn(mockBundle);
         when(mockFhirService.encodeResponse(mockBundle, EncodingType.XML))
             .thenReturn("encoded xml response");
@@ -292,7 +429,8 @@ class VsdmClientServiceTest {
                 new FhirService(),
                 mockPoppTokenRepository,
                 mockVsdmDataRepository,
-                mockZetaSdkAdapter);
+                mockZetaSdkAdapter,
+                MoreExecutors.newDirectExecutorService());
 
         when(mockVsdmDataRepository.get(terminalId, egkSlotId, cardId)).thenReturn(null);
 
@@ -330,7 +468,7 @@ class VsdmClientServiceTest {
         when(mockZetaSdkAdapter.httpGet(anyString(), any())).thenReturn(mockResponse);
 
         VsdmBundle mockBundle = mock(VsdmBundle.class);
-        when(mockFhirService.parseString(anyString(), eq("json"), eq(VsdmBundle.class)))
+        when(mockFhirService.decode(anyString(), eq("json"), eq(VsdmBundle.class)))
             .thenReturn(mockBundle);
         when(mockFhirService.encodeResponse(mockBundle, EncodingType.JSON))
             .thenReturn("encoded response");
@@ -365,14 +503,15 @@ class VsdmClientServiceTest {
         // GIVEN a repository with a cached value
         final VsdmCachedValue cachedValue = mock(VsdmCachedValue.class);
         when(cachedValue.vsdmData()).thenReturn("The Data");
-        when(mockVsdmDataRepository.get(any(), any(), anyString())).thenReturn(cachedValue);
+        when(mockVsdmDataRepository.lookup(any(), any(), anyString()))
+            .thenReturn(new VsdmDataRepository.Lookup(cachedValue, false));
 
         // WHEN the client requests data from cache
         final ResponseEntity<String> response =
             vsdmClientService.requestVsd("terminal", 1, mockEgkCard, poppToken, "", false);
 
         // THEN the repository was accessed
-        verify(mockVsdmDataRepository, times(1)).get("terminal", 1, mockEgkCard.getId());
+        verify(mockVsdmDataRepository, times(1)).lookup("terminal", 1, mockEgkCard.getId());
 
         // AND the response matches
         assertThat(response.getBody()).isEqualTo("The Data");
@@ -389,7 +528,7 @@ class VsdmClientServiceTest {
             """);
         when(mockZetaSdkAdapter.httpGet(any(), any())).thenReturn(mockResponse);
         final VsdmBundle mockBundle = mock(VsdmBundle.class);
-        when(mockFhirService.parseString(anyString(), eq("json"), eq(VsdmBundle.class)))
+        when(mockFhirService.decode(anyString(), eq("json"), eq(VsdmBundle.class)))
             .thenReturn(mockBundle);
         when(mockFhirService.encodeResponse(mockBundle, EncodingType.JSON))
             .thenReturn("encoded response");
@@ -456,10 +595,49 @@ class VsdmClientServiceTest {
 
       @Test
       void thatGetAttachedCardWorks() {
-        final AttachedCard attachedCard = vsdmClientService.getAttachedCard("id", 1);
+        final AttachedCard attachedCard = vsdmClientService.getAttachedCard(terminalId, 1);
         assertThat(attachedCard).isNotNull();
       }
 
+      @Test
+      void thatMissingCardTriggersOneFreshEnumeration() throws CardTerminalException {
+        final SimulatorAttachedCard insertedCard = mock(SimulatorAttachedCard.class);
+        when(insertedCard.getSlotId()).thenReturn(2);
+        when(insertedCard.getTerminal()).thenReturn(mockTerminal);
+        when(mockCardTerminalService.getAttachedCards())
+            .thenReturn((List) List.of(mockEgkCard))
+            .thenReturn((List) List.of(mockEgkCard, insertedCard));
+
+        assertThat(vsdmClientService.getAttachedCard(terminalId, 2)).isSameAs(insertedCard);
+        verify(mockCardTerminalService).invalidateAttachedCards();
+      }
+
+      @Test
+      void thatCardsAreResolvedByTerminalAndSlot() throws CardTerminalException {
+        final CardTerminal otherTerminal = mock(CardTerminal.class);
+        when(otherTerminal.getName()).thenReturn("terminal2");
+        final SimulatorAttachedCard otherCard = mock(SimulatorAttachedCard.class);
+        when(otherCard.getSlotId()).thenReturn(1);
+        when(otherCard.getTerminal()).thenReturn(otherTerminal);
+        when(mockCardTerminalService.getAttachedCards())
+            .thenReturn((List) List.of(mockEgkCard, otherCard));
+
+        assertThat(vsdmClientService.getAttachedCard(terminalId, 1)).isSameAs(mockEgkCard);
+        assertThat(vsdmClientService.getAttachedCard("terminal2", 1)).isSameAs(otherCard);
+        assertThrows(
+            ResponseStatusException.class, () -> vsdmClientService.getAttachedCard("terminal3", 1));
+      }
+
+      @Test
+      void thatUnknownSlotIsNotFound() throws CardTerminalException {
+        final ResponseStatusException exception =
+            assertThrows(
+                ResponseStatusException.class,
+                () -> vsdmClientService.getAttachedCard(terminalId, 7));
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
+        verify(mockCardTerminalService, times(2)).getAttachedCards();
+      }
+
       @Test
       void thatPoppClientExceptionsAreHandled() throws CardTerminalException {
         when(mockCardTerminalService.getAttachedCards()).thenThrow(new RuntimeException());
@@ -490,4 +668,184 @@ class VsdmClientServiceTest {
       verify(mockFhirService, times(1)).encodeResponse(any(), any());
     }
   }
+
+  @Nested
+  class ReadAsync {
+
+    @Test
+    void testReadAsync_FetchesTokenAndVsdWithoutBlocking() {
+      final ZetaSdkClientAdapter.Response mockResponse =
+          new ZetaSdkClientAdapter.Response(
+              HttpStatus.OK, Map.of("etag", "new-etag"), "{\"resourceType\":\"Bundle\"}");
+      final CompletableFuture<String> poppTokenFuture = new CompletableFuture<>();
+      when(mockPoppClientAdapter.getPoppTokenAsync(any())).thenReturn(poppTokenFuture);
+      when(mockZetaSdkAdapter.httpGetAsync(anyString(), any()))
+          .thenReturn(CompletableFuture.completedFuture(mockResponse));
+      VsdmBundle mockBundle = mock(VsdmBundle.class);
+      when(mockFhirService.decode(anyString(), eq("json"), eq(VsdmBundle.class)))
+          .thenReturn(mockBundle);
+      when(mockFhirService.encodeResponse(mockBundle, EncodingType.JSON))
+          .thenReturn("encoded response");
+
+      final CompletableFuture<ResponseEntity<String>> response =
+          vsdmClientService.readAsync(terminalId, egkSlotId, smcBSlotId, false, null, null);
+
+      // nothing is sent to the VSDM server before the PoPP token arrived
+      assertFalse(response.isDone());
+      verifyNoInteractions(mockZetaSdkAdapter);
+
+      poppTokenFuture.complete(poppToken);
+
+      assertEquals("encoded response", response.join().getBody());
+      verify(mockPoppTokenRepository).put(terminalId, egkSlotId, cardId, poppToken);
+      final ArgumentCaptor<ZetaSdkClientAdapter.RequestParameters> requestCaptor =
+          ArgumentCaptor.forClass(ZetaSdkClientAdapter.RequestParameters.class);
+      verify(mockZetaSdkAdapter).httpGetAsync(anyString(), requestCaptor.capture());
+      assertEquals(poppToken, requestCaptor.getValue().poppToken());
+    }
+
+    @Test
+    void testReadAsync_ServerUnreachable() throws Exception {
+      final ServerResponseException serverResponseException = mock(ServerResponseException.class);
+      when(mockZetaSdkAdapter.httpGetAsync(anyString(), any()))
+          .thenReturn(CompletableFuture.failedFuture(serverResponseException));
+
+      final CompletableFuture<ResponseEntity<String>> response =
+          vsdmClientService.readAsync(terminalId, egkSlotId, smcBSlotId, false, poppToken, null);
+
+      // no attached card is looked up for an injected token, so there is no fallback
+      final CompletionException exception =
+          assertThrows(CompletionException.class, response::join);
+      assertInstanceOf(ResponseStatusException.class, exception.getCause());
+      verify(mockCardTerminalService, never()).getAttachedCards();
+    }
+
+    @Test
+    void testReadAsync_CardFallbackRunsOnBlockingIoExecutor() throws Exception {
+      final ExecutorService executor =
+          Executors.newSingleThreadExecutor(Thread.ofPlatform().name("blocking-io-test").factory());
+      try {
+        vsdmClientService =
+            new VsdmClientService(
+                vsdmClientConfig,
+                mockPoppTokenService,
+                mockCardTerminalService,
+                mockPoppClientAdapter,
+                mockFhirService,
+                mockPoppTokenRepository,
+                mockVsdmDataRepository,
+                mockZetaSdkAdapter,
+                executor);
+        when(mockPoppClientAdapter.getPoppTokenAsync(any()))
+            .thenReturn(CompletableFuture.completedFuture(poppToken));
+        when(mockZetaSdkAdapter.httpGetAsync(anyString(), any()))
+            .thenReturn(CompletableFuture.failedFuture(mock(ServerResponseException.class)));
+        final List<String> threads = new ArrayList<>();
+        when(mockCardTerminalService.getEgkInfo(any()))
+            .thenAnswer(
+                invocation -> {
+                  threads.add(Thread.currentThread().getName());
+                  return new EgkInfo(
+                      "kvnr",
+                      "iknr",
+                      "patient",
+                      "first",
+                      "last",
+                      "2000",
+                      "insurance",
+                      "card",
+                      "2012",
+                      "true");
+                });
+
+        vsdmClientService.readAsync(terminalId, egkSlotId, smcBSlotId, false, null, null).join();
+
+        assertEquals(List.of("blocking-io-test"), threads);
+      } finally {
+        executor.shutdownNow();
+      }
+    }
+
+    @Test
+    void testReadAsync_PoppTokenFailure() {
+      when(mockPoppClientAdapter.getPoppTokenAsync(any()))
+          .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("no session")));
+
+      final CompletableFuture<ResponseEntity<String>> response =
+          vsdmClientService.readAsync(terminalId, egkSlotId, smcBSlotId, false, null, null);
+
+      final CompletionException exception =
+          assertThrows(CompletionException.class, response::join);
+      assertInstanceOf(ResponseStatusException.class, exception.getCause());
+      verifyNoInteractions(mockZetaSdkAdapter);
+    }
+  }
+
+  @Nested
+  class StaleWhileRevalidate {
+
+    private final VsdmCachedValue staleValue = new VsdmCachedValue("old-etag", "old-pz", "old data");
+
+    @BeforeEach
+    void setUpStaleEntry() {
+      when(mockVsdmDataRepository.lookup(terminalId, egkSlotId, cardId))
+          .thenReturn(new VsdmDataRepository.Lookup(staleValue, true));
+      when(mockVsdmDataRepository.get(terminalId, egkSlotId, cardId)).thenReturn(staleValue);
+    }
+
+    @Test
+    void testStaleValueIsServedAndRenewedOnNotModified() {
+      final CompletableFuture<ZetaSdkClientAdapter.Response> revalidation =
+          new CompletableFuture<>();
+      when(mockZetaSdkAdapter.httpGetAsync(anyString(), any())).thenReturn(revalidation);
+
+      final ResponseEntity<String> response =
+          vsdmClientService.requestVsd(terminalId, egkSlotId, mockEgkCard, poppToken, null, false);
+
+      // served from the cache before the server answered
+      assertEquals("old data", response.getBody());
+      final ArgumentCaptor<ZetaSdkClientAdapter.RequestParameters> requestCaptor =
+          ArgumentCaptor.forClass(ZetaSdkClientAdapter.RequestParameters.class);
+      verify(mockZetaSdkAdapter).httpGetAsync(anyString(), requestCaptor.capture());
+      assertEquals("old-etag", requestCaptor.getValue().ifNoneMatch());
+
+      revalidation.complete(
+          new ZetaSdkClientAdapter.Response(
+              HttpStatus.NOT_MODIFIED,
+              Map.of(
+                  VsdmClientService.HEADER_ETAG, "new-etag",
+                  VsdmClientService.HEADER_VSDM_PZ, "new-pz"),
+              ""));
+
+      verify(mockVsdmDataRepository)
+          .put(terminalId, egkSlotId, cardId, new VsdmCachedValue("new-etag", "new-pz", "old data"));
+    }
+
+    @Test
+    void testOnlyOneRevalidationPerCard() {
+      when(mockZetaSdkAdapter.httpGetAsync(anyString(), any()))
+          .thenReturn(new CompletableFuture<>());
+
+      vsdmClientService.requestVsd(terminalId, egkSlotId, mockEgkCard, poppToken, null, false);
+      vsdmClientService.requestVsd(terminalId, egkSlotId, mockEgkCard, poppToken, null, false);
+
+      verify(mockZetaSdkAdapter, times(1)).httpGetAsync(anyString(), any());
+    }
+
+    @Test
+    void testFailedRevalidationKeepsStaleValue() {
+      when(mockZetaSdkAdapter.httpGetAsync(anyString(), any()))
+          .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("unreachable")));
+
+      final ResponseEntity<String> response =
+          vsdmClientService.requestVsd(terminalId, egkSlotId, mockEgkCard, poppToken, null, false);
+
+      assertEquals("old data", response.getBody());
+      verify(mockVsdmDataRepository, never()).put(any(), any(), any(), any());
+
+      // the next read tries again
+      vsdmClientService.requestVsd(terminalId, egkSlotId, mockEgkCard, poppToken, null, false);
+      verify(mockZetaSdkAdapter, times(2)).httpGetAsync(anyString(), any());
+    }
+  }
 }
@@ -0,0 +1,199 @@
+/*-
+ * #%L
+ * VSDM Client Simulator Service
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.ti20.simsvc.client.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import de.gematik.ti20.simsvc.client.config.VsdmClientConfig;
+import de.gematik.zeta.sdk.ZetaSdkClient;
+import de.gematik.zeta.sdk.network.http.client.ZetaHttpClient;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ZetaHttpClientPoolTest {
+
+  private ZetaSdkClient zetaClient;
+  private ZetaHttpClient client1;
+  private ZetaHttpClient client2;
+  private MutableClock clock;
+  private VsdmClientConfig.ZetaClient config;
+
+  @BeforeEach
+  void setUp() {
+    zetaClient = mock(ZetaSdkClient.class);
+    client1 = mock(ZetaHttpClient.class);
+    client2 = mock(ZetaHttpClient.class);
+    when(zetaClient.httpClient(any())).thenReturn(client1, client2);
+    clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+    config = new VsdmClientConfig.ZetaClient();
+  }
+
+  @Test
+  void testAcquire_ReusesClient() throws Exception {
+    ZetaHttpClientPool pool = new ZetaHttpClientPool(zetaClient, config, clock);
+
+    try (ZetaHttpClientPool.Lease lease = pool.acquire()) {
+      assertSame(client1, lease.client());
+    }
+    try (ZetaHttpClientPool.Lease lease = pool.acquire()) {
+      assertSame(client1, lease.client());
+    }
+
+    verify(zetaClient, times(1)).httpClient(any());
+    verify(client1, never()).close();
+  }
+
+  @Test
+  void testAcquire_SpreadsOverPool() throws Exception {
+    config.setPoolSize(2);
+    ZetaHttpClientPool pool = new ZetaHttpClientPool(zetaClient, config, clock);
+
+    try (ZetaHttpClientPool.Lease lease1 = pool.acquire();
+        ZetaHttpClientPool.Lease lease2 = pool.acquire()) {
+      assertNotSame(lease1.client(), lease2.client());
+    }
+  }
+
+  @Test
+  void testAcquire_ReplacesExpiredClientAfterLastRequest() throws Exception {
+    config.setMaxLifetime(Duration.ofMinutes(5));
+    ZetaHttpClientPool pool = new ZetaHttpClientPool(zetaClient, config, clock);
+
+    ZetaHttpClientPool.Lease running = pool.acquire();
+    clock.advance(Duration.ofMinutes(5));
+
+    try (ZetaHttpClientPool.Lease lease = pool.acquire()) {
+      assertSame(client2, lease.client());
+    }
+    // still used by the running request
+    verify(client1, never()).close();
+
+    running.close();
+    verify(client1).close();
+  }
+
+  @Test
+  void testAcquire_LimitsConcurrentRequests() throws Exception {
+    config.setMaxConcurrentRequests(1);
+    ZetaHttpClientPool pool = new ZetaHttpClientPool(zetaClient, config, clock);
+
+    ZetaHttpClientPool.Lease first = pool.acquire();
+    Thread waiting =
+        Thread.ofVirtual()
+            .start(
+                () -> {
+                  try (ZetaHttpClientPool.Lease lease = pool.acquire()) {
+                    assertSame(client1, lease.client());
+                  } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                  }
+                });
+
+    assertFalse(waiting.join(Duration.ofMillis(100)));
+    first.close();
+    // closing twice must not hand out a second permit
+    first.close();
+    assertTrue(waiting.join(Duration.ofSeconds(5)));
+  }
+
+  @Test
+  void testAcquireAsync_WaitsForFreeSlot() throws Exception {
+    config.setMaxConcurrentRequests(1);
+    ZetaHttpClientPool pool = new ZetaHttpClientPool(zetaClient, config, clock);
+
+    ZetaHttpClientPool.Lease first = pool.acquire();
+    CompletableFuture<ZetaHttpClientPool.Lease> cancelled = pool.acquireAsync();
+    CompletableFuture<ZetaHttpClientPool.Lease> waiting = pool.acquireAsync();
+    cancelled.cancel(false);
+    assertFalse(waiting.isDone());
+
+    first.close();
+
+    // the slot skips the cancelled request
+    assertTrue(waiting.isDone());
+    waiting.join().close();
+    try (ZetaHttpClientPool.Lease lease = pool.acquireAsync().getNow(null)) {
+      assertNotNull(lease);
+    }
+  }
+
+  @Test
+  void testClose_FailsWaitingRequests() throws Exception {
+    config.setMaxConcurrentRequests(1);
+    ZetaHttpClientPool pool = new ZetaHttpClientPool(zetaClient, config, clock);
+    pool.acquire();
+    CompletableFuture<ZetaHttpClientPool.Lease> waiting = pool.acquireAsync();
+
+    pool.close();
+
+    assertTrue(waiting.isCompletedExceptionally());
+  }
+
+  @Test
+  void testClose_ClosesClients() throws Exception {
+    ZetaHttpClientPool pool = new ZetaHttpClientPool(zetaClient, config, clock);
+    pool.acquire().close();
+
+    pool.close();
+
+    verify(client1).close();
+    assertThrows(IllegalStateException.class, pool::acquire);
+  }
+
+  private static final class MutableClock extends Clock {
+    private Instant now;
+
+    private MutableClock(final Instant now) {
+      this.now = now;
+    }
+
+    private void advance(final Duration duration) {
+      now = now.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(final ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+  }
+}
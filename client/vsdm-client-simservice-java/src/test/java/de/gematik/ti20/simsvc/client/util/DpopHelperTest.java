@@ -224,6 +224,36 @@ class DpopHelperTest {
         .isInstanceOf(Exception.class);
   }
 
+  @Test
+  void signer_reusedForSeveralProofs() throws Exception {
+    DpopHelper.Signer signer = new DpopHelper.Signer(publicKeyPem, privateKeyPem);
+
+    String dpop1 = signer.sign("GET", "https://example.com/a", null);
+    String dpop2 = signer.sign("POST", "https://example.com/b", "ath");
+
+    String[] parts1 = dpop1.split("\\.");
+    String[] parts2 = dpop2.split("\\.");
+    assertThat(parts1[0]).isEqualTo(parts2[0]);
+    assertThat(parts1[1]).isNotEqualTo(parts2[1]);
+    JsonNode payload = new ObjectMapper().readTree(decodeBase64Url(parts2[1]));
+    assertThat(payload.get("htm").asText()).isEqualTo("POST");
+    assertThat(payload.get("ath").asText()).isEqualTo("ath");
+  }
+
+  @Test
+  void signer_headerMatchesCreateDpop() throws Exception {
+    String signed = new DpopHelper.Signer(publicKeyPem, privateKeyPem).sign("GET", "u", null);
+    String created = DpopHelper.createDpop(publicKeyPem, privateKeyPem, "GET", "u", null);
+
+    assertThat(signed.split("\\.")[0]).isEqualTo(created.split("\\.")[0]);
+  }
+
+  @Test
+  void signer_withInvalidKey_throws() {
+    assertThatThrownBy(() -> new DpopHelper.Signer(privateKeyPem, privateKeyPem))
+        .isInstanceOf(DpopHelper.DpopException.class);
+  }
+
   private static String decodeBase64Url(String encoded) {
     return new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
   }
@@ -0,0 +1,120 @@
+/*-
+ * #%L
+ * VSDM 2.0 Testsuite
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.ti20.simsvc.client.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import kotlin.Unit;
+import kotlin.coroutines.Continuation;
+import org.junit.jupiter.api.Test;
+
+class StorageInterceptorTest {
+
+  @SuppressWarnings("unchecked")
+  private final Continuation<Object> continuation = mock(Continuation.class);
+
+  private final StorageInterceptor storage = new StorageInterceptor();
+
+  @Test
+  void thatValuesAreStoredAndRemoved() {
+    assertThat(storage.put("key", "value", continuation)).isEqualTo(Unit.INSTANCE);
+    assertThat(storage.get("key", continuation)).isEqualTo("value");
+
+    assertThat(storage.remove("key", continuation)).isEqualTo(Unit.INSTANCE);
+    assertThat(storage.get("key", continuation)).isNull();
+  }
+
+  @Test
+  void thatClearRemovesEverything() {
+    storage.put("at:client", "token", continuation);
+    storage.put(StorageInterceptor.DPOP_PUBLIC_KEY, "public", continuation);
+
+    storage.clear(continuation);
+
+    assertThat(storage.getCache()).isEmpty();
+    assertThat(storage.getAccessToken()).isEmpty();
+    assertThat(storage.getDpopPublicKey()).isEmpty();
+  }
+
+  @Test
+  void thatLatestAccessTokenIsReturned() {
+    storage.put("at:first", "token1", continuation);
+    storage.put("other", "value", continuation);
+    storage.put("at:second", "token2", continuation);
+
+    assertThat(storage.getAccessToken()).isEqualTo("token2");
+
+    storage.remove("at:second", continuation);
+    assertThat(storage.getAccessToken()).isEqualTo("token1");
+
+    storage.remove("at:first", continuation);
+    assertThat(storage.getAccessToken()).isEmpty();
+  }
+
+  @Test
+  void thatDpopKeysAreReturned() {
+    storage.put(StorageInterceptor.DPOP_PUBLIC_KEY, "public", continuation);
+    storage.put(StorageInterceptor.DPOP_PRIVATE_KEY, "private", continuation);
+
+    assertThat(storage.getDpopPublicKey()).isEqualTo("public");
+    assertThat(storage.getDpopPrivateKey()).isEqualTo("private");
+  }
+
+  @Test
+  void thatParallelWritesAreKept() throws InterruptedException {
+    final int threads = 8;
+    final int keysPerThread = 500;
+    final ExecutorService executor = Executors.newFixedThreadPool(threads);
+    final CountDownLatch start = new CountDownLatch(1);
+    try {
+      for (int t = 0; t < threads; t++) {
+        final int thread = t;
+        executor.execute(
+            () -> {
+              try {
+                start.await();
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+              }
+              for (int i = 0; i < keysPerThread; i++) {
+                storage.put("key-" + thread + "-" + i, "value", continuation);
+              }
+            });
+      }
+      start.countDown();
+    } finally {
+      executor.shutdown();
+    }
+    assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+    assertThat(storage.getCache()).hasSize(threads * keysPerThread);
+  }
+}
@@ -33,8 +33,13 @@ import de.gematik.ti20.client.card.terminal.connector.ConnectorCardTerminal;
 import de.gematik.ti20.client.card.terminal.pcsc.PcScCardTerminal;
 import de.gematik.ti20.client.card.terminal.simsvc.EgkInfo;
 import de.gematik.ti20.client.card.terminal.simsvc.SimulatorCardTerminal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.smartcardio.CardException;
 import javax.smartcardio.CardTerminals;
 import javax.smartcardio.TerminalFactory;
@@ -47,9 +52,23 @@ public class CardTerminalService {
   private static final Logger log = LoggerFactory.getLogger(CardTerminalService.class);
 
   private final List<CardTerminalConnectionConfig> connectionConfigs;
+  private final Clock clock;
+
+  // cards of all terminals as last enumerated, null if they have to be enumerated again
+  private volatile AttachedCards attachedCards;
+  // bumped on every invalidation, so an enumeration running meanwhile is not cached
+  private final AtomicLong attachedCardsGeneration = new AtomicLong();
+  private Duration attachedCardsTtl = Duration.ZERO;
+
+  private record AttachedCards(List<? extends AttachedCard> cards, Instant loadedAt) {}
 
   public CardTerminalService(final List<CardTerminalConnectionConfig> configs) {
+    this(configs, Clock.systemUTC());
+  }
+
+  CardTerminalService(final List<CardTerminalConnectionConfig> configs, final Clock clock) {
     connectionConfigs = configs != null ? configs : new ArrayList<>();
+    this.clock = clock;
   }
 
   public List<CardTerminalConnectionConfig> getTerminalConnectionConfigs() {
@@ -59,6 +78,7 @@ public class CardTerminalService {
   public void addTerminalConnectionConfig(final CardTerminalConnectionConfig config) {
     if (config != null) {
       connectionConfigs.add(config);
+      invalidateAttachedCards();
     } else {
       log.warn("Attempted to add null terminal connection configuration");
     }
@@ -68,6 +88,7 @@ public class CardTerminalService {
     if (configs != null) {
       connectionConfigs.clear();
       connectionConfigs.addAll(configs);
+      invalidateAttachedCards();
     } else {
       log.warn("Attempted to set null terminal connection configurations");
     }
@@ -100,13 +121,64 @@ public class CardTerminalService {
     return terminals;
   }
 
+  public Duration getAttachedCardsTtl() {
+    return attachedCardsTtl;
+  }
+
+  /**
+   * Sets how long the enumerated cards are reused before the terminals are asked again. With a
+   * zero duration, every call of {@link #getAttachedCards()} enumerates all terminals.
+   *
+   * @param attachedCardsTtl the time the attached cards are cached
+   */
+  public void setAttachedCardsTtl(final Duration attachedCardsTtl) {
+    this.attachedCardsTtl = attachedCardsTtl != null ? attachedCardsTtl : Duration.ZERO;
+    invalidateAttachedCards();
+  }
+
+  /**
+   * Drops the cached attached cards, so the next call of {@link #getAttachedCards()} enumerates all
+   * terminals again. Call this when a card was inserted or removed.
+   */
+  public void invalidateAttachedCards() {
+    attachedCardsGeneration.incrementAndGet();
+    attachedCards = null;
+  }
+
   /**
    * Returns a list of all cards currently attached to all available terminals based on the provided
-   * configurations.
+   * configurations. The list is cached for the configured TTL and the same instance is returned
+   * until it is enumerated again.
    *
    * @return list of attached cards
    */
   public List<? extends AttachedCard> getAttachedCards() throws CardTerminalException {
+    if (attachedCardsTtl.isZero()) {
+      return loadAttachedCards();
+    }
+
+    AttachedCards cached = attachedCards;
+    if (isFresh(cached)) {
+      return cached.cards();
+    }
+    synchronized (this) {
+      cached = attachedCards;
+      if (!isFresh(cached)) {
+        final long generation = attachedCardsGeneration.get();
+        cached = new AttachedCards(loadAttachedCards(), clock.instant());
+        if (generation == attachedCardsGeneration.get()) {
+          attachedCards = cached;
+        }
+      }
+      return cached.cards();
+    }
+  }
+
+  private boolean isFresh(final AttachedCards cached) {
+    return cached != null && clock.instant().isBefore(cached.loadedAt().plus(attachedCardsTtl));
+  }
+
+  private List<? extends AttachedCard> loadAttachedCards() throws CardTerminalException {
     var terminals = getAvailableTerminals();
 
     final List<AttachedCard> cards = new ArrayList<>();
@@ -114,7 +186,7 @@ public class CardTerminalService {
       cards.addAll(terminal.getAttachedCards());
     }
 
-    return cards;
+    return Collections.unmodifiableList(cards);
   }
 
   public EgkInfo getEgkInfo(final AttachedCard attachedCard) throws CardTerminalException {
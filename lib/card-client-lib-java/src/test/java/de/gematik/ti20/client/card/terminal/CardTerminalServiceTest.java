@@ -27,7 +27,13 @@ package de.gematik.ti20.client.card.terminal;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import de.gematik.ti20.client.card.card.AttachedCard;
 import de.gematik.ti20.client.card.config.CardTerminalConnectionConfig;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
@@ -152,4 +158,83 @@ class CardTerminalServiceTest {
           }
         });
   }
+
+  @Test
+  void testGetAttachedCards_withoutTtlEnumeratesEveryTime() throws CardTerminalException {
+    CardTerminalService s = spy(new CardTerminalService(new ArrayList<>(List.of(config))));
+    CardTerminal cardTerminal = mockTerminalWithCard();
+    doReturn(List.of(cardTerminal)).when(s).getAvailableTerminals();
+
+    s.getAttachedCards();
+    s.getAttachedCards();
+
+    verify(s, times(2)).getAvailableTerminals();
+    verify(cardTerminal, times(2)).getAttachedCards();
+  }
+
+  @Test
+  void testGetAttachedCards_cachedWithinTtl() throws CardTerminalException {
+    MutableClock clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+    CardTerminalService s = spy(new CardTerminalService(new ArrayList<>(List.of(config)), clock));
+    s.setAttachedCardsTtl(Duration.ofSeconds(5));
+    CardTerminal cardTerminal = mockTerminalWithCard();
+    doReturn(List.of(cardTerminal)).when(s).getAvailableTerminals();
+
+    List<? extends AttachedCard> first = s.getAttachedCards();
+    clock.now = clock.now.plusSeconds(4);
+    assertSame(first, s.getAttachedCards());
+    verify(cardTerminal, times(1)).getAttachedCards();
+
+    clock.now = clock.now.plusSeconds(1);
+    List<? extends AttachedCard> reloaded = s.getAttachedCards();
+    assertNotSame(first, reloaded);
+    assertEquals(1, reloaded.size());
+    verify(cardTerminal, times(2)).getAttachedCards();
+  }
+
+  @Test
+  void testGetAttachedCards_invalidatedOnConfigChange() throws CardTerminalException {
+    CardTerminalService s = spy(new CardTerminalService(new ArrayList<>(List.of(config))));
+    s.setAttachedCardsTtl(Duration.ofMinutes(1));
+    CardTerminal cardTerminal = mockTerminalWithCard();
+    doReturn(List.of(cardTerminal)).when(s).getAvailableTerminals();
+
+    s.getAttachedCards();
+    s.setTerminalConnectionConfigs(List.of(config));
+    s.getAttachedCards();
+    s.invalidateAttachedCards();
+    s.getAttachedCards();
+
+    verify(cardTerminal, times(3)).getAttachedCards();
+  }
+
+  private CardTerminal mockTerminalWithCard() throws CardTerminalException {
+    CardTerminal cardTerminal = mock(CardTerminal.class);
+    AttachedCard card = mock(AttachedCard.class);
+    doReturn(List.of(card)).when(cardTerminal).getAttachedCards();
+    return cardTerminal;
+  }
+
+  private static final class MutableClock extends Clock {
+    private Instant now;
+
+    private MutableClock(final Instant now) {
+      this.now = now;
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(final ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+  }
 }
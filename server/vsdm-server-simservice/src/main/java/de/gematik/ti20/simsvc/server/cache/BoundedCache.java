@@ -0,0 +1,122 @@
+/*-
+ * #%L
+ * VSDM Server Simservice
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.ti20.simsvc.server.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * A small thread-safe cache that holds at most {@code maxSize} entries, backed by Caffeine. Once
+ * the limit is exceeded, entries are evicted by Caffeine's size based policy, which favours
+ * recently and frequently used entries. Optionally every entry expires {@code ttl} after it has
+ * been written. A {@code maxSize} of zero disables the cache, every lookup is then a miss and
+ * nothing is stored.
+ *
+ * <p>Lookups do not share a global lock. Loaders passed to {@link #computeIfAbsent} run at most
+ * once per missing key at a time; concurrent callers of the same key wait for that value, lookups
+ * of other keys are not blocked.
+ */
+public class BoundedCache<K, V> {
+
+  private final int maxSize;
+  private final Cache<K, V> entries;
+
+  public BoundedCache(final int maxSize) {
+    this(maxSize, null);
+  }
+
+  public BoundedCache(final int maxSize, final Duration ttl) {
+    this(maxSize, ttl, Clock.systemUTC());
+  }
+
+  public BoundedCache(final int maxSize, final Duration ttl, final Clock clock) {
+    if (maxSize < 0) {
+      throw new IllegalArgumentException("maxSize must not be negative: " + maxSize);
+    }
+    if (ttl != null && (ttl.isNegative() || ttl.isZero())) {
+      throw new IllegalArgumentException("ttl must be positive: " + ttl);
+    }
+    this.maxSize = maxSize;
+    // maintenance runs on the calling thread, so evictions are visible right after a write
+    final Caffeine<Object, Object> builder =
+        Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .executor(Runnable::run)
+            .ticker(() -> TimeUnit.MILLISECONDS.toNanos(clock.millis()))
+            .recordStats();
+    if (ttl != null) {
+      builder.expireAfterWrite(ttl);
+    }
+    this.entries = builder.build();
+  }
+
+  public V get(final K key) {
+    return entries.getIfPresent(key);
+  }
+
+  public void put(final K key, final V value) {
+    if (maxSize == 0 || value == null) {
+      return;
+    }
+    entries.put(key, value);
+  }
+
+  public V computeIfAbsent(final K key, final Function<? super K, ? extends V> loader) {
+    if (maxSize == 0) {
+      entries.getIfPresent(key);
+      return loader.apply(key);
+    }
+    return entries.get(key, loader);
+  }
+
+  public void invalidate(final K key) {
+    entries.invalidate(key);
+  }
+
+  public void invalidateAll() {
+    entries.invalidateAll();
+  }
+
+  public int size() {
+    entries.cleanUp();
+    return (int) entries.estimatedSize();
+  }
+
+  /**
+   * Get the statistics of this cache. Evictions count entries removed because of the size limit or
+   * because they expired.
+   *
+   * @return Snapshot of the cache statistics
+   */
+  public CacheStats stats() {
+    final com.github.benmanes.caffeine.cache.stats.CacheStats stats = entries.stats();
+    return new CacheStats(
+        size(), maxSize, stats.hitCount(), stats.missCount(), stats.evictionCount());
+  }
+}
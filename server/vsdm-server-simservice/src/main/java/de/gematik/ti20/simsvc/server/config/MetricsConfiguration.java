@@ -0,0 +1,77 @@
+/*-
+ * #%L
+ * VSDM Server Simservice
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.ti20.simsvc.server.config;
+
+import de.gematik.ti20.simsvc.server.cache.CacheStats;
+import de.gematik.ti20.simsvc.server.service.ChecksumService;
+import de.gematik.ti20.simsvc.server.service.EtagService;
+import de.gematik.ti20.simsvc.server.service.PoppTokenContentService;
+import de.gematik.ti20.simsvc.server.service.UserInfoValidationService;
+import de.gematik.ti20.simsvc.server.service.VsdmResponseCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.function.Supplier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfiguration {
+
+  public static final String CACHE_PREFIX = "vsdm.cache";
+
+  @Bean
+  public MeterBinder vsdmCacheMetrics(
+      final VsdmResponseCache responseCache,
+      final EtagService etagService,
+      final ChecksumService checksumService,
+      final UserInfoValidationService userInfoValidationService,
+      final PoppTokenContentService poppTokenContentService) {
+    return registry -> {
+      bindCache(registry, "response", responseCache::stats);
+      bindCache(registry, "etag", etagService::stats);
+      bindCache(registry, "checksum", checksumService::stats);
+      bindCache(registry, "user_info", userInfoValidationService::stats);
+      bindCache(registry, "popp_token", poppTokenContentService::stats);
+    };
+  }
+
+  static void bindCache(
+      final MeterRegistry registry, final String name, final Supplier<CacheStats> stats) {
+    Gauge.builder(CACHE_PREFIX + ".size", stats, s -> s.get().size())
+        .tag("cache", name)
+        .register(registry);
+    FunctionCounter.builder(CACHE_PREFIX + ".hits", stats, s -> s.get().hits())
+        .tag("cache", name)
+        .register(registry);
+    FunctionCounter.builder(CACHE_PREFIX + ".misses", stats, s -> s.get().misses())
+        .tag("cache", name)
+        .register(registry);
+    FunctionCounter.builder(CACHE_PREFIX + ".evictions", stats, s -> s.get().evictions())
+        .tag("cache", name)
+        .register(registry);
+  }
+}
@@ -38,16 +38,20 @@ public class TestDataConfiguration {
   @Bean
   public TestDataManager testDataManager(
       @Value("${vsdm.path-to-test-data}") final String pathToTestData) {
+    return loadTestData(resolveTestDataPath(pathToTestData));
+  }
+
+  public static Path resolveTestDataPath(final String pathToTestData) {
     final Path rawPath = Path.of(pathToTestData);
-    final Path testDataPath;
     if (rawPath.isAbsolute()) {
-      testDataPath = rawPath;
-    } else {
-      // In case we get passed a relative like ../../data we concatenate that with the current
-      // directory . and navigate from there.
-      testDataPath = Path.of(".", pathToTestData).toAbsolutePath().normalize();
+      return rawPath;
     }
+    // In case we get passed a relative like ../../data we concatenate that with the current
+    // directory . and navigate from there.
+    return Path.of(".", pathToTestData).toAbsolutePath().normalize();
+  }
 
+  public static TestDataManager loadTestData(final Path testDataPath) {
     log.info("Loading test data from '{}'", testDataPath);
     return TestDataManager.initializeWithClasspath(Set.of(testDataPath));
   }
@@ -0,0 +1,131 @@
+/*-
+ * #%L
+ * VSDM Server Simservice
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.ti20.simsvc.server.config;
+
+import de.gematik.ti20.simsvc.server.repository.TestDataRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Watches the test data folder and triggers a {@link TestDataRepository#reload()} whenever a file
+ * in it changes. Only active if {@code vsdm.watch-test-data} is set to {@code true}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "vsdm.watch-test-data", havingValue = "true")
+public class TestDataWatcher {
+
+  // editors usually write a file in several steps, so we wait for the folder to settle
+  private static final long DEBOUNCE_MILLIS = 500;
+
+  private final TestDataRepository testDataRepository;
+  private final Path testDataPath;
+
+  private WatchService watchService;
+  private Thread watchThread;
+
+  public TestDataWatcher(
+      final TestDataRepository testDataRepository,
+      @Value("${vsdm.path-to-test-data}") final String pathToTestData) {
+    this.testDataRepository = testDataRepository;
+    this.testDataPath = TestDataConfiguration.resolveTestDataPath(pathToTestData);
+  }
+
+  @PostConstruct
+  public void start() throws IOException {
+    watchService = FileSystems.getDefault().newWatchService();
+    registerRecursively(testDataPath);
+
+    watchThread = new Thread(this::watch, "test-data-watcher");
+    watchThread.setDaemon(true);
+    watchThread.start();
+    log.info("Watching test data in '{}' for changes", testDataPath);
+  }
+
+  @PreDestroy
+  public void stop() throws IOException {
+    watchService.close();
+    watchThread.interrupt();
+  }
+
+  private void watch() {
+    try {
+      while (!Thread.currentThread().isInterrupted()) {
+        WatchKey key = watchService.take();
+        do {
+          key.pollEvents();
+          key.reset();
+          key = watchService.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+        } while (key != null);
+
+        // new sub folders have to be watched as well
+        registerRecursively(testDataPath);
+        reload();
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (final ClosedWatchServiceException e) {
+      // service is shutting down
+    } catch (final IOException e) {
+      log.error("Stopped watching test data in '{}'", testDataPath, e);
+    }
+  }
+
+  private void reload() {
+    try {
+      log.info("Test data in '{}' changed, reloading", testDataPath);
+      testDataRepository.reload();
+    } catch (final RuntimeException e) {
+      // keep the previous data, the next change gets another chance
+      log.error("Cannot reload test data from '{}'", testDataPath, e);
+    }
+  }
+
+  private void registerRecursively(final Path root) throws IOException {
+    try (final Stream<Path> dirs = Files.walk(root)) {
+      for (final Path dir : dirs.filter(Files::isDirectory).toList()) {
+        dir.register(
+            watchService,
+            StandardWatchEventKinds.ENTRY_CREATE,
+            StandardWatchEventKinds.ENTRY_MODIFY,
+            StandardWatchEventKinds.ENTRY_DELETE);
+      }
+    }
+  }
+}
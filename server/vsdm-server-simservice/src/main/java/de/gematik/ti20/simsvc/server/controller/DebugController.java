@@ -24,14 +24,19 @@
  */
 package de.gematik.ti20.simsvc.server.controller;
 
+import de.gematik.ti20.simsvc.server.cache.CacheStats;
 import de.gematik.ti20.simsvc.server.repository.TestDataRepository;
+import de.gematik.ti20.simsvc.server.service.EtagService;
+import de.gematik.ti20.simsvc.server.service.VsdmResponseCache;
 import de.gematik.ti20.vsdm.fhir.def.VsdmPatient;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -41,9 +46,16 @@ import org.springframework.web.bind.annotation.RestController;
 public class DebugController {
 
   @Nonnull private final TestDataRepository testDataRepository;
+  @Nonnull private final VsdmResponseCache responseCache;
+  @Nonnull private final EtagService etagService;
 
-  public DebugController(@Nonnull final TestDataRepository testDataRepository) {
+  public DebugController(
+      @Nonnull final TestDataRepository testDataRepository,
+      @Nonnull final VsdmResponseCache responseCache,
+      @Nonnull final EtagService etagService) {
     this.testDataRepository = testDataRepository;
+    this.responseCache = responseCache;
+    this.etagService = etagService;
   }
 
   @GetMapping("patients")
@@ -65,4 +77,31 @@ public class DebugController {
   public Set<String> listAvailableKvnrs() {
     return testDataRepository.findAvailableKvnrs();
   }
+
+  @GetMapping("response-cache")
+  @Nonnull
+  public CacheStats getResponseCacheStats() {
+    return responseCache.stats();
+  }
+
+  @DeleteMapping("response-cache")
+  public void clearResponseCache() {
+    responseCache.invalidateAll();
+  }
+
+  @GetMapping("etags")
+  @Nonnull
+  public CacheStats getEtagStats() {
+    return etagService.stats();
+  }
+
+  @DeleteMapping("etags")
+  public void clearEtags() {
+    etagService.invalidateAll();
+  }
+
+  @DeleteMapping("etags/{kvnr}")
+  public void clearEtag(@Nonnull @PathVariable("kvnr") final String kvnr) {
+    etagService.invalidate(kvnr);
+  }
 }
@@ -24,20 +24,19 @@
  */
 package de.gematik.ti20.simsvc.server.controller;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import de.gematik.ti20.simsvc.server.config.VsdmConfig;
+import de.gematik.bbriccs.fhir.EncodingType;
 import de.gematik.ti20.simsvc.server.exception.ErrorCase;
 import de.gematik.ti20.simsvc.server.model.PoppTokenContent;
 import de.gematik.ti20.simsvc.server.service.ChecksumService;
 import de.gematik.ti20.simsvc.server.service.EtagService;
 import de.gematik.ti20.simsvc.server.service.FhirService;
+import de.gematik.ti20.simsvc.server.service.PoppTokenContentService;
 import de.gematik.ti20.simsvc.server.service.UserInfoValidationService;
+import de.gematik.ti20.simsvc.server.service.VsdmResponseCache;
+import de.gematik.ti20.simsvc.server.service.VsdmReadMetrics;
+import de.gematik.ti20.simsvc.server.service.VsdmReadMetrics.Stage;
 import de.gematik.ti20.simsvc.server.service.VsdmService;
 import jakarta.servlet.http.HttpServletRequest;
-import java.nio.charset.StandardCharsets;
-import java.util.Base64;
-import java.util.regex.Pattern;
 import lombok.extern.slf4j.Slf4j;
 import org.hl7.fhir.r4.model.Resource;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -55,31 +54,32 @@ import org.springframework.web.server.ResponseStatusException;
 @RequestMapping("/vsdservice/v1")
 public class VsdmControllerV1 {
 
-  private final VsdmConfig vsdmConfig;
   private final VsdmService vsdmService;
   private final FhirService fhirService;
   private final ChecksumService checksumService;
   private final EtagService etagService;
   private final UserInfoValidationService userInfoValidationService;
-
-  private static final Pattern VALID_IKNR_PATTERN = Pattern.compile("^[0-9]{9}$");
-  private static final Pattern VALID_KVNR_PATTERN = Pattern.compile("^[A-Z][0-9]{8}[A-Z,0-9]$");
-
-  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+  private final VsdmResponseCache responseCache;
+  private final PoppTokenContentService poppTokenContentService;
+  private final VsdmReadMetrics metrics;
 
   public VsdmControllerV1(
-      @Autowired VsdmConfig vsdmConfig,
       @Autowired VsdmService vsdmService,
       @Autowired FhirService fhirService,
       @Autowired ChecksumService checksumService,
       @Autowired EtagService etagService,
-      @Autowired UserInfoValidationService userInfoValidationService) {
-    this.vsdmConfig = vsdmConfig;
+      @Autowired UserInfoValidationService userInfoValidationService,
+      @Autowired VsdmResponseCache responseCache,
+      @Autowired PoppTokenContentService poppTokenContentService,
+      @Autowired VsdmReadMetrics metrics) {
     this.vsdmService = vsdmService;
     this.fhirService = fhirService;
     this.checksumService = checksumService;
     this.etagService = etagService;
     this.userInfoValidationService = userInfoValidationService;
+    this.responseCache = responseCache;
+    this.poppTokenContentService = poppTokenContentService;
+    this.metrics = metrics;
   }
 
   @GetMapping(
@@ -93,28 +93,94 @@ public class VsdmControllerV1 {
           final String ifNoneMatch,
       final HttpServletRequest request) {
     log.info("Received request for readVsd");
-    validateHeaders(request);
-    userInfoValidationService.validateUserInfo(userInfo);
+    final VsdmReadMetrics.Sample sample = metrics.start();
+    try {
+      final ResponseEntity<?> response =
+          readVsd(poppTokenContentCoded, userInfo, ifNoneMatch, request, sample);
+      sample.stop(VsdmReadMetrics.outcome(response.getStatusCode().value()));
+      return response;
+    } catch (final RuntimeException e) {
+      sample.stop(VsdmReadMetrics.outcome(e));
+      throw e;
+    }
+  }
+
+  private ResponseEntity<?> readVsd(
+      final String poppTokenContentCoded,
+      final String userInfo,
+      final String ifNoneMatch,
+      final HttpServletRequest request,
+      final VsdmReadMetrics.Sample sample) {
+    sample.time(Stage.HEADERS, () -> validateHeaders(request));
+    sample.time(Stage.USER_INFO, () -> userInfoValidationService.validateUserInfo(userInfo));
 
     final HttpHeaders responseHeaders = new HttpHeaders();
 
-    final PoppTokenContent poppTokenContent = parsePoppTokenContent(poppTokenContentCoded);
+    final PoppTokenContent poppTokenContent =
+        sample.time(Stage.POPP, () -> poppTokenContentService.parse(poppTokenContentCoded));
     final String kvnr = poppTokenContent.getPatientId();
 
-    if (etagService.checkEtag(kvnr, ifNoneMatch)) {
+    // another instance may have issued the etag, so in content mode ours is derived before
+    // comparing; it is kept for the response, the store may have dropped it in the meantime
+    final String contentEtag =
+        etagService.isContentBased()
+            ? sample.time(
+                Stage.ETAG,
+                () ->
+                    etagService.storeContentEtag(
+                        kvnr,
+                        () -> {
+                          final Resource resource =
+                              sample.time(Stage.READ_VSD, () -> vsdmService.readVsd(kvnr));
+                          return sample.time(
+                              Stage.ENCODING, () -> fhirService.encodeCanonical(resource));
+                        }))
+            : null;
+    final boolean notModified =
+        sample.time(
+            Stage.ETAG,
+            () ->
+                etagService.isContentBased()
+                    ? etagService.matchesEtag(contentEtag, ifNoneMatch)
+                    : etagService.checkEtag(kvnr, ifNoneMatch));
+
+    if (notModified) {
       responseHeaders.set(HttpHeaders.ETAG, ifNoneMatch);
-      responseHeaders.set(ChecksumService.HEADER_NAME, checksumService.calculateChecksum(kvnr));
+      responseHeaders.set(
+          ChecksumService.HEADER_NAME,
+          sample.time(Stage.CHECKSUM, () -> checksumService.calculateChecksum(kvnr)));
       return new ResponseEntity<>(responseHeaders, HttpStatus.NOT_MODIFIED);
     }
 
-    final Resource fhirResourceOut = vsdmService.readVsd(kvnr);
-    final String responseBody =
-        fhirService.encodeResponse(fhirResourceOut, request, responseHeaders);
+    final EncodingType encodingType = fhirService.getEncodingType(request);
+    // taken before reading, so a reload in between keeps the stale body out of the cache
+    final long cacheGeneration = responseCache.generation();
+    final String cachedBody = responseCache.get(kvnr, encodingType);
+    final String responseBody;
+    if (cachedBody != null) {
+      responseBody = cachedBody;
+      fhirService.addContentTypeHeader(encodingType, responseHeaders);
+    } else {
+      final Resource fhirResourceOut = sample.time(Stage.READ_VSD, () -> vsdmService.readVsd(kvnr));
+      responseBody =
+          sample.time(
+              Stage.ENCODING,
+              () -> fhirService.encodeResponse(fhirResourceOut, request, responseHeaders));
+      responseCache.put(kvnr, encodingType, responseBody, cacheGeneration);
+    }
 
     log.debug("Response for readVsd: {}", responseBody);
 
-    checksumService.addChecksumHeader(kvnr, responseHeaders);
-    etagService.addEtagHeader(kvnr, responseBody, responseHeaders);
+    sample.time(Stage.CHECKSUM, () -> checksumService.addChecksumHeader(kvnr, responseHeaders));
+    sample.time(
+        Stage.ETAG,
+        () -> {
+          if (etagService.isContentBased()) {
+            etagService.addContentEtagHeader(contentEtag, responseHeaders);
+          } else {
+            etagService.addEtagHeader(kvnr, responseBody, responseHeaders);
+          }
+        });
 
     return new ResponseEntity<>(responseBody, responseHeaders, HttpStatus.OK);
   }
@@ -140,73 +206,4 @@ public class VsdmControllerV1 {
           ErrorCase.VSDSERVICE_MISSING_PATIENT_RECORD_VERSION.getBdeReference());
     }
   }
-
-  private String checkAndGetKvnr(final JsonNode claims) {
-    final String kvnr = claims.path("patientId").asText(null);
-    if (kvnr == null) {
-      throw new ResponseStatusException(
-          HttpStatus.BAD_REQUEST,
-          ErrorCase.SERVICE_MISSING_OR_INVALID_HEADER
-              .getBdeReference()
-              .replaceAll("<header>", "zeta-popp-token-content"));
-    }
-    if (!VALID_KVNR_PATTERN.matcher(kvnr).matches()) {
-      throw new ResponseStatusException(
-          HttpStatus.BAD_REQUEST, ErrorCase.VSDSERVICE_INVALID_KVNR.getBdeReference());
-    }
-
-    if (kvnr.startsWith(vsdmConfig.getUnknownKvnrPrefix())) {
-      throw new ResponseStatusException(
-          HttpStatus.BAD_REQUEST, ErrorCase.VSDSERVICE_UNKNOWN_KVNR.getBdeReference());
-    }
-
-    return kvnr;
-  }
-
-  private String checkAndGetIknr(final JsonNode claims) {
-    final String iknr = claims.path("insurerId").asText(null);
-    if (iknr == null) {
-      throw new ResponseStatusException(
-          HttpStatus.BAD_REQUEST,
-          ErrorCase.SERVICE_MISSING_OR_INVALID_HEADER
-              .getBdeReference()
-              .replaceAll("<header>", "zeta-popp-token-content"));
-    }
-    if (!VALID_IKNR_PATTERN.matcher(iknr).matches()) {
-      throw new ResponseStatusException(
-          HttpStatus.BAD_REQUEST, ErrorCase.VSDSERVICE_INVALID_IK.getBdeReference());
-    }
-    if (!iknr.equals(vsdmConfig.getIknr())) {
-      throw new ResponseStatusException(
-          HttpStatus.BAD_REQUEST, ErrorCase.VSDSERVICE_UNKNOWN_IK.getBdeReference());
-    }
-
-    return iknr;
-  }
-
-  private PoppTokenContent parsePoppTokenContent(final String poppTokenContent) {
-    try {
-      final byte[] decoded = Base64.getDecoder().decode(poppTokenContent);
-      final String json = new String(decoded, StandardCharsets.UTF_8);
-      final JsonNode root = OBJECT_MAPPER.readTree(json);
-
-      final String insurerId = checkAndGetIknr(root);
-      final String patientId = checkAndGetKvnr(root);
-
-      return new PoppTokenContent(insurerId, patientId);
-    } catch (final IllegalArgumentException e) {
-      // Base64 decoding failed
-      throw new ResponseStatusException(
-          HttpStatus.BAD_REQUEST,
-          ErrorCase.SERVICE_MISSING_OR_INVALID_HEADER
-              .getBdeReference()
-              .replaceAll("<header>", "zeta-popp-token-content"));
-    } catch (final ResponseStatusException e) {
-      throw e;
-    } catch (final Exception e) {
-      // JSON parsing or other unexpected errors
-      throw new ResponseStatusException(
-          HttpStatus.BAD_REQUEST, ErrorCase.SERVICE_MISSING_OR_INVALID_HEADER.getBdeReference());
-    }
-  }
 }
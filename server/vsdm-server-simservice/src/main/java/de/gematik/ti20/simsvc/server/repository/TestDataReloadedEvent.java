@@ -0,0 +1,35 @@
+/*-
+ * #%L
+ * VSDM Server Simservice
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.ti20.simsvc.server.repository;
+
+import java.util.Set;
+
+/**
+ * Published by {@link TestDataRepository} after the test data has been reloaded, so that anything
+ * derived from it can be discarded.
+ *
+ * @param kvnrs the KVNRs available after the reload
+ */
+public record TestDataReloadedEvent(Set<String> kvnrs) {}
@@ -27,40 +27,85 @@ package de.gematik.ti20.simsvc.server.repository;
 import de.gematik.test.testdata.TestDataManager;
 import de.gematik.test.testdata.exceptions.NoSuchTestDataException;
 import de.gematik.test.testdata.model.Patient;
+import de.gematik.ti20.simsvc.server.config.TestDataConfiguration;
 import de.gematik.ti20.vsdm.fhir.def.VsdmPatient;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import javax.annotation.Nonnull;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Repository;
 
 /**
  * Provides access to the data stored in the test data folder. For initialization see {@link
  * de.gematik.ti20.simsvc.server.config.TestDataConfiguration}.
+ *
+ * <p>All patients are indexed by their KVNR once at startup (and again on every {@link #reload()}),
+ * so lookups on the request path are plain map accesses instead of JsonPath queries against the
+ * test data tree. Every lookup builds a new {@link VsdmPatient}, so callers may add it to their
+ * own resources.
  */
+@Slf4j
 @Repository
 public class TestDataRepository {
 
-  private final TestDataManager testDataManager;
+  private final String pathToTestData;
+  private final ApplicationEventPublisher eventPublisher;
+
+  private volatile Map<String, Patient> patientsByKvnr;
 
   @Autowired
-  public TestDataRepository(final TestDataManager testDataManager) {
-    this.testDataManager = testDataManager;
+  public TestDataRepository(
+      final TestDataManager testDataManager,
+      @Value("${vsdm.path-to-test-data}") final String pathToTestData,
+      final ApplicationEventPublisher eventPublisher) {
+    this.pathToTestData = pathToTestData;
+    this.eventPublisher = eventPublisher;
+    this.patientsByKvnr = buildIndex(testDataManager);
   }
 
   @Nonnull
   public Optional<VsdmPatient> patientByKvnr(@Nonnull final String kvnr) {
-    try {
-      final String byKvnr = "$.patients.[?(@..kvnr == '%s')]".formatted(kvnr);
-      final Patient patient = testDataManager.getPatient(byKvnr);
-      return Optional.of(VsdmPatient.from(patient));
-    } catch (final NoSuchTestDataException e) {
-      return Optional.empty();
-    }
+    return Optional.ofNullable(patientsByKvnr.get(kvnr)).map(VsdmPatient::from);
   }
 
   @Nonnull
   public Set<String> findAvailableKvnrs() {
-    return Set.copyOf(testDataManager.getClassesFromList("$.patients..kvnr", String.class));
+    return patientsByKvnr.keySet();
+  }
+
+  /**
+   * Reads the test data folder again and replaces the patient index. Requests running concurrently
+   * keep seeing the previous index until the new one is complete. Afterwards a {@link
+   * TestDataReloadedEvent} is published.
+   */
+  public synchronized void reload() {
+    final TestDataManager testDataManager =
+        TestDataConfiguration.loadTestData(
+            TestDataConfiguration.resolveTestDataPath(pathToTestData));
+    this.patientsByKvnr = buildIndex(testDataManager);
+    eventPublisher.publishEvent(new TestDataReloadedEvent(patientsByKvnr.keySet()));
+  }
+
+  private static Map<String, Patient> buildIndex(final TestDataManager testDataManager) {
+    final Set<String> kvnrs =
+        Set.copyOf(testDataManager.getClassesFromList("$.patients..kvnr", String.class));
+
+    final Map<String, Patient> index = new HashMap<>(kvnrs.size() * 2);
+    for (final String kvnr : kvnrs) {
+      try {
+        final String byKvnr = "$.patients.[?(@..kvnr == '%s')]".formatted(kvnr);
+        index.put(kvnr, testDataManager.getPatient(byKvnr));
+      } catch (final NoSuchTestDataException e) {
+        log.warn("Cannot load test data for KVNR {}", kvnr, e);
+      }
+    }
+
+    log.info("Indexed {} patients from test data", index.size());
+    return Map.copyOf(index);
   }
 }
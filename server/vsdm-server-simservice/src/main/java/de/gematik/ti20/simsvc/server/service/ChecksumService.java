@@ -24,10 +24,16 @@
  */
 package de.gematik.ti20.simsvc.server.service;
 
+import de.gematik.ti20.simsvc.server.cache.BoundedCache;
+import de.gematik.ti20.simsvc.server.cache.CacheStats;
+import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
 import java.util.Base64;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Service;
 
@@ -37,6 +43,25 @@ public class ChecksumService {
 
   public static final String HEADER_NAME = "vsdm-pz";
 
+  private static final String ALGORITHM = "SHA-512";
+  private static final int DEFAULT_CACHE_SIZE = 10_000;
+
+  // the checksum only depends on the kvnr, so it is computed once per kvnr
+  private final BoundedCache<String, String> checksums;
+
+  // cloning an existing digest skips the provider lookup of MessageDigest.getInstance
+  private final MessageDigest prototype;
+
+  public ChecksumService() {
+    this(DEFAULT_CACHE_SIZE);
+  }
+
+  @Autowired
+  public ChecksumService(@Value("${vsdm.checksum-cache.max-size:10000}") final int cacheSize) {
+    this.checksums = new BoundedCache<>(cacheSize);
+    this.prototype = createPrototype();
+  }
+
   public void addChecksumHeader(final String kvnr, final HttpHeaders responseHeaders) {
     if (kvnr != null && !kvnr.isEmpty()) {
       final String checksum = calculateChecksum(kvnr);
@@ -47,10 +72,20 @@ public class ChecksumService {
   }
 
   public String calculateChecksum(final String kvnr) {
+    if (kvnr == null) {
+      return null;
+    }
+    return checksums.computeIfAbsent(kvnr, this::digest);
+  }
+
+  public CacheStats stats() {
+    return checksums.stats();
+  }
+
+  private String digest(final String kvnr) {
     try {
-      final MessageDigest md = MessageDigest.getInstance("SHA-512");
-      md.update(kvnr.getBytes());
-      final byte[] digest = md.digest();
+      final MessageDigest md = newDigest();
+      final byte[] digest = md.digest(kvnr.getBytes(StandardCharsets.UTF_8));
       // we have to take the 48-byte prefix, bc the base64 presentation must be exactly 64 bytes
       // long (512 bits = 64 bytes) and base64 encoding increases the size by 4/3
       final byte[] prefix = Arrays.copyOf(digest, 48);
@@ -60,4 +95,24 @@ public class ChecksumService {
       return null;
     }
   }
+
+  private MessageDigest newDigest() throws NoSuchAlgorithmException {
+    if (prototype != null) {
+      try {
+        return (MessageDigest) prototype.clone();
+      } catch (final CloneNotSupportedException e) {
+        // provider does not support cloning, fall through
+      }
+    }
+    return MessageDigest.getInstance(ALGORITHM);
+  }
+
+  private static MessageDigest createPrototype() {
+    try {
+      return MessageDigest.getInstance(ALGORITHM);
+    } catch (final NoSuchAlgorithmException e) {
+      log.error("Cannot create {} digest", ALGORITHM, e);
+      return null;
+    }
+  }
 }
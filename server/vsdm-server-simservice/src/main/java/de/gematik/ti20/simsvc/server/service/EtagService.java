@@ -24,12 +24,18 @@
  */
 package de.gematik.ti20.simsvc.server.service;
 
-import java.util.HashMap;
+import de.gematik.ti20.simsvc.server.cache.BoundedCache;
+import de.gematik.ti20.simsvc.server.cache.CacheStats;
+import de.gematik.ti20.simsvc.server.repository.TestDataReloadedEvent;
+import java.time.Duration;
 import java.util.HexFormat;
-import java.util.Map;
+import java.util.function.Supplier;
 import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
 import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
@@ -40,39 +46,118 @@ public class EtagService {
 
   public static final String HEADER_NAME = "Etag";
 
+  /** How new etags are generated. */
+  public enum EtagMode {
+    /** The etag mixes in the time of the first response, so every server instance has its own. */
+    TIMESTAMP,
+    /**
+     * The etag is derived from the canonical content only, so all server instances serving the
+     * same test data agree on it without sharing state.
+     */
+    CONTENT
+  }
+
+  private static final int DEFAULT_MAX_SIZE = 10_000;
+  private static final Duration DEFAULT_TTL = Duration.ofHours(24);
+
   private final String ALGORITHM = "HmacSHA256";
   private final String KEY =
       "gematik-simsvc-etag-key"; // This should be securely stored and managed
 
-  // Store etags per kvnr
-  private final Map<String, String> etagStore = new HashMap<>();
+  // Store etags per kvnr, bounded in size and age so the store cannot grow without limit
+  private final BoundedCache<String, String> etagStore;
+  private final EtagMode mode;
+
+  // an initialized mac is cloned per etag, which skips the provider lookup and key setup
+  private final Mac prototype;
+
+  public EtagService() {
+    this(DEFAULT_MAX_SIZE, DEFAULT_TTL, EtagMode.TIMESTAMP);
+  }
+
+  @Autowired
+  public EtagService(
+      @Value("${vsdm.etag.max-size:10000}") final int maxSize,
+      @Value("${vsdm.etag.ttl:PT24H}") final Duration ttl,
+      @Value("${vsdm.etag.mode:TIMESTAMP}") final EtagMode mode) {
+    this.etagStore = new BoundedCache<>(maxSize, ttl);
+    this.mode = mode;
+    this.prototype = createPrototype();
+  }
+
+  public boolean isContentBased() {
+    return mode == EtagMode.CONTENT;
+  }
+
+  /**
+   * Makes sure an etag derived from the given canonical content is stored for the KVNR, so a
+   * following {@link #checkEtag} also succeeds for etags issued by another server instance. The
+   * content is only requested if no etag is stored yet.
+   */
+  public String storeContentEtag(final String kvnr, final Supplier<String> canonicalContent) {
+    if (kvnr == null || kvnr.isEmpty()) {
+      return null;
+    }
+    return etagStore.computeIfAbsent(kvnr, k -> generateEtag(canonicalContent.get()));
+  }
 
   private String calculateEtag(final String kvnr, final String encodedResponse) {
     if (kvnr == null || kvnr.isEmpty() || encodedResponse == null || encodedResponse.isEmpty()) {
       return null;
     }
-    if (etagStore.containsKey(kvnr)) {
+    if (mode == EtagMode.CONTENT) {
+      // the encoded response contains generated ids, an etag derived from it is not shared
       return etagStore.get(kvnr);
     }
+    return etagStore.computeIfAbsent(kvnr, k -> generateEtag(encodedResponse));
+  }
 
+  private String generateEtag(final String encodedResponse) {
+    if (encodedResponse == null || encodedResponse.isEmpty()) {
+      return null;
+    }
     try {
-      final String data = encodedResponse + System.currentTimeMillis();
+      final String data =
+          mode == EtagMode.CONTENT
+              ? encodedResponse
+              : encodedResponse + System.currentTimeMillis();
 
-      final SecretKeySpec secretKeySpec = new SecretKeySpec(KEY.getBytes(), ALGORITHM);
-      Mac mac = Mac.getInstance(ALGORITHM);
-      mac.init(secretKeySpec);
+      final Mac mac = newMac();
       byte[] digest = mac.doFinal(data.getBytes());
 
-      final String etag = HexFormat.of().formatHex(digest);
-      etagStore.put(kvnr, etag);
-
-      return etag;
+      return HexFormat.of().formatHex(digest);
     } catch (final Exception e) {
       log.error("Cannot generate etag", e);
       return null;
     }
   }
 
+  private Mac newMac() throws Exception {
+    if (prototype != null) {
+      try {
+        return (Mac) prototype.clone();
+      } catch (final CloneNotSupportedException e) {
+        // provider does not support cloning, fall through
+      }
+    }
+    return createMac();
+  }
+
+  private Mac createMac() throws Exception {
+    final Mac mac = Mac.getInstance(ALGORITHM);
+    mac.init(new SecretKeySpec(KEY.getBytes(), ALGORITHM));
+    return mac;
+  }
+
+  private Mac createPrototype() {
+    try {
+      return createMac();
+    } catch (final Exception e) {
+      log.error("Cannot create {} mac", ALGORITHM, e);
+      return null;
+    }
+  }
+
   public void addEtagHeader(
       final String kvnr, final String encodedResponse, final HttpHeaders responseHeaders) {
     if (encodedResponse != null && !encodedResponse.isEmpty()) {
@@ -83,6 +168,26 @@ public class EtagService {
     }
   }
 
+  /**
+   * Adds the etag returned by {@link #storeContentEtag}. In content mode the header must carry that
+   * etag even if the store dropped it since, an etag derived from the encoded response would differ
+   * between instances.
+   */
+  public void addContentEtagHeader(final String etag, final HttpHeaders responseHeaders) {
+    if (etag != null) {
+      responseHeaders.add(HEADER_NAME, addEtagPadding(etag));
+    }
+  }
+
+  /** Compares an etag returned by {@link #storeContentEtag} with the one of the request. */
+  public boolean matchesEtag(final String etag, final String requestEtag) {
+    log.debug("Request Etag: {}", requestEtag);
+    if (etag == null || requestEtag == null) {
+      return false;
+    }
+    return matchesIgnoringPadding(etag, requestEtag);
+  }
+
   public boolean checkEtag(final String kvnr, final String requestEtag) {
     log.debug("Request Etag: {}", requestEtag);
     if (kvnr == null || kvnr.isEmpty()) {
@@ -99,7 +204,25 @@ public class EtagService {
       return false;
     }
 
-    return etag.equals(removeEtagPadding(requestEtag));
+    return matchesIgnoringPadding(etag, requestEtag);
+  }
+
+  /** Forgets the etag of the given KVNR, the next response for it gets a new etag. */
+  public void invalidate(final String kvnr) {
+    etagStore.invalidate(kvnr);
+  }
+
+  public void invalidateAll() {
+    etagStore.invalidateAll();
+  }
+
+  public CacheStats stats() {
+    return etagStore.stats();
+  }
+
+  @EventListener
+  public void onTestDataReloaded(final TestDataReloadedEvent event) {
+    invalidateAll();
   }
 
   // etag response headers must be padded with quotes
@@ -111,12 +234,15 @@ public class EtagService {
     return etag;
   }
 
-  private String removeEtagPadding(String etag) {
-    if (StringUtils.hasLength(etag)) {
-      if (etag.startsWith("\"") && etag.endsWith("\"")) {
-        etag = etag.substring(1, etag.length() - 1);
-      }
+  // compares in place instead of stripping the quotes of the request etag
+  private boolean matchesIgnoringPadding(final String etag, final String requestEtag) {
+    final int length = etag.length();
+    if (requestEtag.length() == length) {
+      return etag.equals(requestEtag);
     }
-    return etag;
+    return requestEtag.length() == length + 2
+        && requestEtag.charAt(0) == '"'
+        && requestEtag.charAt(length + 1) == '"'
+        && requestEtag.regionMatches(1, etag, 0, length);
   }
 }
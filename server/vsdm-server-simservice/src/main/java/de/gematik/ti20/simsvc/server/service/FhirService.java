@@ -28,9 +28,13 @@ import de.gematik.bbriccs.fhir.EncodingType;
 import de.gematik.bbriccs.rest.fd.MediaType;
 import de.gematik.ti20.vsdm.fhir.service.CodecServiceR4;
 import jakarta.servlet.http.HttpServletRequest;
-import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import lombok.extern.slf4j.Slf4j;
+import org.hl7.fhir.r4.model.Bundle;
 import org.hl7.fhir.r4.model.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -41,6 +45,9 @@ import org.springframework.web.server.ResponseStatusException;
 @Service
 public class FhirService extends CodecServiceR4 {
 
+  // upper bound for the buffer allocated up front, larger bodies grow the buffer while reading
+  private static final int MAX_INITIAL_BUFFER = 1024 * 1024;
+
   public Resource parsePostRequest(HttpServletRequest request) {
     return parseString(getBodyString(request), request.getHeader("content-type"));
   }
@@ -61,17 +68,25 @@ public class FhirService extends CodecServiceR4 {
   }
 
   private String getBodyString(HttpServletRequest request) {
-    StringBuilder requestBody = new StringBuilder();
-    try (BufferedReader reader = request.getReader()) {
-      String line;
-      while ((line = reader.readLine()) != null) {
-        requestBody.append(line);
+    final int contentLength = request.getContentLength();
+    // the content length counts bytes, which is an upper bound for the number of chars. One extra
+    // char lets the final read detect the end of the body without growing the buffer.
+    char[] buffer =
+        new char[contentLength > 0 ? Math.min(contentLength, MAX_INITIAL_BUFFER) + 1 : 1024];
+    int length = 0;
+    try (Reader reader = request.getReader()) {
+      int read;
+      while ((read = reader.read(buffer, length, buffer.length - length)) != -1) {
+        length += read;
+        if (length == buffer.length) {
+          buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
       }
     } catch (IOException e) {
       throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Error reading request body");
     }
 
-    return requestBody.toString();
+    return new String(buffer, 0, length);
   }
 
   public void validate(String body) {
@@ -80,7 +95,7 @@ public class FhirService extends CodecServiceR4 {
     }
   }
 
-  private EncodingType getEndodingType(final HttpServletRequest request) {
+  public EncodingType getEncodingType(final HttpServletRequest request) {
     var accept = request.getHeader("accept");
     EncodingType encodingType = EncodingType.JSON;
     try {
@@ -98,14 +113,55 @@ public class FhirService extends CodecServiceR4 {
       final Resource fhirResourceOut,
       final HttpServletRequest request,
       final HttpHeaders responseHeaders) {
-    final EncodingType encodingType = getEndodingType(request);
+    final EncodingType encodingType = getEncodingType(request);
+    addContentTypeHeader(encodingType, responseHeaders);
+
+    return codec.encode(fhirResourceOut, encodingType);
+  }
 
+  public void addContentTypeHeader(
+      final EncodingType encodingType, final HttpHeaders responseHeaders) {
     responseHeaders.add(
         "Content-Type",
         encodingType == EncodingType.JSON
             ? MediaType.FHIR_JSON.asString()
             : MediaType.FHIR_XML.asString());
+  }
 
-    return codec.encode(fhirResourceOut, encodingType);
+  /**
+   * Encodes the resource as JSON without the parts that differ every time the same data is built:
+   * meta, the bundle identifier and timestamp and the generated resource ids, including references
+   * to them. The result only changes if the actual content changes and is independent of the
+   * requested encoding.
+   */
+  public String encodeCanonical(final Resource resource) {
+    final Resource copy = resource.copy();
+    final List<String> generatedIds = new ArrayList<>();
+    stripGeneratedParts(copy, generatedIds);
+
+    if (copy instanceof Bundle bundle) {
+      bundle.setIdentifier(null);
+      bundle.setTimestamp(null);
+      for (final Bundle.BundleEntryComponent entry : bundle.getEntry()) {
+        entry.setFullUrl(null);
+        if (entry.hasResource()) {
+          stripGeneratedParts(entry.getResource(), generatedIds);
+        }
+      }
+    }
+
+    String canonical = codec.encode(copy, EncodingType.JSON);
+    for (final String id : generatedIds) {
+      canonical = canonical.replace(id, "");
+    }
+    return canonical;
+  }
+
+  private static void stripGeneratedParts(final Resource resource, final List<String> ids) {
+    if (resource.getIdElement().hasIdPart()) {
+      ids.add(resource.getIdElement().getIdPart());
+    }
+    resource.setIdElement(null);
+    resource.setMeta(null);
   }
 }
@@ -0,0 +1,175 @@
+/*-
+ * #%L
+ * VSDM Server Simservice
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.ti20.simsvc.server.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import de.gematik.ti20.simsvc.server.cache.BoundedCache;
+import de.gematik.ti20.simsvc.server.cache.CacheStats;
+import de.gematik.ti20.simsvc.server.config.VsdmConfig;
+import de.gematik.ti20.simsvc.server.exception.ErrorCase;
+import de.gematik.ti20.simsvc.server.model.PoppTokenContent;
+import java.io.IOException;
+import java.util.Base64;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Decodes and validates the {@code zeta-popp-token-content} header. A PoPP token is used for a long
+ * time, so validated contents are remembered per raw header value and only new header values are
+ * decoded. Decoding streams over the JSON and only picks {@code insurerId} and {@code patientId}.
+ */
+@Slf4j
+@Service
+public class PoppTokenContentService {
+
+  private static final Pattern VALID_IKNR_PATTERN = Pattern.compile("^[0-9]{9}$");
+  private static final Pattern VALID_KVNR_PATTERN = Pattern.compile("^[A-Z][0-9]{8}[A-Z,0-9]$");
+
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+  private final VsdmConfig vsdmConfig;
+  private final BoundedCache<String, PoppTokenContent> contents;
+
+  public PoppTokenContentService(
+      final VsdmConfig vsdmConfig,
+      @Value("${vsdm.popp-token-cache.max-size:1000}") final int cacheSize) {
+    this.vsdmConfig = vsdmConfig;
+    this.contents = new BoundedCache<>(cacheSize);
+  }
+
+  /**
+   * Returns the validated content of the given header value.
+   *
+   * @throws ResponseStatusException with HTTP 400 if the value is malformed or contains an invalid
+   *     or unknown IKNR or KVNR
+   */
+  public PoppTokenContent parse(final String poppTokenContent) {
+    if (poppTokenContent == null) {
+      throw invalidHeader();
+    }
+    // only valid contents end up in the cache, invalid ones throw while loading
+    return contents.computeIfAbsent(poppTokenContent, this::decodeAndValidate);
+  }
+
+  public CacheStats stats() {
+    return contents.stats();
+  }
+
+  private PoppTokenContent decodeAndValidate(final String poppTokenContent) {
+    final byte[] decoded;
+    try {
+      decoded = Base64.getDecoder().decode(poppTokenContent);
+    } catch (final IllegalArgumentException e) {
+      // Base64 decoding failed
+      throw invalidHeader();
+    }
+
+    final PoppTokenContent claims;
+    try {
+      claims = extractClaims(decoded);
+    } catch (final Exception e) {
+      // JSON parsing or other unexpected errors
+      throw new ResponseStatusException(
+          HttpStatus.BAD_REQUEST, ErrorCase.SERVICE_MISSING_OR_INVALID_HEADER.getBdeReference());
+    }
+
+    final String insurerId = checkAndGetIknr(claims.getInsurerId());
+    final String patientId = checkAndGetKvnr(claims.getPatientId());
+    return new PoppTokenContent(insurerId, patientId);
+  }
+
+  // Reads the top level fields insurerId and patientId without building a tree. Like
+  // JsonNode.asText, structured values are read as empty strings and JSON null as missing.
+  private static PoppTokenContent extractClaims(final byte[] json) throws IOException {
+    String insurerId = null;
+    String patientId = null;
+
+    try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        return new PoppTokenContent(null, null);
+      }
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        final String name = parser.currentName();
+        final JsonToken value = parser.nextToken();
+        final String text = value.isScalarValue() ? parser.getValueAsString() : "";
+        if ("insurerId".equals(name)) {
+          insurerId = text;
+        } else if ("patientId".equals(name)) {
+          patientId = text;
+        }
+        parser.skipChildren();
+      }
+    }
+
+    return new PoppTokenContent(insurerId, patientId);
+  }
+
+  private String checkAndGetKvnr(final String kvnr) {
+    if (kvnr == null) {
+      throw invalidHeader();
+    }
+    if (!VALID_KVNR_PATTERN.matcher(kvnr).matches()) {
+      throw new ResponseStatusException(
+          HttpStatus.BAD_REQUEST, ErrorCase.VSDSERVICE_INVALID_KVNR.getBdeReference());
+    }
+
+    if (kvnr.startsWith(vsdmConfig.getUnknownKvnrPrefix())) {
+      throw new ResponseStatusException(
+          HttpStatus.BAD_REQUEST, ErrorCase.VSDSERVICE_UNKNOWN_KVNR.getBdeReference());
+    }
+
+    return kvnr;
+  }
+
+  private String checkAndGetIknr(final String iknr) {
+    if (iknr == null) {
+      throw invalidHeader();
+    }
+    if (!VALID_IKNR_PATTERN.matcher(iknr).matches()) {
+      throw new ResponseStatusException(
+          HttpStatus.BAD_REQUEST, ErrorCase.VSDSERVICE_INVALID_IK.getBdeReference());
+    }
+    if (!iknr.equals(vsdmConfig.getIknr())) {
+      throw new ResponseStatusException(
+          HttpStatus.BAD_REQUEST, ErrorCase.VSDSERVICE_UNKNOWN_IK.getBdeReference());
+    }
+
+    return iknr;
+  }
+
+  private static ResponseStatusException invalidHeader() {
+    return new ResponseStatusException(
+        HttpStatus.BAD_REQUEST,
+        ErrorCase.SERVICE_MISSING_OR_INVALID_HEADER
+            .getBdeReference()
+            .replaceAll("<header>", "zeta-popp-token-content"));
+  }
+}
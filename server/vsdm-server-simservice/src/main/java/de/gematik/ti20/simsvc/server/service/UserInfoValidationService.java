@@ -31,14 +31,17 @@ import com.networknt.schema.InputFormat;
 import com.networknt.schema.Schema;
 import com.networknt.schema.SchemaRegistry;
 import com.networknt.schema.SpecificationVersion;
+import de.gematik.ti20.simsvc.server.cache.BoundedCache;
+import de.gematik.ti20.simsvc.server.cache.CacheStats;
 import de.gematik.ti20.simsvc.server.exception.ErrorCase;
 import jakarta.annotation.PostConstruct;
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 import java.util.List;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
@@ -46,6 +49,9 @@ import org.springframework.web.server.ResponseStatusException;
 /**
  * Validates the {@code zeta-user-info} header against the JSON Schema for VSDM2
  * (user-info-vsdm2.json). The header value is expected to be a Base64-encoded JSON string.
+ *
+ * <p>Clients usually send the same header value again and again, so the outcome of the validation
+ * is remembered per raw header value and repeated values cost a single lookup.
  */
 @Slf4j
 @Service
@@ -53,9 +59,22 @@ public class UserInfoValidationService {
 
   private static final String SCHEMA_PATH = "/schemas/user-info-vsdm2.json";
   private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+  private static final int DEFAULT_CACHE_SIZE = 1000;
+
+  private final BoundedCache<String, Boolean> validationResults;
 
   private Schema userInfoSchema;
 
+  public UserInfoValidationService() {
+    this(DEFAULT_CACHE_SIZE);
+  }
+
+  @Autowired
+  public UserInfoValidationService(
+      @Value("${vsdm.user-info-cache.max-size:1000}") final int cacheSize) {
+    this.validationResults = new BoundedCache<>(cacheSize);
+  }
+
   @PostConstruct
   public void init() throws IOException {
     try (InputStream schemaStream = getClass().getResourceAsStream(SCHEMA_PATH)) {
@@ -78,37 +97,47 @@ public class UserInfoValidationService {
    *     conform to the schema
    */
   public void validateUserInfo(final String userInfoBase64) {
-    final JsonNode jsonNode = decodeAndParse(userInfoBase64);
-    final List<Error> errors = userInfoSchema.validate(jsonNode);
+    final boolean valid =
+        userInfoBase64 != null
+            && validationResults.computeIfAbsent(userInfoBase64, this::isValidUserInfo);
 
-    if (!errors.isEmpty()) {
-      throw new ResponseStatusException(
-          HttpStatus.BAD_REQUEST,
-          ErrorCase.SERVICE_MISSING_OR_INVALID_HEADER
-              .getBdeReference()
-              .replaceAll("<header>", "zeta-user-info"));
+    if (!valid) {
+      throw invalidHeader();
     }
   }
 
+  public CacheStats stats() {
+    return validationResults.stats();
+  }
+
+  private boolean isValidUserInfo(final String userInfoBase64) {
+    final JsonNode jsonNode = decodeAndParse(userInfoBase64);
+    if (jsonNode == null) {
+      return false;
+    }
+    final List<Error> errors = userInfoSchema.validate(jsonNode);
+    return errors.isEmpty();
+  }
+
   private JsonNode decodeAndParse(final String userInfoBase64) {
     try {
       final byte[] decoded = Base64.getDecoder().decode(userInfoBase64);
-      final String json = new String(decoded, StandardCharsets.UTF_8);
-      return OBJECT_MAPPER.readTree(json);
+      // parse the bytes directly, Jackson detects the UTF encoding itself
+      return OBJECT_MAPPER.readTree(decoded);
     } catch (final IllegalArgumentException e) {
       log.warn("zeta-user-info ist kein gültiges Base64: {}", e.getMessage());
-      throw new ResponseStatusException(
-          HttpStatus.BAD_REQUEST,
-          ErrorCase.SERVICE_MISSING_OR_INVALID_HEADER
-              .getBdeReference()
-              .replaceAll("<header>", "zeta-user-info"));
+      return null;
     } catch (final Exception e) {
       log.warn("zeta-user-info JSON-Parsing fehlgeschlagen: {}", e.getMessage());
-      throw new ResponseStatusException(
-          HttpStatus.BAD_REQUEST,
-          ErrorCase.SERVICE_MISSING_OR_INVALID_HEADER
-              .getBdeReference()
-              .replaceAll("<header>", "zeta-user-info"));
+      return null;
     }
   }
+
+  private static ResponseStatusException invalidHeader() {
+    return new ResponseStatusException(
+        HttpStatus.BAD_REQUEST,
+        ErrorCase.SERVICE_MISSING_OR_INVALID_HEADER
+            .getBdeReference()
+            .replaceAll("<header>", "zeta-user-info"));
+  }
 }
@@ -0,0 +1,155 @@
+/*-
+ * #%L
+ * VSDM Server Simservice
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.ti20.simsvc.server.service;
+
+import de.gematik.ti20.simsvc.server.exception.ErrorCase;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Micrometer timers for the stages of a VSDM read. Stage durations are collected per request and
+ * recorded once the outcome ({@code 200}, {@code 304}, {@code 4xx} or {@code 5xx}) is known, so
+ * every stage timer can be filtered by the response the request ended with.
+ */
+@Component
+public class VsdmReadMetrics {
+
+  public static final String REQUEST_TIMER = "vsdm.read.requests";
+  public static final String STAGE_TIMER = "vsdm.read.stage";
+
+  public enum Stage {
+    HEADERS("headers"),
+    USER_INFO("user_info"),
+    POPP("popp"),
+    ETAG("etag"),
+    READ_VSD("read_vsd"),
+    ENCODING("encoding"),
+    CHECKSUM("checksum");
+
+    private final String tag;
+
+    Stage(final String tag) {
+      this.tag = tag;
+    }
+
+    public String getTag() {
+      return tag;
+    }
+  }
+
+  private final MeterRegistry registry;
+  private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+  public VsdmReadMetrics(final MeterRegistry registry) {
+    this.registry = registry;
+  }
+
+  public Sample start() {
+    return new Sample();
+  }
+
+  public static String outcome(final int status) {
+    if (status == 200 || status == 304) {
+      return String.valueOf(status);
+    }
+    return status < 500 ? "4xx" : "5xx";
+  }
+
+  /** Outcome of a failed request, using the status the {@code GlobalExceptionHandler} answers. */
+  public static String outcome(final RuntimeException ex) {
+    if (ex instanceof ResponseStatusException rse) {
+      final ErrorCase errorCase = ErrorCase.getByBdeReference(rse.getReason());
+      return outcome(errorCase != null ? errorCase.getHttpCode() : rse.getStatusCode().value());
+    }
+    return outcome(500);
+  }
+
+  private Timer timer(final String name, final String stage, final String outcome) {
+    return timers.computeIfAbsent(
+        name + '|' + stage + '|' + outcome,
+        key -> {
+          final Timer.Builder builder = Timer.builder(name).tag("outcome", outcome);
+          if (stage != null) {
+            builder.tag("stage", stage);
+          }
+          return builder.register(registry);
+        });
+  }
+
+  /**
+   * Stage durations of a single request. Not thread-safe, use one sample per request. Stages may be
+   * nested, the time of a nested stage is only recorded for the nested stage and not for the
+   * enclosing one.
+   */
+  public final class Sample {
+
+    private final long startNanos = registry.config().clock().monotonicTime();
+    private final long[] stageNanos = new long[Stage.values().length];
+    private final boolean[] stageRan = new boolean[Stage.values().length];
+    private long nestedNanos;
+
+    private Sample() {}
+
+    public <T> T time(final Stage stage, final Supplier<T> step) {
+      final long enclosingNestedNanos = nestedNanos;
+      nestedNanos = 0;
+      final long start = registry.config().clock().monotonicTime();
+      try {
+        return step.get();
+      } finally {
+        final long elapsed = registry.config().clock().monotonicTime() - start;
+        stageNanos[stage.ordinal()] += elapsed - nestedNanos;
+        stageRan[stage.ordinal()] = true;
+        nestedNanos = enclosingNestedNanos + elapsed;
+      }
+    }
+
+    public void time(final Stage stage, final Runnable step) {
+      time(
+          stage,
+          () -> {
+            step.run();
+            return null;
+          });
+    }
+
+    public void stop(final String outcome) {
+      final long total = registry.config().clock().monotonicTime() - startNanos;
+      timer(REQUEST_TIMER, null, outcome).record(total, TimeUnit.NANOSECONDS);
+      for (final Stage stage : Stage.values()) {
+        if (stageRan[stage.ordinal()]) {
+          timer(STAGE_TIMER, stage.getTag(), outcome)
+              .record(stageNanos[stage.ordinal()], TimeUnit.NANOSECONDS);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,104 @@
+/*-
+ * #%L
+ * VSDM Server Simservice
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.ti20.simsvc.server.service;
+
+import de.gematik.bbriccs.fhir.EncodingType;
+import de.gematik.ti20.simsvc.server.cache.BoundedCache;
+import de.gematik.ti20.simsvc.server.cache.CacheStats;
+import de.gematik.ti20.simsvc.server.repository.TestDataReloadedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Holds already encoded VSDM bundles per KVNR and encoding, so repeated reads of the same patient
+ * skip building and serializing the bundle. The cache is cleared whenever the test data is
+ * reloaded. Set {@code vsdm.response-cache.max-size} to {@code 0} to disable it.
+ *
+ * <p>Callers take the {@link #generation()} before reading the VSDM data and pass it to {@link
+ * #put}, so a body built from data read before a reload is not stored after the reload.
+ */
+@Slf4j
+@Service
+public class VsdmResponseCache {
+
+  private record Key(String kvnr, EncodingType encodingType) {}
+
+  private final BoundedCache<Key, String> cache;
+  private final Object lock = new Object();
+  private long generation;
+
+  public VsdmResponseCache(@Value("${vsdm.response-cache.max-size:1000}") final int maxSize) {
+    this.cache = new BoundedCache<>(maxSize);
+  }
+
+  public String get(final String kvnr, final EncodingType encodingType) {
+    return cache.get(new Key(kvnr, encodingType));
+  }
+
+  public long generation() {
+    synchronized (lock) {
+      return generation;
+    }
+  }
+
+  /**
+   * Stores an encoded bundle unless the cache was invalidated since {@code generation} was taken.
+   *
+   * @return {@code true} if the body was stored
+   */
+  public boolean put(
+      final String kvnr,
+      final EncodingType encodingType,
+      final String encoded,
+      final long generation) {
+    synchronized (lock) {
+      if (generation != this.generation) {
+        log.debug("Not caching response for {} built before the last invalidation", kvnr);
+        return false;
+      }
+      cache.put(new Key(kvnr, encodingType), encoded);
+      return true;
+    }
+  }
+
+  public void invalidateAll() {
+    synchronized (lock) {
+      generation++;
+      cache.invalidateAll();
+    }
+  }
+
+  public CacheStats stats() {
+    return cache.stats();
+  }
+
+  @EventListener
+  public void onTestDataReloaded(final TestDataReloadedEvent event) {
+    log.info("Test data reloaded, discarding {} cached responses", cache.size());
+    invalidateAll();
+  }
+}
@@ -0,0 +1,115 @@
+/*-
+ * #%L
+ * VSDM Server Simservice
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.ti20.simsvc.server.benchmark;
+
+import de.gematik.ti20.simsvc.server.service.ChecksumService;
+import de.gematik.ti20.simsvc.server.service.EtagService;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the per request cost of the vsdm-pz checksum and the etag HMAC before and after reusing
+ * digest and mac instances. The {@code legacy*} methods reproduce the former implementation.
+ *
+ * <p>Run with {@code ../../mvnw test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=de.gematik.ti20.simsvc.server.benchmark.HashingBenchmark} or start {@link
+ * #main} from the IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HashingBenchmark {
+
+  private static final String KVNR = "X123456789";
+  private static final String CONTENT =
+      "{\"resourceType\":\"Bundle\",\"type\":\"collection\",\"entry\":[]}".repeat(20);
+
+  private ChecksumService memoizedChecksumService;
+  private ChecksumService uncachedChecksumService;
+  private EtagService uncachedEtagService;
+
+  @Setup
+  public void setUp() {
+    memoizedChecksumService = new ChecksumService();
+    uncachedChecksumService = new ChecksumService(0);
+    // a store of size 0 forces a new HMAC on every call
+    uncachedEtagService = new EtagService(0, Duration.ofHours(1), EtagService.EtagMode.CONTENT);
+  }
+
+  @Benchmark
+  public String legacyChecksum() throws Exception {
+    final MessageDigest md = MessageDigest.getInstance("SHA-512");
+    md.update(KVNR.getBytes());
+    return Base64.getUrlEncoder().encodeToString(Arrays.copyOf(md.digest(), 48));
+  }
+
+  @Benchmark
+  public String clonedDigestChecksum() {
+    return uncachedChecksumService.calculateChecksum(KVNR);
+  }
+
+  @Benchmark
+  public String memoizedChecksum() {
+    return memoizedChecksumService.calculateChecksum(KVNR);
+  }
+
+  @Benchmark
+  public String legacyEtag() throws Exception {
+    final Mac mac = Mac.getInstance("HmacSHA256");
+    mac.init(new SecretKeySpec("gematik-simsvc-etag-key".getBytes(), "HmacSHA256"));
+    return HexFormat.of().formatHex(mac.doFinal(CONTENT.getBytes()));
+  }
+
+  @Benchmark
+  public String clonedMacEtag() {
+    return uncachedEtagService.storeContentEtag(KVNR, () -> CONTENT);
+  }
+
+  public static void main(final String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(HashingBenchmark.class.getSimpleName()).build()).run();
+  }
+}
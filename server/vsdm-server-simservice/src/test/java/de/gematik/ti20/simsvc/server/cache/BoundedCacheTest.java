@@ -0,0 +1,153 @@
+/*-
+ * #%L
+ * VSDM Server Simservice
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.ti20.simsvc.server.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.Test;
+
+class BoundedCacheTest {
+
+  @Test
+  void testGetAndPut() {
+    BoundedCache<String, String> cache = new BoundedCache<>(10);
+
+    assertNull(cache.get("a"));
+    cache.put("a", "1");
+
+    assertEquals("1", cache.get("a"));
+    assertEquals(1, cache.stats().hits());
+    assertEquals(1, cache.stats().misses());
+  }
+
+  @Test
+  void testEvictsBeyondMaxSize() {
+    BoundedCache<String, String> cache = new BoundedCache<>(2);
+    cache.put("a", "1");
+    cache.put("b", "2");
+
+    cache.put("c", "3");
+
+    assertEquals(2, cache.size());
+    assertEquals(1, cache.stats().evictions());
+    assertEquals(2, cache.stats().maxSize());
+  }
+
+  @Test
+  void testComputeIfAbsentLoadsOnce() {
+    BoundedCache<String, String> cache = new BoundedCache<>(10);
+    int[] calls = {0};
+
+    cache.computeIfAbsent("a", k -> k + ++calls[0]);
+    String value = cache.computeIfAbsent("a", k -> k + ++calls[0]);
+
+    assertEquals("a1", value);
+    assertEquals(1, calls[0]);
+  }
+
+  @Test
+  void testZeroSizeDisablesCache() {
+    BoundedCache<String, String> cache = new BoundedCache<>(0);
+    cache.put("a", "1");
+
+    assertNull(cache.get("a"));
+    assertEquals("2", cache.computeIfAbsent("a", k -> "2"));
+    assertNull(cache.get("a"));
+    assertEquals(0, cache.size());
+    assertEquals(3, cache.stats().misses());
+  }
+
+  @Test
+  void testInvalidate() {
+    BoundedCache<String, String> cache = new BoundedCache<>(10);
+    cache.put("a", "1");
+    cache.put("b", "2");
+
+    cache.invalidate("a");
+    assertNull(cache.get("a"));
+    assertEquals("2", cache.get("b"));
+
+    cache.invalidateAll();
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  void testNegativeSizeIsRejected() {
+    assertThrows(IllegalArgumentException.class, () -> new BoundedCache<>(-1));
+  }
+
+  @Test
+  void testEntriesExpireAfterTtl() {
+    MutableClock clock = new MutableClock();
+    BoundedCache<String, String> cache = new BoundedCache<>(10, Duration.ofSeconds(10), clock);
+    cache.put("a", "1");
+
+    clock.advance(Duration.ofSeconds(9));
+    assertEquals("1", cache.get("a"));
+
+    clock.advance(Duration.ofSeconds(1));
+    assertNull(cache.get("a"));
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  void testComputeIfAbsentReplacesExpiredEntry() {
+    MutableClock clock = new MutableClock();
+    BoundedCache<String, String> cache = new BoundedCache<>(10, Duration.ofSeconds(10), clock);
+    cache.put("a", "1");
+
+    clock.advance(Duration.ofSeconds(11));
+
+    assertEquals("2", cache.computeIfAbsent("a", k -> "2"));
+  }
+
+  private static class MutableClock extends Clock {
+    private Instant now = Instant.EPOCH;
+
+    void advance(Duration duration) {
+      now = now.plus(duration);
+    }
+
+    @Override
+    public ZoneOffset getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+  }
+}
@@ -0,0 +1,82 @@
+/*-
+ * #%L
+ * VSDM Server Simservice
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.ti20.simsvc.server.controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+class TraceIdFilterTest {
+
+  private final TraceIdFilter filter = new TraceIdFilter();
+
+  @Test
+  void testDoFilter_SetsAndClearsTraceId() throws Exception {
+    HttpServletRequest request = mock(HttpServletRequest.class);
+    when(request.getHeader("x-trace-id")).thenReturn("trace-1");
+    AtomicReference<String> seen = new AtomicReference<>();
+    FilterChain chain = (req, res) -> seen.set(MDC.get("traceId"));
+
+    filter.doFilter(request, mock(ServletResponse.class), chain);
+
+    assertEquals("trace-1", seen.get());
+    assertNull(MDC.get("traceId"));
+  }
+
+  @Test
+  void testDoFilter_OnVirtualThreads() throws Exception {
+    AtomicReference<String> seen1 = new AtomicReference<>();
+    AtomicReference<String> seen2 = new AtomicReference<>();
+    AtomicReference<String> after = new AtomicReference<>("not run");
+
+    Thread t1 = Thread.ofVirtual().start(() -> runFilter("trace-1", seen1, after));
+    Thread t2 = Thread.ofVirtual().start(() -> runFilter("trace-2", seen2, new AtomicReference<>()));
+    t1.join();
+    t2.join();
+
+    assertEquals("trace-1", seen1.get());
+    assertEquals("trace-2", seen2.get());
+    assertNull(after.get());
+  }
+
+  private void runFilter(
+      String traceId, AtomicReference<String> seen, AtomicReference<String> after) {
+    HttpServletRequest request = mock(HttpServletRequest.class);
+    when(request.getHeader("x-trace-id")).thenReturn(traceId);
+    try {
+      filter.doFilter(
+          request, mock(ServletResponse.class), (req, res) -> seen.set(MDC.get("traceId")));
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+    after.set(MDC.get("traceId"));
+  }
+}
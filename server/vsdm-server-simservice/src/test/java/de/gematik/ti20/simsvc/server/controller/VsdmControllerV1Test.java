@@ -29,8 +29,10 @@ import static org.mockito.Mockito.*;
 
 import de.gematik.ti20.simsvc.server.config.VsdmConfig;
 import de.gematik.ti20.simsvc.server.service.*;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.servlet.http.HttpServletRequest;
 import java.util.Base64;
+import java.util.function.Supplier;
 import org.hl7.fhir.r4.model.Bundle;
 import org.hl7.fhir.r4.model.Resource;
 import org.junit.jupiter.api.BeforeEach;
@@ -68,6 +70,8 @@ class VsdmControllerV1Test {
   @Mock private HttpServletRequest request;
 
   private VsdmControllerV1 vsdmController;
+  private VsdmResponseCache responseCache;
+  private SimpleMeterRegistry meterRegistry;
 
   @BeforeEach
   void setUp() throws Exception {
@@ -80,14 +84,18 @@ class VsdmControllerV1Test {
     userInfoValidationService = new UserInfoValidationService();
     userInfoValidationService.init();
 
+    meterRegistry = new SimpleMeterRegistry();
+    responseCache = new VsdmResponseCache(100);
     vsdmController =
         new VsdmControllerV1(
-            vsdmConfig,
             vsdmService,
             fhirService,
             checksumService,
             etagService,
-            userInfoValidationService);
+            userInfoValidationService,
+            responseCache,
+            new PoppTokenContentService(vsdmConfig, 100),
+            new VsdmReadMetrics(meterRegistry));
 
     request = mock(HttpServletRequest.class);
     when(request.getHeader("zeta-popp-token-content")).thenReturn("mock-popp-token");
@@ -116,6 +124,62 @@ class VsdmControllerV1Test {
     return poppTokenContentCoded;
   }
 
+  private long stageCount(final String stage, final String outcome) {
+    return meterRegistry
+        .get(VsdmReadMetrics.STAGE_TIMER)
+        .tag("stage", stage)
+        .tag("outcome", outcome)
+        .timer()
+        .count();
+  }
+
+  @Test
+  void testVsdmbundle_ContentEtagIsReusedForResponse() {
+    String kvnr = "X123456789";
+    String poppTokenContentCoded = makePoppTokenContentCoded(kvnr, "109500969");
+    String responseBody = "{\"resourceType\":\"Bundle\"}";
+    Resource mockResource = new Bundle();
+
+    when(etagService.isContentBased()).thenReturn(true);
+    when(etagService.storeContentEtag(eq(kvnr), any())).thenReturn("content-etag");
+    when(vsdmService.readVsd(kvnr)).thenReturn(mockResource);
+    when(fhirService.encodeResponse(eq(mockResource), eq(request), any(HttpHeaders.class)))
+        .thenReturn(responseBody);
+
+    ResponseEntity<?> response =
+        vsdmController.vsdmbundle(poppTokenContentCoded, VALID_USER_INFO, "0", request);
+
+    // the etag derived before is used, even if the etag store dropped it in the meantime
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    verify(etagService).matchesEtag("content-etag", "0");
+    verify(etagService).addContentEtagHeader(eq("content-etag"), any(HttpHeaders.class));
+    verify(etagService, never()).checkEtag(any(), any());
+    verify(etagService, never()).addEtagHeader(any(), any(), any());
+  }
+
+  @Test
+  void testVsdmbundle_ContentEtagTimesReadAndEncodingSeparately() {
+    String kvnr = "X123456789";
+    String poppTokenContentCoded = makePoppTokenContentCoded(kvnr, "109500969");
+    Resource mockResource = new Bundle();
+
+    when(etagService.isContentBased()).thenReturn(true);
+    when(etagService.storeContentEtag(eq(kvnr), any()))
+        .thenAnswer(invocation -> invocation.<Supplier<String>>getArgument(1).get());
+    when(vsdmService.readVsd(kvnr)).thenReturn(mockResource);
+    when(fhirService.encodeCanonical(mockResource)).thenReturn("canonical");
+    when(etagService.matchesEtag("canonical", "etag")).thenReturn(true);
+    when(checksumService.calculateChecksum(kvnr)).thenReturn("PZ");
+
+    ResponseEntity<?> response =
+        vsdmController.vsdmbundle(poppTokenContentCoded, VALID_USER_INFO, "etag", request);
+
+    assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+    assertEquals(1, stageCount("read_vsd", "304"));
+    assertEquals(1, stageCount("encoding", "304"));
+    assertEquals(1, stageCount("etag", "304"));
+  }
+
   @Test
   void testVsdmbundle_Success() {
     String kvnr = "X123456789";
@@ -143,6 +207,11 @@ class VsdmControllerV1Test {
     verify(fhirService).encodeResponse(eq(mockResource), eq(request), any(HttpHeaders.class));
     verify(checksumService).addChecksumHeader(eq(kvnr), any(HttpHeaders.class));
     verify(etagService).addEtagHeader(eq(kvnr), eq(responseBody), any(HttpHeaders.class));
+
+    assertEquals(
+        1, meterRegistry.get(VsdmReadMetrics.REQUEST_TIMER).tag("outcome", "200").timer().count());
+    assertEquals(1, stageCount("read_vsd", "200"));
+    assertEquals(1, stageCount("encoding", "200"));
   }
 
   @Test
@@ -206,6 +275,65 @@ class VsdmControllerV1Test {
     verify(etagService).addEtagHeader(eq(kvnr), eq(responseBodyWithUmlaut), any(HttpHeaders.class));
   }
 
+  @Test
+  void testVsdmbundle_SecondRequestIsServedFromCache() {
+    String kvnr = "X123456789";
+    String iknr = "109500969";
+    String poppTokenContentCoded = makePoppTokenContentCoded(kvnr, iknr);
+
+    String responseBody = "{\"resourceType\":\"Bundle\"}";
+    Resource mockResource = new Bundle();
+    String userInfo = VALID_USER_INFO;
+    String etag = "0";
+
+    when(etagService.checkEtag(kvnr, etag)).thenReturn(false);
+    when(vsdmService.readVsd(kvnr)).thenReturn(mockResource);
+    when(fhirService.encodeResponse(eq(mockResource), eq(request), any(HttpHeaders.class)))
+        .thenReturn(responseBody);
+
+    vsdmController.vsdmbundle(poppTokenContentCoded, userInfo, etag, request);
+    ResponseEntity<?> response =
+        vsdmController.vsdmbundle(poppTokenContentCoded, userInfo, etag, request);
+
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals(responseBody, response.getBody());
+
+    verify(vsdmService, times(1)).readVsd(kvnr);
+    verify(fhirService, times(1)).encodeResponse(any(), any(), any());
+    verify(fhirService).addContentTypeHeader(any(), any(HttpHeaders.class));
+    verify(etagService, times(2)).addEtagHeader(eq(kvnr), eq(responseBody), any(HttpHeaders.class));
+  }
+
+  @Test
+  void testVsdmbundle_BodyReadBeforeReloadIsNotCached() {
+    String kvnr = "X123456789";
+    String iknr = "109500969";
+    String poppTokenContentCoded = makePoppTokenContentCoded(kvnr, iknr);
+
+    String responseBody = "{\"resourceType\":\"Bundle\"}";
+    Resource mockResource = new Bundle();
+    String userInfo = VALID_USER_INFO;
+    String etag = "0";
+
+    when(etagService.checkEtag(kvnr, etag)).thenReturn(false);
+    when(vsdmService.readVsd(kvnr))
+        .thenAnswer(
+            invocation -> {
+              // test data is reloaded while the old data is being encoded
+              responseCache.invalidateAll();
+              return mockResource;
+            })
+        .thenReturn(mockResource);
+    when(fhirService.encodeResponse(eq(mockResource), eq(request), any(HttpHeaders.class)))
+        .thenReturn(responseBody);
+
+    vsdmController.vsdmbundle(poppTokenContentCoded, userInfo, etag, request);
+    vsdmController.vsdmbundle(poppTokenContentCoded, userInfo, etag, request);
+
+    verify(vsdmService, times(2)).readVsd(kvnr);
+    verify(fhirService, times(2)).encodeResponse(any(), any(), any());
+  }
+
   @Test
   void testVsdmbundle_NotModified() {
     String kvnr = "X123456789";
@@ -238,6 +366,14 @@ class VsdmControllerV1Test {
     verify(fhirService, never()).encodeResponse(any(), any(), any());
     verify(checksumService, never()).addChecksumHeader(any(), any());
     verify(etagService, never()).addEtagHeader(any(), any(), any());
+
+    assertEquals(1, stageCount("etag", "304"));
+    assertTrue(
+        meterRegistry
+            .find(VsdmReadMetrics.STAGE_TIMER)
+            .tag("stage", "read_vsd")
+            .timers()
+            .isEmpty());
   }
 
   @Test
@@ -254,6 +390,8 @@ class VsdmControllerV1Test {
 
     assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
     assertEquals("SERVICE_MISSING_OR_INVALID_HEADER", exception.getReason());
+    assertEquals(
+        1, meterRegistry.get(VsdmReadMetrics.REQUEST_TIMER).tag("outcome", "4xx").timer().count());
   }
 
   @Test
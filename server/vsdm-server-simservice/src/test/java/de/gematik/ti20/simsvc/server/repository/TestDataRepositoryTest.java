@@ -50,6 +50,30 @@ class TestDataRepositoryTest {
             });
   }
 
+  @Test
+  void thatUnknownKvnrReturnsEmpty() {
+    assertThat(testDataRepository.patientByKvnr("X000000000")).isEmpty();
+  }
+
+  @Test
+  void thatLookupsReturnNewPatients() {
+    final VsdmPatient first = testDataRepository.patientByKvnr("N430140916").orElseThrow();
+    final VsdmPatient second = testDataRepository.patientByKvnr("N430140916").orElseThrow();
+
+    assertThat(first).isNotSameAs(second);
+    assertThat(first.getBirthDate()).isEqualTo(second.getBirthDate());
+  }
+
+  @Test
+  void thatReloadKeepsAllPatients() {
+    final Set<String> before = testDataRepository.findAvailableKvnrs();
+
+    testDataRepository.reload();
+
+    assertThat(testDataRepository.findAvailableKvnrs()).isEqualTo(before);
+    assertThat(testDataRepository.patientByKvnr("N430140916")).isPresent();
+  }
+
   @Test
   void thatKvnrsAreReturned() {
     final Set<String> kvnrs = testDataRepository.findAvailableKvnrs();
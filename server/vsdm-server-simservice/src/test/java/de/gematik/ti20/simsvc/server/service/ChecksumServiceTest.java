@@ -27,7 +27,10 @@ package de.gematik.ti20.simsvc.server.service;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.HttpHeaders;
@@ -133,4 +136,28 @@ class ChecksumServiceTest {
     assertNotNull(checksum);
     assertTrue(checksum.length() == 64);
   }
+
+  @Test
+  void testCalculateChecksum_MatchesSha512Prefix() throws NoSuchAlgorithmException {
+    String kvnr = "X123456789";
+    byte[] digest = MessageDigest.getInstance("SHA-512").digest(kvnr.getBytes());
+    String expected = Base64.getUrlEncoder().encodeToString(Arrays.copyOf(digest, 48));
+
+    assertEquals(expected, checksumService.calculateChecksum(kvnr));
+    // served from the memoized value the second time
+    assertEquals(expected, checksumService.calculateChecksum(kvnr));
+  }
+
+  @Test
+  void testCalculateChecksum_WithoutCache() {
+    ChecksumService uncached = new ChecksumService(0);
+
+    assertEquals(
+        checksumService.calculateChecksum("X123456789"), uncached.calculateChecksum("X123456789"));
+  }
+
+  @Test
+  void testCalculateChecksum_Null() {
+    assertNull(checksumService.calculateChecksum(null));
+  }
 }
@@ -26,6 +26,7 @@ package de.gematik.ti20.simsvc.server.service;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.time.Duration;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.HttpHeaders;
@@ -223,4 +224,96 @@ class EtagServiceTest {
 
     assertEquals(firstEtag, secondEtag);
   }
+
+  @Test
+  void testCheckEtag_AfterInvalidate() {
+    String kvnr = "X123456789";
+    HttpHeaders headers = new HttpHeaders();
+    etagService.addEtagHeader(kvnr, "{\"resourceType\":\"Bundle\"}", headers);
+    String etag = headers.getFirst(EtagService.HEADER_NAME);
+
+    etagService.invalidate(kvnr);
+
+    assertFalse(etagService.checkEtag(kvnr, etag));
+  }
+
+  @Test
+  void testCheckEtag_PartiallyQuoted() {
+    String kvnr = "X123456789";
+    HttpHeaders headers = new HttpHeaders();
+    etagService.addEtagHeader(kvnr, "{\"resourceType\":\"Bundle\"}", headers);
+    String etag = headers.getFirst(EtagService.HEADER_NAME).replace("\"", "");
+
+    assertFalse(etagService.checkEtag(kvnr, "\"" + etag));
+    assertFalse(etagService.checkEtag(kvnr, "x" + etag + "x"));
+  }
+
+  @Test
+  void testEtagStore_BoundedSize() {
+    etagService = new EtagService(2, Duration.ofHours(1), EtagService.EtagMode.TIMESTAMP);
+    String encodedResponse = "{\"resourceType\":\"Bundle\"}";
+
+    etagService.addEtagHeader("X100000001", encodedResponse, new HttpHeaders());
+    etagService.addEtagHeader("X100000002", encodedResponse, new HttpHeaders());
+    etagService.addEtagHeader("X100000003", encodedResponse, new HttpHeaders());
+
+    assertEquals(2, etagService.stats().size());
+    assertEquals(1, etagService.stats().evictions());
+  }
+
+  @Test
+  void testContentMode_InstancesAgreeOnEtag() {
+    String kvnr = "X123456789";
+    String canonicalContent = "{\"resourceType\":\"Bundle\"}";
+    EtagService first = new EtagService(10, Duration.ofHours(1), EtagService.EtagMode.CONTENT);
+    EtagService second = new EtagService(10, Duration.ofHours(1), EtagService.EtagMode.CONTENT);
+
+    HttpHeaders headers = new HttpHeaders();
+    first.storeContentEtag(kvnr, () -> canonicalContent);
+    first.addEtagHeader(kvnr, "{\"id\":\"1\"}", headers);
+    String etag = headers.getFirst(EtagService.HEADER_NAME);
+
+    second.storeContentEtag(kvnr, () -> canonicalContent);
+
+    assertTrue(second.isContentBased());
+    assertTrue(second.checkEtag(kvnr, etag));
+  }
+
+  @Test
+  void testContentMode_EtagIsNotDerivedFromResponseWhenNotStored() {
+    String kvnr = "X123456789";
+    String canonicalContent = "{\"resourceType\":\"Bundle\"}";
+    EtagService uncached = new EtagService(0, Duration.ofHours(1), EtagService.EtagMode.CONTENT);
+    EtagService other = new EtagService(10, Duration.ofHours(1), EtagService.EtagMode.CONTENT);
+
+    String etag = uncached.storeContentEtag(kvnr, () -> canonicalContent);
+    HttpHeaders headers = new HttpHeaders();
+    uncached.addContentEtagHeader(etag, headers);
+    HttpHeaders encodedHeaders = new HttpHeaders();
+    uncached.addEtagHeader(kvnr, "{\"id\":\"1\"}", encodedHeaders);
+
+    String responseEtag = headers.getFirst(EtagService.HEADER_NAME);
+    assertEquals("\"" + etag + "\"", responseEtag);
+    assertNull(encodedHeaders.getFirst(EtagService.HEADER_NAME));
+    assertTrue(uncached.matchesEtag(etag, responseEtag));
+    other.storeContentEtag(kvnr, () -> canonicalContent);
+    assertTrue(other.checkEtag(kvnr, responseEtag));
+  }
+
+  @Test
+  void testContentMode_ChangedContentChangesEtag() {
+    String kvnr = "X123456789";
+    EtagService first = new EtagService(10, Duration.ofHours(1), EtagService.EtagMode.CONTENT);
+    EtagService second = new EtagService(10, Duration.ofHours(1), EtagService.EtagMode.CONTENT);
+
+    String etag1 = first.storeContentEtag(kvnr, () -> "{\"name\":\"a\"}");
+    String etag2 = second.storeContentEtag(kvnr, () -> "{\"name\":\"b\"}");
+
+    assertNotEquals(etag1, etag2);
+  }
+
+  @Test
+  void testTimestampMode_IsNotContentBased() {
+    assertFalse(etagService.isContentBased());
+  }
 }
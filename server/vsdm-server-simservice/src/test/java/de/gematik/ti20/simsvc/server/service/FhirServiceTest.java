@@ -28,10 +28,13 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 import de.gematik.bbriccs.rest.fd.MediaType;
+import de.gematik.ti20.vsdm.fhir.builder.VsdmBundleBuilder;
+import de.gematik.ti20.vsdm.fhir.builder.VsdmPatientBuilder;
 import jakarta.servlet.http.HttpServletRequest;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.StringReader;
+import java.util.Date;
 import org.hl7.fhir.r4.model.Bundle;
 import org.hl7.fhir.r4.model.Patient;
 import org.hl7.fhir.r4.model.Resource;
@@ -165,6 +168,18 @@ class FhirServiceTest {
     assertDoesNotThrow(() -> fhirService.parsePostRequest(request));
   }
 
+  @Test
+  void testGetBodyString_KeepsLineBreaks() throws IOException {
+    String multilineBody = "{\n  \"resourceType\": \"Patient\",\n  \"id\": \"test\"\n}";
+    when(request.getContentLength()).thenReturn(multilineBody.length());
+    when(request.getReader()).thenReturn(new BufferedReader(new StringReader(multilineBody)));
+    when(request.getHeader("content-type")).thenReturn("application/json");
+
+    Patient patient = fhirService.parsePostRequest(request, Patient.class);
+
+    assertEquals("test", patient.getIdElement().getIdPart());
+  }
+
   @Test
   void testValidate_ValidResource() {
     String validBody = "{\"resourceType\":\"Patient\"}";
@@ -183,4 +198,52 @@ class FhirServiceTest {
     assertNotNull(result);
     assertTrue(headers.containsKey("Content-Type"));
   }
+
+  @Test
+  void testEncodeCanonical_IgnoresGeneratedIds() {
+    String first = fhirService.encodeCanonical(bundleFor("X123456789", "Doe"));
+    String second = fhirService.encodeCanonical(bundleFor("X123456789", "Doe"));
+
+    assertEquals(first, second);
+    assertTrue(first.contains("X123456789"));
+  }
+
+  @Test
+  void testEncodeCanonical_IgnoresBuildTime() {
+    Bundle first = (Bundle) bundleFor("X123456789", "Doe");
+    Bundle second = (Bundle) bundleFor("X123456789", "Doe");
+    first.setTimestamp(new Date(1_700_000_000_000L));
+    second.setTimestamp(new Date(1_700_000_060_000L));
+    second.getMeta().setLastUpdated(new Date(1_700_000_060_000L));
+
+    assertEquals(fhirService.encodeCanonical(first), fhirService.encodeCanonical(second));
+  }
+
+  @Test
+  void testEncodeCanonical_DetectsChangedContent() {
+    String first = fhirService.encodeCanonical(bundleFor("X123456789", "Doe"));
+    String second = fhirService.encodeCanonical(bundleFor("X123456789", "Roe"));
+
+    assertNotEquals(first, second);
+  }
+
+  @Test
+  void testEncodeCanonical_DoesNotModifyResource() {
+    Resource bundle = bundleFor("X123456789", "Doe");
+    String id = bundle.getIdElement().getIdPart();
+
+    fhirService.encodeCanonical(bundle);
+
+    assertEquals(id, bundle.getIdElement().getIdPart());
+  }
+
+  private Resource bundleFor(String kvnr, String family) {
+    Patient patient =
+        VsdmPatientBuilder.create()
+            .withKvnr(kvnr)
+            .withNames(family, "John")
+            .withBirthDate("1980-01-01")
+            .build();
+    return VsdmBundleBuilder.create().addEntry(patient).build();
+  }
 }
@@ -0,0 +1,127 @@
+/*-
+ * #%L
+ * VSDM Server Simservice
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.ti20.simsvc.server.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import de.gematik.ti20.simsvc.server.config.VsdmConfig;
+import de.gematik.ti20.simsvc.server.model.PoppTokenContent;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+class PoppTokenContentServiceTest {
+
+  private PoppTokenContentService poppTokenContentService;
+
+  @BeforeEach
+  void setUp() {
+    VsdmConfig vsdmConfig = new VsdmConfig();
+    vsdmConfig.setIknr("109500969");
+    vsdmConfig.setValidKvnrPrefix("X1234");
+    vsdmConfig.setInvalidKvnrPrefix("X4321");
+    vsdmConfig.setUnknownKvnrPrefix("X9");
+
+    poppTokenContentService = new PoppTokenContentService(vsdmConfig, 10);
+  }
+
+  private static String encode(String json) {
+    return Base64.getEncoder().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private void assertRejected(String header, String expectedReason) {
+    ResponseStatusException exception =
+        assertThrows(ResponseStatusException.class, () -> poppTokenContentService.parse(header));
+    assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+    assertEquals(expectedReason, exception.getReason());
+  }
+
+  @Test
+  void testParse_Valid() {
+    String header =
+        encode(
+            """
+            {"actorId": "883110000168650", "insurerId": "109500969",
+             "nested": {"patientId": "ignored"}, "patientId": "X123456789", "at": 1773397230}
+            """);
+
+    PoppTokenContent content = poppTokenContentService.parse(header);
+
+    assertEquals("109500969", content.getInsurerId());
+    assertEquals("X123456789", content.getPatientId());
+  }
+
+  @Test
+  void testParse_RepeatedHeaderIsCached() {
+    String header = encode("{\"insurerId\": \"109500969\", \"patientId\": \"X123456789\"}");
+
+    PoppTokenContent first = poppTokenContentService.parse(header);
+    PoppTokenContent second = poppTokenContentService.parse(header);
+
+    assertSame(first, second);
+    assertEquals(1, poppTokenContentService.stats().hits());
+  }
+
+  @Test
+  void testParse_InvalidContentIsNotCached() {
+    String header = encode("{\"insurerId\": \"109500969\", \"patientId\": \"X912345678\"}");
+
+    assertRejected(header, "VSDSERVICE_UNKNOWN_KVNR");
+    assertRejected(header, "VSDSERVICE_UNKNOWN_KVNR");
+    assertEquals(0, poppTokenContentService.stats().size());
+  }
+
+  @Test
+  void testParse_StructuredPatientIdIsInvalidKvnr() {
+    assertRejected(
+        encode("{\"insurerId\": \"109500969\", \"patientId\": {\"value\": \"X123456789\"}}"),
+        "VSDSERVICE_INVALID_KVNR");
+  }
+
+  @Test
+  void testParse_NullPatientIdIsMissing() {
+    assertRejected(
+        encode("{\"insurerId\": \"109500969\", \"patientId\": null}"),
+        "SERVICE_MISSING_OR_INVALID_HEADER");
+  }
+
+  @Test
+  void testParse_NotAnObject() {
+    assertRejected(encode("[1, 2, 3]"), "SERVICE_MISSING_OR_INVALID_HEADER");
+  }
+
+  @Test
+  void testParse_MalformedJson() {
+    assertRejected(encode("{\"insurerId\": "), "SERVICE_MISSING_OR_INVALID_HEADER");
+  }
+
+  @Test
+  void testParse_Null() {
+    assertRejected(null, "SERVICE_MISSING_OR_INVALID_HEADER");
+  }
+}
@@ -176,4 +176,35 @@ class UserInfoValidationServiceTest {
     assertThatThrownBy(() -> userInfoValidationService.validateUserInfo(toBase64(json)))
         .satisfies(UserInfoValidationServiceTest::assertBadRequest);
   }
+
+  @Test
+  void validateUserInfo_repeatedHeader_isServedFromCache() {
+    final String header =
+        toBase64(
+            """
+            {"identifier": "12345", "professionOID": "1.2.276.0.76.4.49"}
+            """);
+
+    userInfoValidationService.validateUserInfo(header);
+    userInfoValidationService.validateUserInfo(header);
+
+    assertThat(userInfoValidationService.stats().hits()).isEqualTo(1);
+    assertThat(userInfoValidationService.stats().size()).isEqualTo(1);
+  }
+
+  @Test
+  void validateUserInfo_repeatedInvalidHeader_throwsEveryTime() {
+    final String header = toBase64("{}");
+
+    assertThatThrownBy(() -> userInfoValidationService.validateUserInfo(header))
+        .satisfies(UserInfoValidationServiceTest::assertBadRequest);
+    assertThatThrownBy(() -> userInfoValidationService.validateUserInfo(header))
+        .satisfies(UserInfoValidationServiceTest::assertBadRequest);
+  }
+
+  @Test
+  void validateUserInfo_null_throwsBadRequest() {
+    assertThatThrownBy(() -> userInfoValidationService.validateUserInfo(null))
+        .satisfies(UserInfoValidationServiceTest::assertBadRequest);
+  }
 }
@@ -0,0 +1,157 @@
+/*-
+ * #%L
+ * VSDM Server Simservice
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.ti20.simsvc.server.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import de.gematik.ti20.simsvc.server.exception.ErrorCase;
+import de.gematik.ti20.simsvc.server.service.VsdmReadMetrics.Stage;
+import io.micrometer.core.instrument.MockClock;
+import io.micrometer.core.instrument.simple.SimpleConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+class VsdmReadMetricsTest {
+
+  private MockClock clock;
+  private SimpleMeterRegistry registry;
+  private VsdmReadMetrics metrics;
+
+  @BeforeEach
+  void setUp() {
+    clock = new MockClock();
+    registry = new SimpleMeterRegistry(SimpleConfig.DEFAULT, clock);
+    metrics = new VsdmReadMetrics(registry);
+  }
+
+  @Test
+  void testStop_RecordsStagesWithOutcome() {
+    VsdmReadMetrics.Sample sample = metrics.start();
+    sample.time(Stage.HEADERS, () -> clock.add(Duration.ofMillis(2)));
+    String result =
+        sample.time(
+            Stage.ENCODING,
+            () -> {
+              clock.add(Duration.ofMillis(5));
+              return "encoded";
+            });
+    sample.stop("200");
+
+    assertEquals("encoded", result);
+    assertEquals(
+        7,
+        registry
+            .get(VsdmReadMetrics.REQUEST_TIMER)
+            .tag("outcome", "200")
+            .timer()
+            .totalTime(TimeUnit.MILLISECONDS));
+    assertEquals(
+        5,
+        registry
+            .get(VsdmReadMetrics.STAGE_TIMER)
+            .tags("stage", "encoding", "outcome", "200")
+            .timer()
+            .totalTime(TimeUnit.MILLISECONDS));
+    // stages that did not run are not recorded
+    assertNull(registry.find(VsdmReadMetrics.STAGE_TIMER).tag("stage", "read_vsd").timer());
+  }
+
+  @Test
+  void testTime_NestedStagesAreNotCountedTwice() {
+    VsdmReadMetrics.Sample sample = metrics.start();
+    sample.time(
+        Stage.ETAG,
+        () -> {
+          clock.add(Duration.ofMillis(1));
+          sample.time(Stage.READ_VSD, () -> clock.add(Duration.ofMillis(3)));
+          sample.time(Stage.ENCODING, () -> clock.add(Duration.ofMillis(4)));
+          clock.add(Duration.ofMillis(2));
+        });
+    sample.stop("200");
+
+    assertEquals(3, stageMillis("etag"));
+    assertEquals(3, stageMillis("read_vsd"));
+    assertEquals(4, stageMillis("encoding"));
+    assertEquals(
+        10,
+        registry
+            .get(VsdmReadMetrics.REQUEST_TIMER)
+            .tag("outcome", "200")
+            .timer()
+            .totalTime(TimeUnit.MILLISECONDS));
+  }
+
+  @Test
+  void testTime_RecordsFailingStage() {
+    VsdmReadMetrics.Sample sample = metrics.start();
+    ResponseStatusException ex = new ResponseStatusException(HttpStatus.BAD_REQUEST, "invalid");
+
+    assertThrows(
+        ResponseStatusException.class,
+        () ->
+            sample.time(
+                Stage.POPP,
+                () -> {
+                  throw ex;
+                }));
+    sample.stop(VsdmReadMetrics.outcome(ex));
+
+    assertEquals(
+        1,
+        registry
+            .get(VsdmReadMetrics.STAGE_TIMER)
+            .tags("stage", "popp", "outcome", "4xx")
+            .timer()
+            .count());
+  }
+
+  @Test
+  void testOutcome() {
+    assertEquals("200", VsdmReadMetrics.outcome(200));
+    assertEquals("304", VsdmReadMetrics.outcome(304));
+    assertEquals("4xx", VsdmReadMetrics.outcome(428));
+    assertEquals("5xx", VsdmReadMetrics.outcome(503));
+    assertEquals("5xx", VsdmReadMetrics.outcome(new IllegalStateException()));
+    assertEquals(
+        VsdmReadMetrics.outcome(ErrorCase.VSDSERVICE_MISSING_PATIENT_RECORD_VERSION.getHttpCode()),
+        VsdmReadMetrics.outcome(
+            new ResponseStatusException(
+                HttpStatus.INTERNAL_SERVER_ERROR,
+                ErrorCase.VSDSERVICE_MISSING_PATIENT_RECORD_VERSION.getBdeReference())));
+  }
+
+  private double stageMillis(String stage) {
+    return registry
+        .get(VsdmReadMetrics.STAGE_TIMER)
+        .tags("stage", stage, "outcome", "200")
+        .timer()
+        .totalTime(TimeUnit.MILLISECONDS);
+  }
+}
@@ -0,0 +1,55 @@
+/*-
+ * #%L
+ * VSDM Server Simservice
+ * %%
+ * Copyright (C) 2025 - 2026 gematik GmbH
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * *******
+ *
+ * For additional notes and disclaimer from gematik and in case of changes
+ * by gematik, find details in the "Readme" file.
+ * #L%
+ */
+package de.gematik.ti20.simsvc.server.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import de.gematik.bbriccs.fhir.EncodingType;
+import org.junit.jupiter.api.Test;
+
+class VsdmResponseCacheTest {
+
+  @Test
+  void testPut_CurrentGeneration() {
+    VsdmResponseCache cache = new VsdmResponseCache(10);
+
+    assertTrue(cache.put("X123456789", EncodingType.JSON, "body", cache.generation()));
+    assertEquals("body", cache.get("X123456789", EncodingType.JSON));
+    assertNull(cache.get("X123456789", EncodingType.XML));
+  }
+
+  @Test
+  void testPut_SkippedAfterInvalidation() {
+    VsdmResponseCache cache = new VsdmResponseCache(10);
+    long generation = cache.generation();
+
+    cache.invalidateAll();
+
+    assertFalse(cache.put("X123456789", EncodingType.JSON, "stale", generation));
+    assertNull(cache.get("X123456789", EncodingType.JSON));
+    assertTrue(cache.put("X123456789", EncodingType.JSON, "fresh", cache.generation()));
+    assertEquals("fresh", cache.get("X123456789", EncodingType.JSON));
+  }
+}